@@ -0,0 +1,52 @@
+package com.org.trade.core.benchmark;
+
+import com.org.trade.core.domain.Weekend;
+import com.org.trade.core.domain.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Settlement date resolution over a rolling week, so weekdays and both weekend days are all exercised.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateUtilBenchmark {
+
+    private static final int DATES = 1024;
+
+    @Param({"SAT_SUN", "FRI_SAT"})
+    public Weekend weekend;
+
+    private LocalDate[] dates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dates = new LocalDate[DATES];
+        for (int i = 0; i < DATES; i++) {
+            dates[i] = InstructionDataSet.SETTLED_DATE.plusDays(i);
+        }
+    }
+
+    @Benchmark
+    public LocalDate determineNextAllowableDate() {
+        next = (next + 1) & (DATES - 1);
+        return DateUtil.determineNextAllowableDate(dates[next], weekend);
+    }
+}
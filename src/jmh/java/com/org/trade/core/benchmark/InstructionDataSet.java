@@ -0,0 +1,33 @@
+package com.org.trade.core.benchmark;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ *  Shared instruction book for the benchmarks, generated from the scaled-up happy path fixture.
+ *
+ *  The 10M size needs a large heap, pass e.g. -jvmArgsAppend -Xmx12g when running it.
+ */
+@State(Scope.Benchmark)
+public class InstructionDataSet {
+
+    public static final LocalDate SETTLED_DATE = HappyPathBuilder.AUGUST_FOURTEEN_2017;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    public List<TradingInstruction> tradingInstructions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tradingInstructions = HappyPathBuilder.buildTradingInstructions(size);
+    }
+}
@@ -0,0 +1,97 @@
+package com.org.trade.core.benchmark;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.reporting.ColumnarInstructionStore;
+import com.org.trade.core.reporting.DailySettlementReport;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Every ReportGenerator query for a single settlement date, for each way of building the generator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportGeneratorBenchmark {
+
+    public enum Mode {
+        SCAN, INDEXED, COLUMNAR, PARALLEL
+    }
+
+    @Param({"SCAN", "INDEXED", "COLUMNAR", "PARALLEL"})
+    public Mode mode;
+
+    private ReportGenerator reportGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp(final InstructionDataSet dataSet) {
+        reportGenerator = build(dataSet.tradingInstructions);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReportGenerator build(final InstructionDataSet dataSet) {
+        return build(dataSet.tradingInstructions);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalOfIncomingTransactions() {
+        return reportGenerator.calculateTotalOfIncomingTransactions(InstructionDataSet.SETTLED_DATE);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalOfOutgoingTransactions() {
+        return reportGenerator.calculateTotalOfOutgoingTransactions(InstructionDataSet.SETTLED_DATE);
+    }
+
+    @Benchmark
+    public List<TradingInstruction> sortIncomingTradingByAmount() {
+        return reportGenerator.sortIncomingTradingByAmount(InstructionDataSet.SETTLED_DATE);
+    }
+
+    @Benchmark
+    public List<TradingInstruction> sortOutgoingTradingByAmount() {
+        return reportGenerator.sortOutgoingTradingByAmount(InstructionDataSet.SETTLED_DATE);
+    }
+
+    @Benchmark
+    public List<TradingInstruction> topIncomingTradingByAmount() {
+        return reportGenerator.topIncomingTradingByAmount(InstructionDataSet.SETTLED_DATE, 100);
+    }
+
+    @Benchmark
+    public DailySettlementReport generateDailySettlementReport() {
+        return reportGenerator.generateDailySettlementReport(InstructionDataSet.SETTLED_DATE);
+    }
+
+    private ReportGenerator build(final List<TradingInstruction> tradingInstructions) {
+        switch (mode) {
+            case INDEXED:
+                return ReportGenerator.indexedOf(tradingInstructions);
+            case PARALLEL:
+                return ReportGenerator.parallelOf(tradingInstructions);
+            case COLUMNAR:
+                return ReportGenerator.ofStore(ColumnarInstructionStore.of(tradingInstructions));
+            default:
+                return ReportGenerator.of(tradingInstructions);
+        }
+    }
+}
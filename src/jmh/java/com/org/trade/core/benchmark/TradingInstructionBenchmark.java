@@ -0,0 +1,71 @@
+package com.org.trade.core.benchmark;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import static com.org.trade.core.domain.TradingInstruction.Builder;
+
+/*
+ *  Per-instruction costs: building (validation and settlement date resolution) and the trade amount.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TradingInstructionBenchmark {
+
+    private static final int BUILDERS = 1024;
+
+    private Builder[] builders;
+    private TradingInstruction[] tradingInstructions;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        builders = new Builder[BUILDERS];
+        tradingInstructions = new TradingInstruction[BUILDERS];
+        for (int i = 0; i < BUILDERS; i++) {
+            builders[i] = HappyPathBuilder.buildTradingInstruction(i);
+            tradingInstructions[i] = builders[i].build();
+        }
+    }
+
+    @Benchmark
+    public TradingInstruction build() {
+        return builders[nextIndex()].build();
+    }
+
+    @Benchmark
+    public BigDecimal determineTradeAmount() {
+        return tradingInstructions[nextIndex()].determineTradeAmount();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void determineTradeAmountOfBook(final InstructionDataSet dataSet, final Blackhole blackhole) {
+        for (TradingInstruction tradingInstruction : dataSet.tradingInstructions) {
+            blackhole.consume(tradingInstruction.determineTradeAmount());
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (BUILDERS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,27 @@
+package com.org.trade.core.domain;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+*  Outcome of {@link TradingInstruction.Builder#buildAll(Iterable)}: the instructions built, in batch order, and
+*  the builders rejected.
+*/
+public final class BatchBuildResult {
+
+    private final List<TradingInstruction> accepted;
+    private final List<BuildReject> rejects;
+
+    BatchBuildResult(final List<TradingInstruction> accepted, final List<BuildReject> rejects) {
+        this.accepted = Collections.unmodifiableList(accepted);
+        this.rejects = Collections.unmodifiableList(rejects);
+    }
+
+    public List<TradingInstruction> getAccepted() {
+        return accepted;
+    }
+
+    public List<BuildReject> getRejects() {
+        return rejects;
+    }
+}
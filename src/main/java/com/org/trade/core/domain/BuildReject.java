@@ -0,0 +1,50 @@
+package com.org.trade.core.domain;
+
+import com.google.common.base.Objects;
+
+import java.util.Collections;
+import java.util.Set;
+
+/*
+*  Builder of a batch that did not hold a valid instruction, with its position in the batch and every problem found.
+*/
+public final class BuildReject {
+
+    private final int index;
+    private final Set<ValidationFailure> failures;
+
+    BuildReject(final int index, final Set<ValidationFailure> failures) {
+        this.index = index;
+        this.failures = Collections.unmodifiableSet(failures);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Set<ValidationFailure> getFailures() {
+        return failures;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BuildReject that = (BuildReject) o;
+        return index == that.index && Objects.equal(failures, that.failures);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(index, failures);
+    }
+
+    @Override
+    public String toString() {
+        return "BuildReject{index=" + index + ", failures=" + failures + '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.org.trade.core.domain;
+
+import com.org.trade.core.domain.calendar.BusinessCalendar;
+import com.org.trade.core.domain.calendar.BusinessCalendars;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/*
+*  Registry of the currencies instructions can be traded in.
+*
+*  Each ISO code maps to one interned {@link TradeCurrency} carrying its settlement calendar and decimal precision.
+*  Common currencies are registered up front: SAR and AED settle on a Friday and Saturday weekend, every other
+*  currency on Saturday and Sunday. Any other ISO 4217 code is registered on first lookup with the Saturday and
+*  Sunday weekend and the ISO number of decimals; codes that are not ISO codes are only known once registered
+*  explicitly, so a mistyped code is reported instead of becoming a currency.
+*/
+public final class Currencies {
+
+    private static final Map<String, TradeCurrency> BY_CODE = new ConcurrentHashMap<>();
+    private static volatile TradeCurrency[] byId = new TradeCurrency[0];
+
+    public static final TradeCurrency USD = register("USD", Weekend.SAT_SUN, 2);
+    public static final TradeCurrency EUR = register("EUR", Weekend.SAT_SUN, 2);
+    public static final TradeCurrency GBP = register("GBP", Weekend.SAT_SUN, 2);
+    public static final TradeCurrency JPY = register("JPY", Weekend.SAT_SUN, 0);
+    public static final TradeCurrency CHF = register("CHF", Weekend.SAT_SUN, 2);
+    public static final TradeCurrency SAR = register("SAR", Weekend.FRI_SAT, 2);
+    public static final TradeCurrency AED = register("AED", Weekend.FRI_SAT, 2);
+
+    static {
+        register("AUD", Weekend.SAT_SUN, 2);
+        register("CAD", Weekend.SAT_SUN, 2);
+        register("CNY", Weekend.SAT_SUN, 2);
+        register("HKD", Weekend.SAT_SUN, 2);
+        register("INR", Weekend.SAT_SUN, 2);
+        register("NZD", Weekend.SAT_SUN, 2);
+        register("SGD", Weekend.SAT_SUN, 2);
+        register("SEK", Weekend.SAT_SUN, 2);
+        register("NOK", Weekend.SAT_SUN, 2);
+        register("DKK", Weekend.SAT_SUN, 2);
+        register("ZAR", Weekend.SAT_SUN, 2);
+        register("KWD", Weekend.SAT_SUN, 3);
+        register("BHD", Weekend.SAT_SUN, 3);
+        register("OMR", Weekend.SAT_SUN, 3);
+    }
+
+    private Currencies() {
+    }
+
+    /*
+    *  Canonical currency for the given code, case insensitive. Throws for blank codes and codes that are neither
+    *  registered nor ISO 4217 codes.
+    */
+    public static TradeCurrency of(final String code) {
+        Optional<TradeCurrency> currency = find(code);
+        checkArgument(currency.isPresent(), "Currency %s is not registered", code);
+        return currency.get();
+    }
+
+    /*
+    *  Canonical currency for the given code, case insensitive. ISO 4217 codes that are not registered yet are
+    *  registered with the Saturday and Sunday weekend. Empty for blank codes and codes that are neither registered
+    *  nor ISO codes.
+    */
+    public static Optional<TradeCurrency> find(final String code) {
+        checkNotNull(code, "Currency should not be null");
+        TradeCurrency currency = BY_CODE.get(code);
+        if (currency != null) {
+            return Optional.of(currency);
+        }
+        String canonicalCode = code.trim().toUpperCase(Locale.ROOT);
+        currency = BY_CODE.get(canonicalCode);
+        if (currency != null) {
+            return Optional.of(currency);
+        }
+        Currency isoCurrency;
+        try {
+            isoCurrency = Currency.getInstance(canonicalCode);
+        } catch (IllegalArgumentException notIso) {
+            return Optional.empty();
+        }
+        // Codes without a minor unit, like gold or the SDR, report -1 digits.
+        return Optional.of(register(canonicalCode, Weekend.SAT_SUN, Math.max(0, isoCurrency.getDefaultFractionDigits())));
+    }
+
+    /*
+    *  Currency with the given id, see {@link TradeCurrency#getId()}.
+    */
+    public static TradeCurrency byId(final int id) {
+        TradeCurrency[] currencies = byId;
+        checkArgument(id >= 0 && id < currencies.length, "Unknown currency id %s", id);
+        return currencies[id];
+    }
+
+    /*
+    *  Number of registered currencies, ids range from zero to size - 1.
+    */
+    public static int size() {
+        return byId.length;
+    }
+
+    public static TradeCurrency register(final String code, final Weekend weekend, final int decimalPrecision) {
+        checkNotNull(weekend, "Weekend should not be null");
+        return register(code, BusinessCalendars.forWeekend(weekend), decimalPrecision);
+    }
+
+    /*
+    *  Registers a currency with its own calendar, for example one including holidays. Registering a code again
+    *  with the same calendar and precision returns the existing currency.
+    */
+    public static synchronized TradeCurrency register(final String code, final BusinessCalendar businessCalendar,
+                                                      final int decimalPrecision) {
+        checkNotNull(code, "Currency should not be null");
+        checkNotNull(businessCalendar, "Business calendar should not be null");
+        checkArgument(decimalPrecision >= 0, "Decimal precision should not be negative");
+        String canonicalCode = canonical(code);
+        TradeCurrency existing = BY_CODE.get(canonicalCode);
+        if (existing != null) {
+            checkState(existing.getBusinessCalendar() == businessCalendar && existing.getDecimalPrecision() == decimalPrecision,
+                    "Currency %s is already registered with different rules", canonicalCode);
+            return existing;
+        }
+        TradeCurrency[] currencies = Arrays.copyOf(byId, byId.length + 1);
+        TradeCurrency currency = new TradeCurrency(byId.length, canonicalCode, businessCalendar, decimalPrecision);
+        currencies[currency.getId()] = currency;
+        byId = currencies;
+        BY_CODE.put(canonicalCode, currency);
+        return currency;
+    }
+
+    /*
+    *  Replaces the calendar of an already registered currency, for example to add the holidays of one of the
+    *  currencies registered up front. Instructions built before keep the settlement date rolled with the previous
+    *  calendar.
+    */
+    public static synchronized TradeCurrency installCalendar(final String code, final BusinessCalendar businessCalendar) {
+        checkNotNull(code, "Currency should not be null");
+        checkNotNull(businessCalendar, "Business calendar should not be null");
+        TradeCurrency currency = of(code);
+        currency.setBusinessCalendar(businessCalendar);
+        return currency;
+    }
+
+    private static String canonical(final String code) {
+        String canonicalCode = code.trim().toUpperCase(Locale.ROOT);
+        checkArgument(!canonicalCode.isEmpty(), "Currency should not be empty");
+        return canonicalCode;
+    }
+}
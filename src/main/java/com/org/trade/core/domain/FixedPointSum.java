@@ -0,0 +1,111 @@
+package com.org.trade.core.domain;
+
+import java.math.BigDecimal;
+
+/*
+*  Exact running sum of trade amounts kept as a scaled long, falling back to BigDecimal only once a value
+*  overflows the long or needs a scale the long cannot be rescaled to.
+*
+*  The result is identical to reducing the same values with BigDecimal::add, scale included: the largest scale
+*  added wins, and it is zero when nothing was added. Adding scaled values never allocates while the sum fits a
+*  long. Not thread safe.
+*/
+public final class FixedPointSum {
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L,
+            100_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private boolean empty = true;
+    private long unscaled;
+    private int scale;
+    private BigDecimal overflow;
+
+    /*
+    *  Adds the value unscaled * 10^-scale.
+    */
+    public FixedPointSum add(final long value, final int valueScale) {
+        if (overflow != null) {
+            overflow = overflow.add(BigDecimal.valueOf(value, valueScale));
+            return this;
+        }
+        if (empty) {
+            unscaled = value;
+            scale = valueScale;
+            empty = false;
+            return this;
+        }
+        try {
+            long rescaledValue = value;
+            long rescaledSum = unscaled;
+            int sumScale = scale;
+            if (valueScale > scale) {
+                rescaledSum = Math.multiplyExact(unscaled, powerOfTen(valueScale - scale));
+                sumScale = valueScale;
+            } else if (valueScale < scale) {
+                rescaledValue = Math.multiplyExact(value, powerOfTen(scale - valueScale));
+            }
+            unscaled = Math.addExact(rescaledSum, rescaledValue);
+            scale = sumScale;
+        } catch (ArithmeticException e) {
+            overflow = BigDecimal.valueOf(unscaled, scale).add(BigDecimal.valueOf(value, valueScale));
+        }
+        return this;
+    }
+
+    public FixedPointSum add(final BigDecimal value) {
+        if (overflow == null) {
+            overflow = empty ? value : BigDecimal.valueOf(unscaled, scale).add(value);
+            empty = false;
+        } else {
+            overflow = overflow.add(value);
+        }
+        return this;
+    }
+
+    /*
+    *  Adds the trade amount price per unit * rate * number of units given as unscaled values and scales, the
+    *  value {@link TradingInstructionView#determineTradeAmount()} would give.
+    */
+    public FixedPointSum addTradeAmount(final long unscaledPrice, final int priceScale, final long unscaledRate,
+                                        final int rateScale, final int numberOfUnits) {
+        long product;
+        try {
+            product = Math.multiplyExact(Math.multiplyExact(unscaledPrice, unscaledRate), (long) numberOfUnits);
+        } catch (ArithmeticException overflowed) {
+            return add(BigDecimal.valueOf(unscaledPrice, priceScale)
+                    .multiply(BigDecimal.valueOf(unscaledRate, rateScale))
+                    .multiply(new BigDecimal(numberOfUnits)));
+        }
+        return add(product, priceScale + rateScale);
+    }
+
+    /*
+    *  Adds another sum, for example the partial sum of another thread.
+    */
+    public FixedPointSum add(final FixedPointSum other) {
+        if (other.overflow != null) {
+            return add(other.overflow);
+        }
+        return other.empty ? this : add(other.unscaled, other.scale);
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    public BigDecimal toBigDecimal() {
+        if (overflow != null) {
+            return overflow;
+        }
+        return empty ? BigDecimal.ZERO : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static long powerOfTen(final int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Scale difference too large for long arithmetic");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+}
@@ -0,0 +1,63 @@
+package com.org.trade.core.domain;
+
+import com.org.trade.core.domain.calendar.BusinessCalendar;
+
+/*
+*  Canonical currency obtained from {@link Currencies}. There is exactly one instance per ISO code, so currencies
+*  can be compared by reference or by their small integer id.
+*/
+public final class TradeCurrency {
+
+    /*
+    * Dense id assigned in registration order, usable as an array index
+    */
+    private final int id;
+    /*
+    * Upper case ISO code
+    */
+    private final String code;
+    /*
+    * Calendar used to roll settlement dates in this currency, replaceable through {@link Currencies#installCalendar}
+    */
+    private volatile BusinessCalendar businessCalendar;
+    /*
+    * Number of decimal places of the currency's minor unit
+    */
+    private final int decimalPrecision;
+
+    TradeCurrency(final int id, final String code, final BusinessCalendar businessCalendar, final int decimalPrecision) {
+        this.id = id;
+        this.code = code;
+        this.businessCalendar = businessCalendar;
+        this.decimalPrecision = decimalPrecision;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public BusinessCalendar getBusinessCalendar() {
+        return businessCalendar;
+    }
+
+    void setBusinessCalendar(final BusinessCalendar businessCalendar) {
+        this.businessCalendar = businessCalendar;
+    }
+
+    public Weekend getWeekend() {
+        return businessCalendar.getWeekend();
+    }
+
+    public int getDecimalPrecision() {
+        return decimalPrecision;
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -1,10 +1,18 @@
 package com.org.trade.core.domain;
 
 import com.google.common.base.Objects;
-import com.org.trade.core.domain.util.DateUtil;
+import com.org.trade.core.domain.calendar.BusinessCalendar;
+import com.org.trade.core.metrics.Metric;
+import com.org.trade.core.metrics.Metrics;
+import com.org.trade.core.metrics.MetricsRecorder;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
@@ -14,7 +22,7 @@ import static com.google.common.base.Preconditions.checkState;
 *  organisation to execute in the international market.
 *
 */
-public class TradingInstruction {
+public class TradingInstruction implements TradingInstructionView {
 
     /*
      *  Entity to be traded see {@link EntityType}
@@ -30,9 +38,9 @@ public class TradingInstruction {
     */
     private final BigDecimal rate;
     /*
-    * Currency in which trade to be executed.
+    * Currency in which trade to be executed, see {@link Currencies}.
     */
-    private final String currency;
+    private final TradeCurrency currency;
     /*
     * Date on which the customers send the instruction
     */
@@ -49,20 +57,64 @@ public class TradingInstruction {
     * Price per unit
     * */
     private final BigDecimal pricePerUnit;
+    /*
+    * Unscaled values of the rate and the price per unit, computed once when the instruction is created. Only
+    * meaningful when unscaledValuesFitLong is set.
+    */
+    private final long unscaledRate;
+    private final long unscaledPricePerUnit;
+    private final boolean unscaledValuesFitLong;
+    /*
+    * Cached hash code, zero until first computed. Racy but safe like String's, the fields are final.
+    */
+    private int hash;
 
     private TradingInstruction(final Builder builder) {
         entityType = checkNotNull(builder.entityType, "Entity type should not be null when building %s", this.getClass());
         direction = checkNotNull(builder.direction, "Direction should not be null when building %s", this.getClass());
         rate = checkNotNull(builder.agreedFxRate, "Agreed FX Rate should not be null when building %s", this.getClass());
         checkState(rate.compareTo(BigDecimal.ZERO) > 0, "Agreed rate should be greater than zero");
-        currency = checkNotNull(builder.currency, "Currency should not be null when building %s", this.getClass());
+        currency = builder.tradeCurrency != null ? builder.tradeCurrency
+                : Currencies.find(checkNotNull(builder.currency, "Currency should not be null when building %s", this.getClass())).orElse(null);
+        checkState(currency != null, "Currency should be a registered or ISO 4217 currency code");
         instructionDate = checkNotNull(builder.instructionDate, "Instruction date should not be null when building %s", this.getClass());
         checkNotNull(builder.settlementDate, "Settlement date should not be null when building %s", this.getClass());
-        settlementDate = determineSettlementDate(builder.settlementDate);
+        settlementDate = determineSettlementDate(builder.settlementDate, builder.businessCalendar);
         checkState(builder.numberOfUnits > 0, "No of units should be greater than zero");
         numberOfUnits = builder.numberOfUnits;
         pricePerUnit = checkNotNull(builder.pricePerUnit, "Price per unit should not be null when building %s", this.getClass());
         checkState(pricePerUnit.compareTo(BigDecimal.ZERO) > 0, "Price per unit should be greater than zero");
+        unscaledValuesFitLong = fitsLong(rate) && fitsLong(pricePerUnit);
+        unscaledRate = rate.unscaledValue().longValue();
+        unscaledPricePerUnit = pricePerUnit.unscaledValue().longValue();
+    }
+
+    private TradingInstruction(final EntityType entityType, final Direction direction, final BigDecimal rate,
+                               final TradeCurrency currency, final LocalDate instructionDate, final LocalDate settlementDate,
+                               final int numberOfUnits, final BigDecimal pricePerUnit) {
+        this.entityType = entityType;
+        this.direction = direction;
+        this.rate = rate;
+        this.currency = currency;
+        this.instructionDate = instructionDate;
+        this.settlementDate = settlementDate;
+        this.numberOfUnits = numberOfUnits;
+        this.pricePerUnit = pricePerUnit;
+        this.unscaledValuesFitLong = fitsLong(rate) && fitsLong(pricePerUnit);
+        this.unscaledRate = rate.unscaledValue().longValue();
+        this.unscaledPricePerUnit = pricePerUnit.unscaledValue().longValue();
+    }
+
+    /*
+    *  Recreates an instruction from the fields of one that was built before, for example when reloading a
+    *  snapshot or a columnar store. The settlement date must already be resolved: no validation or settlement
+    *  date rolling takes place, so the values must not come from untrusted input.
+    */
+    public static TradingInstruction restore(final EntityType entityType, final Direction direction, final BigDecimal rate,
+                                             final TradeCurrency currency, final LocalDate instructionDate,
+                                             final LocalDate settlementDate, final int numberOfUnits,
+                                             final BigDecimal pricePerUnit) {
+        return new TradingInstruction(entityType, direction, rate, currency, instructionDate, settlementDate, numberOfUnits, pricePerUnit);
     }
 
     public LocalDate getSettlementDate() {
@@ -77,6 +129,67 @@ public class TradingInstruction {
         return entityType;
     }
 
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public TradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public LocalDate getInstructionDate() {
+        return instructionDate;
+    }
+
+    public int getNumberOfUnits() {
+        return numberOfUnits;
+    }
+
+    public BigDecimal getPricePerUnit() {
+        return pricePerUnit;
+    }
+
+    public long getInstructionEpochDay() {
+        return instructionDate.toEpochDay();
+    }
+
+    public long getSettlementEpochDay() {
+        return settlementDate.toEpochDay();
+    }
+
+    @Override
+    public boolean hasLongUnscaledValues() {
+        return unscaledValuesFitLong;
+    }
+
+    public long getUnscaledRate() {
+        checkUnscaledValuesFitLong();
+        return unscaledRate;
+    }
+
+    public int getRateScale() {
+        return rate.scale();
+    }
+
+    public long getUnscaledPricePerUnit() {
+        checkUnscaledValuesFitLong();
+        return unscaledPricePerUnit;
+    }
+
+    private void checkUnscaledValuesFitLong() {
+        if (!unscaledValuesFitLong) {
+            throw new ArithmeticException("Unscaled rate or price per unit does not fit a long");
+        }
+    }
+
+    private static boolean fitsLong(final BigDecimal value) {
+        return value.unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    public int getPriceScale() {
+        return pricePerUnit.scale();
+    }
+
     /*
     *  Calculates the USD equivalent amount of the trade.
     *
@@ -85,16 +198,15 @@ public class TradingInstruction {
         return pricePerUnit.multiply(rate).multiply(new BigDecimal(numberOfUnits));
     }
 
-    private LocalDate determineSettlementDate(final LocalDate settlementDate) {
-        if (isCurrencyAEDorSAR()) { // For SAR and AED the week end is friday and saturday
-            return DateUtil.determineNextAllowableDate(settlementDate, Weekend.FRI_SAT);
-        } else {
-            return DateUtil.determineNextAllowableDate(settlementDate, Weekend.SAT_SUN);
+    /*
+    *  Rolls the settlement date to the next business day of the given calendar or, when there is none, of the
+    *  currency's calendar. For SAR and AED the week end is friday and saturday.
+    */
+    private LocalDate determineSettlementDate(final LocalDate settlementDate, final BusinessCalendar businessCalendar) {
+        if (businessCalendar != null) {
+            return businessCalendar.nextBusinessDay(settlementDate);
         }
-    }
-
-    private boolean isCurrencyAEDorSAR() {
-        return "AED".equalsIgnoreCase(currency) || "SAR".equalsIgnoreCase(currency);
+        return currency.getBusinessCalendar().nextBusinessDay(settlementDate);
     }
 
     @Override
@@ -110,17 +222,81 @@ public class TradingInstruction {
                 entityType == that.entityType &&
                 direction == that.direction &&
                 Objects.equal(rate, that.rate) &&
-                Objects.equal(currency, that.currency) &&
+                currency == that.currency &&
                 Objects.equal(instructionDate, that.instructionDate) &&
                 Objects.equal(settlementDate, that.settlementDate) &&
                 Objects.equal(pricePerUnit, that.pricePerUnit);
     }
 
+    /*
+    *  Same value as Objects.hashCode over the fields, computed once without boxing or a varargs array.
+    */
     @Override
     public int hashCode() {
-        return Objects.hashCode(entityType, direction, rate, currency, instructionDate, settlementDate, numberOfUnits, pricePerUnit);
+        int result = hash;
+        if (result == 0) {
+            result = 1;
+            result = 31 * result + entityType.hashCode();
+            result = 31 * result + direction.hashCode();
+            result = 31 * result + rate.hashCode();
+            result = 31 * result + currency.hashCode();
+            result = 31 * result + instructionDate.hashCode();
+            result = 31 * result + settlementDate.hashCode();
+            result = 31 * result + numberOfUnits;
+            result = 31 * result + pricePerUnit.hashCode();
+            hash = result;
+        }
+        return result;
     }
 
+    /*
+    *  64 bit fingerprint of the fields, equal for equal instructions and stable across processes. Two different
+    *  instructions share a fingerprint with a probability of about 2^-64.
+    */
+    public long fingerprint() {
+        long fingerprint = mix(entityType.ordinal() * 2L + direction.ordinal());
+        fingerprint = mix(fingerprint, rate);
+        String code = currency.getCode();
+        fingerprint = mix(fingerprint ^ code.length());
+        for (int i = 0; i < code.length(); i++) {
+            fingerprint = mix(fingerprint ^ code.charAt(i));
+        }
+        fingerprint = mix(fingerprint ^ instructionDate.toEpochDay());
+        fingerprint = mix(fingerprint ^ settlementDate.toEpochDay());
+        fingerprint = mix(fingerprint ^ numberOfUnits);
+        return mix(fingerprint, pricePerUnit);
+    }
+
+    /*
+    *  Mixes in the full unscaled value, eight bytes at a time when it does not fit a long, and the scale.
+    */
+    private static long mix(long fingerprint, final BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < Long.SIZE) {
+            fingerprint = mix(fingerprint ^ unscaled.longValue());
+        } else {
+            byte[] bytes = unscaled.toByteArray();
+            fingerprint = mix(fingerprint ^ bytes.length);
+            for (int start = 0; start < bytes.length; start += Long.BYTES) {
+                long chunk = 0;
+                for (int i = start; i < Math.min(bytes.length, start + Long.BYTES); i++) {
+                    chunk = chunk << 8 | (bytes[i] & 0xFF);
+                }
+                fingerprint = mix(fingerprint ^ chunk);
+            }
+        }
+        return mix(fingerprint ^ value.scale());
+    }
+
+    /*
+    *  Finalizer of the SplitMix64 generator, spreads every input bit over the whole long.
+    */
+    private static long mix(final long value) {
+        long mixed = (value + 0x9E3779B97F4A7C15L);
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
 
     public static class Builder {
 
@@ -128,10 +304,12 @@ public class TradingInstruction {
         private Direction direction;
         private BigDecimal agreedFxRate;
         private String currency;
+        private TradeCurrency tradeCurrency;
         private LocalDate instructionDate;
         private LocalDate settlementDate;
         private int numberOfUnits;
         private BigDecimal pricePerUnit;
+        private BusinessCalendar businessCalendar;
 
         private Builder() {
         }
@@ -155,8 +333,18 @@ public class TradingInstruction {
             return this;
         }
 
+        /*
+        *  ISO code of the currency, resolved through {@link Currencies#of(String)} when the instruction is built.
+        */
         public Builder withCurrency(final String currency) {
             this.currency = currency;
+            this.tradeCurrency = null;
+            return this;
+        }
+
+        public Builder withTradeCurrency(final TradeCurrency tradeCurrency) {
+            this.tradeCurrency = tradeCurrency;
+            this.currency = null;
             return this;
         }
 
@@ -180,8 +368,134 @@ public class TradingInstruction {
             return this;
         }
 
+        /*
+        *  Calendar used to roll the settlement date, for example one with holidays. When not set the weekend
+        *  calendar of the currency is used.
+        */
+        public Builder withBusinessCalendar(final BusinessCalendar businessCalendar) {
+            this.businessCalendar = businessCalendar;
+            return this;
+        }
+
         public TradingInstruction build() {
-            return new TradingInstruction(this);
+            MetricsRecorder recorder = Metrics.recorder();
+            if (!recorder.isEnabled()) {
+                return new TradingInstruction(this);
+            }
+            TradingInstruction tradingInstruction;
+            try {
+                tradingInstruction = new TradingInstruction(this);
+            } catch (RuntimeException e) {
+                recorder.increment(Metric.INSTRUCTIONS_REJECTED);
+                throw e;
+            }
+            recorder.increment(Metric.INSTRUCTIONS_BUILT);
+            if (!tradingInstruction.settlementDate.isEqual(settlementDate)) {
+                recorder.increment(Metric.SETTLEMENT_DATES_ROLLED);
+            }
+            return tradingInstruction;
+        }
+
+        /*
+        *  First problem {@link #build()} would fail on, or null when the builder holds a valid instruction.
+        *  Nothing is thrown, which keeps rejecting bad input cheap.
+        */
+        public ValidationFailure validate() {
+            if (entityType == null) {
+                return ValidationFailure.MISSING_ENTITY_TYPE;
+            }
+            if (direction == null) {
+                return ValidationFailure.MISSING_DIRECTION;
+            }
+            if (agreedFxRate == null) {
+                return ValidationFailure.MISSING_AGREED_FX_RATE;
+            }
+            if (agreedFxRate.signum() <= 0) {
+                return ValidationFailure.NON_POSITIVE_AGREED_FX_RATE;
+            }
+            if (tradeCurrency == null && currency == null) {
+                return ValidationFailure.MISSING_CURRENCY;
+            }
+            if (tradeCurrency == null && !Currencies.find(currency).isPresent()) {
+                return ValidationFailure.UNKNOWN_CURRENCY;
+            }
+            if (instructionDate == null) {
+                return ValidationFailure.MISSING_INSTRUCTION_DATE;
+            }
+            if (settlementDate == null) {
+                return ValidationFailure.MISSING_SETTLEMENT_DATE;
+            }
+            if (numberOfUnits <= 0) {
+                return ValidationFailure.NON_POSITIVE_NUMBER_OF_UNITS;
+            }
+            if (pricePerUnit == null) {
+                return ValidationFailure.MISSING_PRICE_PER_UNIT;
+            }
+            if (pricePerUnit.signum() <= 0) {
+                return ValidationFailure.NON_POSITIVE_PRICE_PER_UNIT;
+            }
+            return null;
+        }
+
+        /*
+        *  Every problem of the builder, empty when it holds a valid instruction.
+        */
+        public Set<ValidationFailure> validateAll() {
+            Set<ValidationFailure> failures = EnumSet.noneOf(ValidationFailure.class);
+            if (entityType == null) {
+                failures.add(ValidationFailure.MISSING_ENTITY_TYPE);
+            }
+            if (direction == null) {
+                failures.add(ValidationFailure.MISSING_DIRECTION);
+            }
+            if (agreedFxRate == null) {
+                failures.add(ValidationFailure.MISSING_AGREED_FX_RATE);
+            } else if (agreedFxRate.signum() <= 0) {
+                failures.add(ValidationFailure.NON_POSITIVE_AGREED_FX_RATE);
+            }
+            if (tradeCurrency == null && currency == null) {
+                failures.add(ValidationFailure.MISSING_CURRENCY);
+            } else if (tradeCurrency == null && !Currencies.find(currency).isPresent()) {
+                failures.add(ValidationFailure.UNKNOWN_CURRENCY);
+            }
+            if (instructionDate == null) {
+                failures.add(ValidationFailure.MISSING_INSTRUCTION_DATE);
+            }
+            if (settlementDate == null) {
+                failures.add(ValidationFailure.MISSING_SETTLEMENT_DATE);
+            }
+            if (numberOfUnits <= 0) {
+                failures.add(ValidationFailure.NON_POSITIVE_NUMBER_OF_UNITS);
+            }
+            if (pricePerUnit == null) {
+                failures.add(ValidationFailure.MISSING_PRICE_PER_UNIT);
+            } else if (pricePerUnit.signum() <= 0) {
+                failures.add(ValidationFailure.NON_POSITIVE_PRICE_PER_UNIT);
+            }
+            return failures;
+        }
+
+        /*
+        *  Builds every valid instruction of the batch and collects the others as rejects with all their problems,
+        *  without throwing for any of them.
+        */
+        public static BatchBuildResult buildAll(final Iterable<Builder> builders) {
+            checkNotNull(builders, "Builders should not be null");
+            List<TradingInstruction> accepted = new ArrayList<>();
+            List<BuildReject> rejects = new ArrayList<>();
+            int index = 0;
+            for (Builder builder : builders) {
+                if (builder.validate() == null) {
+                    accepted.add(builder.build());
+                } else {
+                    rejects.add(new BuildReject(index, builder.validateAll()));
+                }
+                index++;
+            }
+            if (!rejects.isEmpty()) {
+                Metrics.recorder().add(Metric.INSTRUCTIONS_REJECTED, rejects.size());
+            }
+            return new BatchBuildResult(accepted, rejects);
         }
     }
 }
@@ -0,0 +1,73 @@
+package com.org.trade.core.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/*
+*  Read only view of a trading instruction, implemented by {@link TradingInstruction} and by flyweights reading
+*  the fields straight out of a binary record.
+*
+*  The primitive accessors let consumers such as a columnar store copy an instruction without any allocation when
+*  the view is a flyweight. The object accessors may allocate on every call for a flyweight.
+*/
+public interface TradingInstructionView {
+
+    EntityType getEntityType();
+
+    Direction getDirection();
+
+    TradeCurrency getCurrency();
+
+    BigDecimal getRate();
+
+    LocalDate getInstructionDate();
+
+    LocalDate getSettlementDate();
+
+    int getNumberOfUnits();
+
+    BigDecimal getPricePerUnit();
+
+    long getInstructionEpochDay();
+
+    long getSettlementEpochDay();
+
+    /*
+    *  Whether the unscaled values of the agreed rate and of the price per unit both fit a long, so the unscaled
+    *  accessors can be used.
+    */
+    boolean hasLongUnscaledValues();
+
+    /*
+    *  Unscaled value of the agreed rate, throws an ArithmeticException unless {@link #hasLongUnscaledValues()}.
+    */
+    long getUnscaledRate();
+
+    int getRateScale();
+
+    /*
+    *  Unscaled value of the price per unit, throws an ArithmeticException unless {@link #hasLongUnscaledValues()}.
+    */
+    long getUnscaledPricePerUnit();
+
+    int getPriceScale();
+
+    /*
+    *  Calculates the USD equivalent amount of the trade.
+    */
+    default BigDecimal determineTradeAmount() {
+        return getPricePerUnit().multiply(getRate()).multiply(new BigDecimal(getNumberOfUnits()));
+    }
+
+    /*
+    *  Adds the trade amount to the sum, by default from the unscaled values so nothing is allocated unless the
+    *  product overflows a long.
+    */
+    default void addTradeAmountTo(final FixedPointSum sum) {
+        if (hasLongUnscaledValues()) {
+            sum.addTradeAmount(getUnscaledPricePerUnit(), getPriceScale(), getUnscaledRate(), getRateScale(), getNumberOfUnits());
+        } else {
+            sum.add(determineTradeAmount());
+        }
+    }
+}
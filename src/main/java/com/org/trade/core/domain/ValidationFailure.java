@@ -0,0 +1,30 @@
+package com.org.trade.core.domain;
+
+/*
+*  Reason a {@link TradingInstruction.Builder} does not hold a valid instruction, reported by the validating build
+*  path without throwing. The message is the one the fail fast build throws with.
+*/
+public enum ValidationFailure {
+
+    MISSING_ENTITY_TYPE("Entity type should not be null"),
+    MISSING_DIRECTION("Direction should not be null"),
+    MISSING_AGREED_FX_RATE("Agreed FX Rate should not be null"),
+    NON_POSITIVE_AGREED_FX_RATE("Agreed rate should be greater than zero"),
+    MISSING_CURRENCY("Currency should not be null"),
+    UNKNOWN_CURRENCY("Currency should be a registered or ISO 4217 currency code"),
+    MISSING_INSTRUCTION_DATE("Instruction date should not be null"),
+    MISSING_SETTLEMENT_DATE("Settlement date should not be null"),
+    NON_POSITIVE_NUMBER_OF_UNITS("No of units should be greater than zero"),
+    MISSING_PRICE_PER_UNIT("Price per unit should not be null"),
+    NON_POSITIVE_PRICE_PER_UNIT("Price per unit should be greater than zero");
+
+    private final String message;
+
+    ValidationFailure(final String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,201 @@
+package com.org.trade.core.domain.calendar;
+
+import com.google.common.base.Objects;
+import com.org.trade.core.domain.Weekend;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Business day calendar made of weekend rules and a list of holidays.
+ *
+ *  For every epoch day of its range the calendar stores the distance to the next business day in a byte table,
+ *  so resolving a date is one array lookup and returns the given date itself when it is already a business day.
+ *  Dates outside the range are resolved by walking forward one day at a time.
+ *
+ *  Calendars are immutable and shared: building a calendar with the same definition as a cached one returns the
+ *  cached instance, see {@link BusinessCalendars}.
+ */
+public final class BusinessCalendar {
+
+    static final LocalDate DEFAULT_FIRST_DAY = LocalDate.of(1900, 1, 1);
+    static final LocalDate DEFAULT_LAST_DAY = LocalDate.of(2199, 12, 31);
+
+    private final Weekend weekend;
+    private final boolean[] weekendDays;
+    private final long[] holidays;
+    private final long firstEpochDay;
+    private final long lastEpochDay;
+    private final byte[] daysToNextBusinessDay;
+
+    private BusinessCalendar(final Definition definition) {
+        weekend = definition.weekend;
+        holidays = definition.holidays;
+        firstEpochDay = definition.firstEpochDay;
+        lastEpochDay = definition.lastEpochDay;
+        weekendDays = new boolean[DayOfWeek.values().length];
+        for (DayOfWeek dayOfWeek : weekend.getWeekendDays()) {
+            weekendDays[dayOfWeek.ordinal()] = true;
+        }
+        daysToNextBusinessDay = new byte[Math.toIntExact(lastEpochDay - firstEpochDay + 1)];
+        long nextBusinessEpochDay = walkToBusinessDay(lastEpochDay + 1);
+        for (long epochDay = lastEpochDay; epochDay >= firstEpochDay; epochDay--) {
+            if (isBusinessEpochDay(epochDay)) {
+                nextBusinessEpochDay = epochDay;
+            }
+            long distance = nextBusinessEpochDay - epochDay;
+            checkArgument(distance <= 0xFF, "More than 255 consecutive non business days after %s", LocalDate.ofEpochDay(epochDay));
+            daysToNextBusinessDay[(int) (epochDay - firstEpochDay)] = (byte) distance;
+        }
+    }
+
+    static BusinessCalendar of(final Definition definition) {
+        return new BusinessCalendar(definition);
+    }
+
+    public Weekend getWeekend() {
+        return weekend;
+    }
+
+    /*
+     *  Returns the given date when it is a business day, otherwise the first business day after it.
+     */
+    public LocalDate nextBusinessDay(final LocalDate localDate) {
+        checkNotNull(localDate, "Input date should not be null");
+        long epochDay = localDate.toEpochDay();
+        long nextBusinessEpochDay = nextBusinessEpochDay(epochDay);
+        return nextBusinessEpochDay == epochDay ? localDate : localDate.plusDays(nextBusinessEpochDay - epochDay);
+    }
+
+    /*
+     *  Epoch day flavour of {@link #nextBusinessDay(LocalDate)}.
+     */
+    public long nextBusinessEpochDay(final long epochDay) {
+        if (epochDay >= firstEpochDay && epochDay <= lastEpochDay) {
+            return epochDay + (daysToNextBusinessDay[(int) (epochDay - firstEpochDay)] & 0xFF);
+        }
+        return walkToBusinessDay(epochDay);
+    }
+
+    public boolean isBusinessDay(final LocalDate localDate) {
+        checkNotNull(localDate, "Input date should not be null");
+        return nextBusinessEpochDay(localDate.toEpochDay()) == localDate.toEpochDay();
+    }
+
+    private long walkToBusinessDay(final long epochDay) {
+        long candidate = epochDay;
+        while (!isBusinessEpochDay(candidate)) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    private boolean isBusinessEpochDay(final long epochDay) {
+        // 1970-01-01, epoch day zero, was a Thursday
+        int dayOfWeek = (int) Math.floorMod(epochDay + 3, 7L);
+        return !weekendDays[dayOfWeek] && Arrays.binarySearch(holidays, epochDay) < 0;
+    }
+
+    /*
+     *  Value object describing a calendar, used as the cache key for built calendars.
+     */
+    static final class Definition {
+
+        private final Weekend weekend;
+        private final long[] holidays;
+        private final long firstEpochDay;
+        private final long lastEpochDay;
+
+        Definition(final Weekend weekend, final long[] holidays, final long firstEpochDay, final long lastEpochDay) {
+            this.weekend = weekend;
+            this.holidays = holidays;
+            this.firstEpochDay = firstEpochDay;
+            this.lastEpochDay = lastEpochDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Definition that = (Definition) o;
+            return weekend == that.weekend &&
+                    firstEpochDay == that.firstEpochDay &&
+                    lastEpochDay == that.lastEpochDay &&
+                    Arrays.equals(holidays, that.holidays);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(weekend, Arrays.hashCode(holidays), firstEpochDay, lastEpochDay);
+        }
+    }
+
+    public static class Builder {
+
+        private Weekend weekend;
+        private final TreeSet<Long> holidays = new TreeSet<>();
+        private LocalDate firstDay = DEFAULT_FIRST_DAY;
+        private LocalDate lastDay = DEFAULT_LAST_DAY;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public Builder withWeekend(final Weekend weekend) {
+            this.weekend = weekend;
+            return this;
+        }
+
+        public Builder withHoliday(final LocalDate holiday) {
+            checkNotNull(holiday, "Holiday should not be null");
+            holidays.add(holiday.toEpochDay());
+            return this;
+        }
+
+        public Builder withHolidays(final Collection<LocalDate> holidays) {
+            checkNotNull(holidays, "Holidays should not be null");
+            for (LocalDate holiday : holidays) {
+                withHoliday(holiday);
+            }
+            return this;
+        }
+
+        /*
+         *  Range of dates covered by the lookup table, 1900-01-01 to 2199-12-31 by default.
+         */
+        public Builder withRange(final LocalDate firstDay, final LocalDate lastDay) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            return this;
+        }
+
+        /*
+         *  Returns the shared calendar for this definition, building it on first use.
+         */
+        public BusinessCalendar build() {
+            checkNotNull(weekend, "Weekend should not be null when building %s", BusinessCalendar.class);
+            checkNotNull(firstDay, "First day should not be null when building %s", BusinessCalendar.class);
+            checkNotNull(lastDay, "Last day should not be null when building %s", BusinessCalendar.class);
+            checkArgument(!lastDay.isBefore(firstDay), "Last day should not be before first day");
+            long[] holidayEpochDays = new long[holidays.size()];
+            int i = 0;
+            for (Long holiday : holidays) {
+                holidayEpochDays[i++] = holiday;
+            }
+            return BusinessCalendars.calendar(new Definition(weekend, holidayEpochDays, firstDay.toEpochDay(), lastDay.toEpochDay()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.org.trade.core.domain.calendar;
+
+import com.org.trade.core.domain.Weekend;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Shared cache of business calendars and loader for holiday lists.
+ */
+public final class BusinessCalendars {
+
+    private static final Map<BusinessCalendar.Definition, BusinessCalendar> CALENDARS = new ConcurrentHashMap<>();
+    private static final Map<Weekend, BusinessCalendar> WEEKEND_CALENDARS = weekendCalendars();
+
+    private BusinessCalendars() {
+    }
+
+    /*
+     *  Calendar without holidays for the given weekend rules.
+     */
+    public static BusinessCalendar forWeekend(final Weekend weekend) {
+        checkNotNull(weekend, "Weekend should not be null");
+        return WEEKEND_CALENDARS.get(weekend);
+    }
+
+    /*
+     *  Reads a holiday list with one ISO date (yyyy-MM-dd) per line. Blank lines and lines starting with # are
+     *  ignored.
+     */
+    public static List<LocalDate> loadHolidays(final Path path) throws IOException {
+        checkNotNull(path, "Path should not be null");
+        List<LocalDate> holidays = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                holidays.add(LocalDate.parse(trimmed));
+            } catch (DateTimeParseException e) {
+                throw new IOException("Invalid holiday on line " + lineNumber + " of " + path + ": " + trimmed, e);
+            }
+        }
+        return holidays;
+    }
+
+    static BusinessCalendar calendar(final BusinessCalendar.Definition definition) {
+        return CALENDARS.computeIfAbsent(definition, BusinessCalendar::of);
+    }
+
+    private static Map<Weekend, BusinessCalendar> weekendCalendars() {
+        Map<Weekend, BusinessCalendar> calendars = new EnumMap<>(Weekend.class);
+        for (Weekend weekend : Weekend.values()) {
+            calendars.put(weekend, BusinessCalendar.Builder.newBuilder().withWeekend(weekend).build());
+        }
+        return calendars;
+    }
+}
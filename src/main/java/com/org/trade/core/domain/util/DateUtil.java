@@ -1,6 +1,7 @@
 package com.org.trade.core.domain.util;
 
 import com.org.trade.core.domain.Weekend;
+import com.org.trade.core.domain.calendar.BusinessCalendars;
 
 import java.time.LocalDate;
 
@@ -12,21 +13,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class DateUtil {
 
     /*
-    *  The method accepts a date and week end. If date falls on weekend then the date is incremented until
-    *  weekday is found.
+    *  The method accepts a date and week end. If date falls on weekend then the next weekday is returned.
+    *
+    *  The weekday is looked up in the shared weekend calendar, see {@link BusinessCalendars#forWeekend(Weekend)}.
     */
     public static LocalDate determineNextAllowableDate(final LocalDate localDate,final Weekend weekend) {
         checkNotNull(localDate, "Input date should not be null");
         checkNotNull(weekend, "Weekend should not be null");
-        LocalDate tempLocalDate = localDate;
-        while (isDayFallingOnWeekEnd(weekend, tempLocalDate)) {
-            tempLocalDate = tempLocalDate.plusDays(1);
-        }
-        return tempLocalDate;
-    }
-
-    private static boolean isDayFallingOnWeekEnd(Weekend weekend, LocalDate tempLocalDate) {
-        return weekend.getWeekendDays().contains(tempLocalDate.getDayOfWeek());
+        return BusinessCalendars.forWeekend(weekend).nextBusinessDay(localDate);
     }
 
 }
@@ -0,0 +1,174 @@
+package com.org.trade.core.intake;
+
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Drops trading instructions re-sent within a time window, so intake stays idempotent.
+ *
+ *  Instructions are remembered by their {@link TradingInstruction#fingerprint()} in two generations of open
+ *  addressing long sets. The current generation takes new fingerprints; when the window elapses, or the current
+ *  generation holds its capacity, it becomes the previous one and the oldest is dropped. An instruction is therefore
+ *  remembered for at least one window unless more than capacity distinct instructions arrive within it, and memory
+ *  never exceeds two fixed size long arrays. A different instruction with the same fingerprint, about one chance
+ *  in 2^64, would be dropped as a duplicate.
+ */
+public class DuplicateFilter {
+
+    private static final long EMPTY = 0;
+
+    private final Clock clock;
+    private final long windowMillis;
+    private final int capacity;
+    private final int mask;
+    private long[] current;
+    private long[] previous;
+    private int currentSize;
+    private long generationStart;
+    private long duplicateCount;
+
+    private DuplicateFilter(final Builder builder) {
+        clock = builder.clock;
+        windowMillis = builder.window.toMillis();
+        capacity = builder.capacity;
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+        mask = slots - 1;
+        current = new long[slots];
+        previous = new long[slots];
+        generationStart = clock.millis();
+    }
+
+    /*
+     *  True, and the instruction remembered, when it was not seen within the window; false for a duplicate.
+     */
+    public synchronized boolean firstSeen(final TradingInstruction tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        long fingerprint = tradingInstruction.fingerprint();
+        if (fingerprint == EMPTY) {
+            fingerprint = 1;
+        }
+        rotateIfExpired();
+        if (contains(previous, fingerprint) || contains(current, fingerprint)) {
+            duplicateCount++;
+            return false;
+        }
+        if (currentSize == capacity) {
+            rotate();
+        }
+        insert(current, fingerprint);
+        currentSize++;
+        return true;
+    }
+
+    /*
+     *  Consumer passing only the instructions seen for the first time on to the downstream consumer, for example a
+     *  live report generator or the list a report generator is built from.
+     */
+    public Consumer<TradingInstruction> filtering(final Consumer<? super TradingInstruction> downstream) {
+        checkNotNull(downstream, "Downstream consumer should not be null");
+        return tradingInstruction -> {
+            if (firstSeen(tradingInstruction)) {
+                downstream.accept(tradingInstruction);
+            }
+        };
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    private void rotateIfExpired() {
+        long elapsed = clock.millis() - generationStart;
+        if (elapsed >= 2 * windowMillis) {
+            Arrays.fill(previous, EMPTY);
+            rotate();
+        } else if (elapsed >= windowMillis) {
+            rotate();
+        }
+    }
+
+    private void rotate() {
+        long[] oldest = previous;
+        previous = current;
+        Arrays.fill(oldest, EMPTY);
+        current = oldest;
+        currentSize = 0;
+        generationStart = clock.millis();
+    }
+
+    private boolean contains(final long[] fingerprints, final long fingerprint) {
+        int slot = slot(fingerprint);
+        while (fingerprints[slot] != EMPTY) {
+            if (fingerprints[slot] == fingerprint) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private void insert(final long[] fingerprints, final long fingerprint) {
+        int slot = slot(fingerprint);
+        while (fingerprints[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        fingerprints[slot] = fingerprint;
+    }
+
+    /*
+     *  Fingerprints are already well mixed, so their low bits index the table directly.
+     */
+    private int slot(final long fingerprint) {
+        return (int) fingerprint & mask;
+    }
+
+    public static class Builder {
+
+        private Duration window = Duration.ofHours(24);
+        private int capacity = 1 << 20;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  How long a seen instruction is remembered at least, 24 hours by default.
+         */
+        public Builder withWindow(final Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        /*
+         *  Distinct instructions remembered per window, 1048576 by default. Memory is 32 to 64 bytes per instruction.
+         */
+        public Builder withCapacity(final int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder withClock(final Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public DuplicateFilter build() {
+            checkNotNull(window, "Window should not be null when building %s", DuplicateFilter.class);
+            checkNotNull(clock, "Clock should not be null when building %s", DuplicateFilter.class);
+            checkArgument(!window.isNegative() && !window.isZero(), "Window should be greater than zero");
+            checkArgument(capacity > 0 && capacity <= 1 << 29, "Capacity should be between 1 and 2^29");
+            return new DuplicateFilter(this);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.org.trade.core.intake;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.ValidationFailure;
+import com.org.trade.core.metrics.Metric;
+import com.org.trade.core.metrics.Metrics;
+import com.org.trade.core.metrics.MetricsRecorder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Loads delimited instruction files through memory mapped buffers and streams the accepted instructions into a
+ *  consumer, for example a list, a {@link com.org.trade.core.reporting.ColumnarInstructionStore.Builder} or a
+ *  live report generator.
+ *
+ *  Every line holds eight fields in this order:
+ *
+ *      entityType,direction,agreedFxRate,currency,instructionDate,settlementDate,numberOfUnits,pricePerUnit
+ *      GOLD,BUY,0.50,GBP,2017-08-14,2017-08-14,10,48.00
+ *
+ *  Numbers and dates are decoded straight from the mapped bytes without intermediate Strings. Lines that cannot be
+ *  decoded or fail the instruction validation are reported as rejects with their line number and do not stop the
+ *  load. Blank lines are skipped and both \n and \r\n line endings are accepted.
+ */
+public class InstructionFileLoader {
+
+    static final int FIELDS = 8;
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024 * 1024;
+    private static final int DEFAULT_MAX_REJECTS = 1000;
+
+    private final byte delimiter;
+    private final boolean headerLine;
+    private final int maxRejects;
+    private final int chunkSize;
+
+    private InstructionFileLoader(final Builder builder) {
+        checkArgument(builder.delimiter != '\n' && builder.delimiter != '\r' && builder.delimiter < 128,
+                "Delimiter should be a single byte character other than a line break");
+        checkArgument(builder.maxRejects >= 0, "Maximum number of rejects should not be negative");
+        checkArgument(builder.chunkSize > 0, "Chunk size should be greater than zero");
+        delimiter = (byte) builder.delimiter;
+        headerLine = builder.headerLine;
+        maxRejects = builder.maxRejects;
+        chunkSize = builder.chunkSize;
+    }
+
+    /*
+     *  Loads the file and passes every accepted instruction to the sink, in file order.
+     */
+    public LoadReport load(final Path path, final Consumer<? super TradingInstruction> sink) throws IOException {
+        checkNotNull(path, "Path should not be null");
+        checkNotNull(sink, "Sink should not be null");
+        long start = System.nanoTime();
+        LineDecoder decoder = new LineDecoder(sink);
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(chunkSize, size - position);
+                boolean lastChunk = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (buffer.get(i) == '\n') {
+                        decoder.decode(buffer, lineStart, i);
+                        lineStart = i + 1;
+                    }
+                }
+                if (lastChunk) {
+                    if (lineStart < length) {
+                        decoder.decode(buffer, lineStart, length);
+                    }
+                    position = size;
+                } else if (lineStart == 0) {
+                    throw new IOException("Line " + (decoder.lineNumber + 1) + " is longer than the mapping chunk of " + chunkSize + " bytes");
+                } else {
+                    // The incomplete last line is mapped again at the start of the next chunk.
+                    position += lineStart;
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        MetricsRecorder recorder = Metrics.recorder();
+        if (recorder.isEnabled()) {
+            recorder.add(Metric.INTAKE_LINES_ACCEPTED, decoder.acceptedCount);
+            recorder.add(Metric.INTAKE_LINES_REJECTED, decoder.rejectedCount);
+            recorder.record(Metric.INTAKE_LOAD_NANOS, elapsedNanos);
+        }
+        return new LoadReport(decoder.acceptedCount, decoder.rejectedCount, decoder.rejects, size, elapsedNanos);
+    }
+
+    /*
+     *  Loads the whole file into a list.
+     */
+    public LoadReport load(final Path path, final List<? super TradingInstruction> tradingInstructions) throws IOException {
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null");
+        return load(path, (Consumer<TradingInstruction>) tradingInstructions::add);
+    }
+
+    /*
+     *  Decodes one line at a time. Rejections are signalled through the reason field rather than exceptions so a
+     *  file with many bad lines costs no more than a clean one.
+     */
+    private final class LineDecoder {
+
+        private final Consumer<? super TradingInstruction> sink;
+        private final int[] fieldStarts = new int[FIELDS];
+        private final int[] fieldEnds = new int[FIELDS];
+        private final DateCache dateCache = new DateCache();
+        private final CurrencyCache currencyCache = new CurrencyCache();
+        private final List<Reject> rejects = new ArrayList<>();
+        private long lineNumber;
+        private long acceptedCount;
+        private long rejectedCount;
+        private String reason;
+
+        private LineDecoder(final Consumer<? super TradingInstruction> sink) {
+            this.sink = sink;
+        }
+
+        private void decode(final MappedByteBuffer buffer, final int start, final int end) {
+            lineNumber++;
+            int lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            if (lineEnd == start || (headerLine && lineNumber == 1)) {
+                return;
+            }
+            reason = null;
+            TradingInstruction tradingInstruction = decodeInstruction(buffer, start, lineEnd);
+            if (tradingInstruction == null) {
+                rejectedCount++;
+                if (rejects.size() < maxRejects) {
+                    rejects.add(new Reject(lineNumber, reason));
+                }
+                return;
+            }
+            acceptedCount++;
+            sink.accept(tradingInstruction);
+        }
+
+        private TradingInstruction decodeInstruction(final MappedByteBuffer buffer, final int start, final int end) {
+            int fields = split(buffer, start, end);
+            if (fields != FIELDS) {
+                return reject("Expected " + FIELDS + " fields but found " + fields);
+            }
+            EntityType entityType = decodeEnum(buffer, 0, EntityType.values());
+            if (entityType == null) {
+                return reject("Unknown entity type");
+            }
+            Direction direction = decodeEnum(buffer, 1, Direction.values());
+            if (direction == null) {
+                return reject("Unknown direction");
+            }
+            BigDecimal agreedFxRate = decodeDecimal(buffer, 2);
+            if (agreedFxRate == null) {
+                return reject("Invalid agreed FX rate");
+            }
+            TradeCurrency currency = currencyCache.decode(buffer, fieldStarts[3], fieldEnds[3]);
+            if (currency == null) {
+                return reject("Invalid currency");
+            }
+            LocalDate instructionDate = dateCache.decode(buffer, fieldStarts[4], fieldEnds[4]);
+            if (instructionDate == null) {
+                return reject("Invalid instruction date");
+            }
+            LocalDate settlementDate = dateCache.decode(buffer, fieldStarts[5], fieldEnds[5]);
+            if (settlementDate == null) {
+                return reject("Invalid settlement date");
+            }
+            long numberOfUnits = decodeInt(buffer, 6);
+            if (numberOfUnits == Long.MIN_VALUE) {
+                return reject("Invalid number of units");
+            }
+            BigDecimal pricePerUnit = decodeDecimal(buffer, 7);
+            if (pricePerUnit == null) {
+                return reject("Invalid price per unit");
+            }
+            TradingInstruction.Builder builder = TradingInstruction.Builder.newBuilder()
+                    .withEntityType(entityType)
+                    .withDirection(direction)
+                    .withAgreedFxRate(agreedFxRate)
+                    .withTradeCurrency(currency)
+                    .withInstructionDate(instructionDate)
+                    .withSettlementDate(settlementDate)
+                    .withNumberOfUnits((int) numberOfUnits)
+                    .withPricePerUnit(pricePerUnit);
+            ValidationFailure failure = builder.validate();
+            return failure == null ? builder.build() : reject(failure.getMessage());
+        }
+
+        private TradingInstruction reject(final String reason) {
+            this.reason = reason;
+            return null;
+        }
+
+        private int split(final MappedByteBuffer buffer, final int start, final int end) {
+            int field = 0;
+            int fieldStart = start;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) == delimiter) {
+                    if (field < FIELDS) {
+                        fieldStarts[field] = fieldStart;
+                        fieldEnds[field] = i;
+                    }
+                    field++;
+                    fieldStart = i + 1;
+                }
+            }
+            if (field < FIELDS) {
+                fieldStarts[field] = fieldStart;
+                fieldEnds[field] = end;
+            }
+            return field + 1;
+        }
+
+        private <E extends Enum<E>> E decodeEnum(final MappedByteBuffer buffer, final int field, final E[] constants) {
+            int start = fieldStarts[field];
+            int length = fieldEnds[field] - start;
+            for (E constant : constants) {
+                String name = constant.name();
+                if (name.length() == length && matches(buffer, start, name)) {
+                    return constant;
+                }
+            }
+            return null;
+        }
+
+        private boolean matches(final MappedByteBuffer buffer, final int start, final String name) {
+            for (int i = 0; i < name.length(); i++) {
+                if (buffer.get(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /*
+         *  Decodes [+-]digits[.digits] into an unscaled long and a scale. Values with more than eighteen digits are
+         *  rare and go through the String constructor instead.
+         */
+        private BigDecimal decodeDecimal(final MappedByteBuffer buffer, final int field) {
+            int start = fieldStarts[field];
+            int end = fieldEnds[field];
+            boolean negative = false;
+            if (start < end && (buffer.get(start) == '-' || buffer.get(start) == '+')) {
+                negative = buffer.get(start) == '-';
+                start++;
+            }
+            long unscaled = 0;
+            int digits = 0;
+            int scale = -1;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && scale < 0) {
+                    scale = 0;
+                } else if (b >= '0' && b <= '9') {
+                    if (digits < 18) {
+                        unscaled = unscaled * 10 + (b - '0');
+                    }
+                    digits++;
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else {
+                    return null;
+                }
+            }
+            if (digits == 0) {
+                return null;
+            }
+            if (digits > 18) {
+                byte[] bytes = new byte[fieldEnds[field] - fieldStarts[field]];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(fieldStarts[field] + i);
+                }
+                return new BigDecimal(new String(bytes, StandardCharsets.US_ASCII));
+            }
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+
+        /*
+         *  Returns Long.MIN_VALUE when the field is not a number within the int range.
+         */
+        private long decodeInt(final MappedByteBuffer buffer, final int field) {
+            int start = fieldStarts[field];
+            int end = fieldEnds[field];
+            boolean negative = start < end && buffer.get(start) == '-';
+            if (negative || (start < end && buffer.get(start) == '+')) {
+                start++;
+            }
+            if (start == end || end - start > 10) {
+                return Long.MIN_VALUE;
+            }
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    return Long.MIN_VALUE;
+                }
+                value = value * 10 + (b - '0');
+            }
+            value = negative ? -value : value;
+            return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+        }
+    }
+
+    /*
+     *  Decodes yyyy-MM-dd dates. Extracts usually carry few distinct dates, so decoded dates are kept in a small
+     *  direct mapped cache keyed by the packed yyyyMMdd value.
+     */
+    private static final class DateCache {
+
+        private static final int SLOTS = 64;
+
+        private final int[] keys = new int[SLOTS];
+        private final LocalDate[] dates = new LocalDate[SLOTS];
+
+        private LocalDate decode(final MappedByteBuffer buffer, final int start, final int end) {
+            if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+                return null;
+            }
+            int year = digits(buffer, start, 4);
+            int month = digits(buffer, start + 5, 2);
+            int day = digits(buffer, start + 8, 2);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+            int key = year * 10_000 + month * 100 + day;
+            int slot = (key ^ (key >>> 7)) & (SLOTS - 1);
+            if (keys[slot] != key || dates[slot] == null) {
+                keys[slot] = key;
+                dates[slot] = LocalDate.of(year, month, day);
+            }
+            return dates[slot];
+        }
+
+        private static int digits(final MappedByteBuffer buffer, final int start, final int length) {
+            int value = 0;
+            for (int i = start; i < start + length; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+    }
+
+    /*
+     *  Maps currency codes of up to three ASCII letters to registered currencies, so no String is created per line.
+     *  Codes that are not registered decode to null and the line is rejected.
+     */
+    private static final class CurrencyCache {
+
+        private static final int SLOTS = 256;
+
+        private final int[] keys = new int[SLOTS];
+        private final TradeCurrency[] currencies = new TradeCurrency[SLOTS];
+
+        private TradeCurrency decode(final MappedByteBuffer buffer, final int start, final int end) {
+            int length = end - start;
+            if (length < 1 || length > 3) {
+                return null;
+            }
+            int key = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (!(b >= 'A' && b <= 'Z') && !(b >= 'a' && b <= 'z')) {
+                    return null;
+                }
+                key = (key << 8) | b;
+            }
+            int slot = (key ^ (key >>> 11)) & (SLOTS - 1);
+            if (keys[slot] != key || currencies[slot] == null) {
+                byte[] bytes = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    bytes[i] = buffer.get(start + i);
+                }
+                keys[slot] = key;
+                currencies[slot] = Currencies.find(new String(bytes, StandardCharsets.US_ASCII)).orElse(null);
+            }
+            return currencies[slot];
+        }
+    }
+
+    public static class Builder {
+
+        private char delimiter = ',';
+        private boolean headerLine;
+        private int maxRejects = DEFAULT_MAX_REJECTS;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public Builder withDelimiter(final char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /*
+         *  Skips the first line of the file.
+         */
+        public Builder withHeaderLine(final boolean headerLine) {
+            this.headerLine = headerLine;
+            return this;
+        }
+
+        /*
+         *  Caps the number of rejects kept in the load report, the rejected count is always exact.
+         */
+        public Builder withMaxRejects(final int maxRejects) {
+            this.maxRejects = maxRejects;
+            return this;
+        }
+
+        /*
+         *  Size of each mapped region of the file. Lines must be shorter than a chunk.
+         */
+        public Builder withChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public InstructionFileLoader build() {
+            return new InstructionFileLoader(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.org.trade.core.intake;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+ *  Outcome of loading an instruction file: how many lines were accepted and rejected, the line level rejects
+ *  and how fast the file was parsed.
+ */
+public class LoadReport {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final long acceptedCount;
+    private final long rejectedCount;
+    private final List<Reject> rejects;
+    private final long bytesRead;
+    private final long elapsedNanos;
+
+    LoadReport(final long acceptedCount, final long rejectedCount, final List<Reject> rejects,
+               final long bytesRead, final long elapsedNanos) {
+        this.acceptedCount = acceptedCount;
+        this.rejectedCount = rejectedCount;
+        this.rejects = Collections.unmodifiableList(rejects);
+        this.bytesRead = bytesRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /*
+     *  Number of rejected lines, which can be larger than the number of rejects kept.
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /*
+     *  The first rejects in line order, up to the maximum configured on the loader.
+     */
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesRead / (1024d * 1024d) * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    public double getLinesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (acceptedCount + rejectedCount) * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("accepted=%d rejected=%d bytes=%d elapsed=%.3fms throughput=%.1fMB/s (%.0f lines/s)",
+                acceptedCount, rejectedCount, bytesRead, elapsedNanos / 1_000_000d, getMegabytesPerSecond(), getLinesPerSecond());
+    }
+}
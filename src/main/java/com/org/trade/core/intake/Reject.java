@@ -0,0 +1,53 @@
+package com.org.trade.core.intake;
+
+import com.google.common.base.Objects;
+
+/*
+ *  A line of an instruction file that could not be turned into a trading instruction.
+ */
+public class Reject {
+
+    /*
+     * One based line number in the file
+     */
+    private final long lineNumber;
+    /*
+     * Why the line was rejected
+     */
+    private final String reason;
+
+    Reject(final long lineNumber, final String reason) {
+        this.lineNumber = lineNumber;
+        this.reason = reason;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Reject that = (Reject) o;
+        return lineNumber == that.lineNumber && Objects.equal(reason, that.reason);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(lineNumber, reason);
+    }
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + reason;
+    }
+}
@@ -0,0 +1,68 @@
+package com.org.trade.core.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/*
+ *  Point in time copy of a histogram. Counts taken while values are being recorded may be off by the few values
+ *  recorded during the copy.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(final long[] bucketCounts, final long count, final long sum, final long max) {
+        this.bucketCounts = bucketCounts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /*
+     *  Value at or below which the given fraction of the recorded values fall, between 0 and 1. Zero when nothing
+     *  was recorded.
+     */
+    public long percentile(final double fraction) {
+        checkArgument(fraction >= 0 && fraction <= 1, "Percentile should be between 0 and 1");
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            seen += bucketCounts[bucket];
+            if (seen >= rank) {
+                return Math.min(Histogram.upperBound(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{count=" + count + ", mean=" + getMean() + ", p50=" + percentile(0.5)
+                + ", p99=" + percentile(0.99) + ", max=" + max + '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.org.trade.core.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/*
+ *  In process recorder keeping a LongAdder per counter and a {@link Histogram} per histogram metric, indexed by
+ *  metric ordinal. Safe to use from any number of threads.
+ */
+public final class InMemoryMetricsRecorder implements MetricsRecorder {
+
+    private static final Metric[] METRICS = Metric.values();
+
+    private final LongAdder[] counters = new LongAdder[METRICS.length];
+    private final Histogram[] histograms = new Histogram[METRICS.length];
+
+    public InMemoryMetricsRecorder() {
+        for (Metric metric : METRICS) {
+            if (metric.getKind() == Metric.Kind.COUNTER) {
+                counters[metric.ordinal()] = new LongAdder();
+            } else {
+                histograms[metric.ordinal()] = new Histogram();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void add(final Metric metric, final long delta) {
+        LongAdder counter = counters[metric.ordinal()];
+        checkArgument(counter != null, "Metric %s is not a counter", metric);
+        counter.add(delta);
+    }
+
+    @Override
+    public void record(final Metric metric, final long value) {
+        Histogram histogram = histograms[metric.ordinal()];
+        checkArgument(histogram != null, "Metric %s is not a histogram", metric);
+        histogram.record(value);
+    }
+
+    /*
+     *  Copies the current value of every metric.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Metric, Long> counterValues = new EnumMap<>(Metric.class);
+        Map<Metric, HistogramSnapshot> histogramSnapshots = new EnumMap<>(Metric.class);
+        for (Metric metric : METRICS) {
+            if (metric.getKind() == Metric.Kind.COUNTER) {
+                counterValues.put(metric, counters[metric.ordinal()].sum());
+            } else {
+                histogramSnapshots.put(metric, histograms[metric.ordinal()].snapshot());
+            }
+        }
+        return new MetricsSnapshot(counterValues, histogramSnapshots);
+    }
+}
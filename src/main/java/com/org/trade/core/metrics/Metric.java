@@ -0,0 +1,41 @@
+package com.org.trade.core.metrics;
+
+/*
+ *  Measurements taken on the reporting and intake hot paths. Counters only go up, histograms record one value
+ *  per event, latencies in nanoseconds.
+ */
+public enum Metric {
+
+    REPORT_TOTAL_NANOS("report.total.nanos", Kind.HISTOGRAM),
+    REPORT_SORT_NANOS("report.sort.nanos", Kind.HISTOGRAM),
+    REPORT_RANK_NANOS("report.rank.nanos", Kind.HISTOGRAM),
+    REPORT_DAILY_NANOS("report.daily.nanos", Kind.HISTOGRAM),
+    REPORT_GROUP_BY_NANOS("report.groupby.nanos", Kind.HISTOGRAM),
+    REPORT_SCANNED_INSTRUCTIONS("report.scanned.instructions", Kind.HISTOGRAM),
+    INSTRUCTIONS_BUILT("instruction.built", Kind.COUNTER),
+    INSTRUCTIONS_REJECTED("instruction.rejected", Kind.COUNTER),
+    SETTLEMENT_DATES_ROLLED("instruction.settlement.rolled", Kind.COUNTER),
+    INTAKE_LINES_ACCEPTED("intake.lines.accepted", Kind.COUNTER),
+    INTAKE_LINES_REJECTED("intake.lines.rejected", Kind.COUNTER),
+    INTAKE_LOAD_NANOS("intake.load.nanos", Kind.HISTOGRAM);
+
+    public enum Kind {
+        COUNTER, HISTOGRAM
+    }
+
+    private final String name;
+    private final Kind kind;
+
+    Metric(final String name, final Kind kind) {
+        this.name = name;
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+}
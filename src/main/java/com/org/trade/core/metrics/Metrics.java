@@ -0,0 +1,36 @@
+package com.org.trade.core.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Process wide recorder the instrumented code paths report to, {@link MetricsRecorder#NOOP} until one is
+ *  installed.
+ */
+public final class Metrics {
+
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NOOP;
+
+    private Metrics() {
+    }
+
+    public static MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    /*
+     *  Installs the recorder and returns the one it replaces.
+     */
+    public static MetricsRecorder install(final MetricsRecorder metricsRecorder) {
+        checkNotNull(metricsRecorder, "Metrics recorder should not be null");
+        MetricsRecorder previous = recorder;
+        recorder = metricsRecorder;
+        return previous;
+    }
+
+    /*
+     *  Goes back to the no-op recorder.
+     */
+    public static void disable() {
+        recorder = MetricsRecorder.NOOP;
+    }
+}
@@ -0,0 +1,45 @@
+package com.org.trade.core.metrics;
+
+/*
+ *  Receives the measurements of the instrumented code paths, see {@link Metrics}.
+ *
+ *  Instrumented code checks {@link #isEnabled()} before taking any measurement, so a disabled recorder costs one
+ *  volatile read and no clock calls.
+ */
+public interface MetricsRecorder {
+
+    /*
+     *  Recorder that drops everything, the default.
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void add(final Metric metric, final long delta) {
+        }
+
+        @Override
+        public void record(final Metric metric, final long value) {
+        }
+    };
+
+    boolean isEnabled();
+
+    /*
+     *  Adds to a counter.
+     */
+    void add(Metric metric, long delta);
+
+    /*
+     *  Records one value of a histogram.
+     */
+    void record(Metric metric, long value);
+
+    default void increment(final Metric metric) {
+        add(metric, 1);
+    }
+}
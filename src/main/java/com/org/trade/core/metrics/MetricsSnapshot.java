@@ -0,0 +1,43 @@
+package com.org.trade.core.metrics;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/*
+ *  Point in time copy of the metrics of an {@link InMemoryMetricsRecorder}.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<Metric, Long> counters;
+    private final Map<Metric, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(final Map<Metric, Long> counters, final Map<Metric, HistogramSnapshot> histograms) {
+        this.counters = counters;
+        this.histograms = histograms;
+    }
+
+    public long counter(final Metric metric) {
+        Long value = counters.get(metric);
+        checkArgument(value != null, "Metric %s is not a counter", metric);
+        return value;
+    }
+
+    public HistogramSnapshot histogram(final Metric metric) {
+        HistogramSnapshot histogram = histograms.get(metric);
+        checkArgument(histogram != null, "Metric %s is not a histogram", metric);
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Metric, Long> counter : counters.entrySet()) {
+            builder.append(counter.getKey().getName()).append('=').append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<Metric, HistogramSnapshot> histogram : histograms.entrySet()) {
+            builder.append(histogram.getKey().getName()).append('=').append(histogram.getValue()).append('\n');
+        }
+        return builder.toString();
+    }
+}
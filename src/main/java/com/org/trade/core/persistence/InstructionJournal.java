@@ -0,0 +1,433 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/*
+ *  Append-only write ahead journal for trading instructions.
+ *
+ *  Appends from any number of threads are queued and written by a single writer thread, which drains the queue
+ *  into one batch, writes it and forces it to disk once for the whole batch (group commit). The future returned by
+ *  {@link #append(TradingInstruction)} completes when the instruction is durable.
+ *
+ *  The journal is a directory of segment files rolled at a configurable size. Every record is framed with its
+ *  length and a CRC32 of the payload, see {@link InstructionRecordCodec} for the payload, so {@link #replay} stops
+ *  cleanly at a torn tail left by a crash. Opening a journal cuts such a tail off and continues appending to the
+ *  last segment. New segment files are made durable by forcing their directory as well.
+ */
+public final class InstructionJournal implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final int FRAME_HEADER_SIZE = 8;
+    static final int FRAME_SIZE = FRAME_HEADER_SIZE + InstructionRecordCodec.RECORD_SIZE;
+
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 8192;
+    private static final int READ_FRAMES = 1024;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private final ByteBuffer batchBuffer;
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+    private final Object queueLock = new Object();
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private long segmentIndex;
+    private FileChannel segment;
+    private long segmentPosition;
+
+    private InstructionJournal(final Builder builder) throws IOException {
+        directory = builder.directory;
+        segmentSize = builder.segmentSize;
+        maxBatchSize = builder.maxBatchSize;
+        batchBuffer = ByteBuffer.allocateDirect(maxBatchSize * FRAME_SIZE);
+        Files.createDirectories(directory);
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            openNextSegment();
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segmentIndex = segmentIndex(last);
+            reopenSegment(last);
+        }
+        writer = new Thread(this::writeLoop, "instruction-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /*
+     *  Queues the instruction for the next group commit. The future completes once the batch holding it has been
+     *  forced to disk, or exceptionally when writing fails.
+     */
+    public CompletableFuture<Void> append(final TradingInstruction tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        InstructionRecordCodec.checkEncodable(tradingInstruction);
+        PendingAppend pendingAppend = new PendingAppend(tradingInstruction);
+        synchronized (queueLock) {
+            checkState(!closed, "Journal is closed");
+            if (failure != null) {
+                pendingAppend.future.completeExceptionally(failure);
+                return pendingAppend.future;
+            }
+            queue.add(pendingAppend);
+        }
+        return pendingAppend.future;
+    }
+
+    /*
+     *  Appends the instruction and waits until it is durable.
+     */
+    public void appendAndSync(final TradingInstruction tradingInstruction) throws IOException {
+        try {
+            append(tradingInstruction).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /*
+     *  Writes the appends already queued, then stops the writer and closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (queueLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(PendingAppend.STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the journal", e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /*
+     *  Reads every intact record of the journal in the given directory, in append order, and passes it to the
+     *  consumer. Reading stops at the first incomplete or corrupt record. Returns the number of records replayed.
+     */
+    public static long replay(final Path directory, final Consumer<? super TradingInstruction> consumer) throws IOException {
+        checkNotNull(directory, "Directory should not be null");
+        checkNotNull(consumer, "Consumer should not be null");
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        InstructionRecordCodec codec = new InstructionRecordCodec();
+        CRC32 crc = new CRC32();
+        long count = 0;
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int validEnd = validEnd(buffer, crc);
+                for (int offset = 0; offset < validEnd; offset += FRAME_SIZE) {
+                    consumer.accept(codec.decode(buffer, offset + FRAME_HEADER_SIZE));
+                    count++;
+                }
+                if (validEnd < buffer.limit()) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatchSize);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                if (batch.remove(PendingAppend.STOP)) {
+                    stopping = true;
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                }
+                batch.clear();
+            }
+            segment.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(batch, new IOException("Journal writer interrupted", e));
+        } catch (IOException e) {
+            fail(batch, e);
+        } catch (Throwable e) {
+            fail(batch, new IOException("Journal writer failed", e));
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void writeBatch(final List<PendingAppend> batch) throws IOException {
+        batchBuffer.clear();
+        for (PendingAppend pendingAppend : batch) {
+            if (segmentPosition + batchBuffer.position() + FRAME_SIZE > segmentSize && segmentPosition + batchBuffer.position() > 0) {
+                flush();
+                segment.close();
+                openNextSegment();
+            }
+            int frameStart = batchBuffer.position();
+            batchBuffer.position(frameStart + FRAME_HEADER_SIZE);
+            InstructionRecordCodec.encode(pendingAppend.tradingInstruction, batchBuffer);
+            ByteBuffer payload = batchBuffer.duplicate();
+            payload.limit(batchBuffer.position()).position(frameStart + FRAME_HEADER_SIZE);
+            crc.reset();
+            crc.update(payload);
+            batchBuffer.putInt(frameStart, InstructionRecordCodec.RECORD_SIZE);
+            batchBuffer.putInt(frameStart + 4, (int) crc.getValue());
+        }
+        flush();
+        for (PendingAppend pendingAppend : batch) {
+            pendingAppend.future.complete(null);
+        }
+    }
+
+    private void flush() throws IOException {
+        batchBuffer.flip();
+        while (batchBuffer.hasRemaining()) {
+            segmentPosition += segment.write(batchBuffer);
+        }
+        segment.force(false);
+        batchBuffer.clear();
+    }
+
+    /*
+     *  Records the failure first, so no append is queued after the queue has been drained here.
+     */
+    private void fail(final List<PendingAppend> batch, final IOException e) {
+        synchronized (queueLock) {
+            failure = e;
+        }
+        for (PendingAppend pendingAppend : batch) {
+            pendingAppend.future.completeExceptionally(e);
+        }
+        List<PendingAppend> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingAppend pendingAppend : remaining) {
+            pendingAppend.future.completeExceptionally(e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            segment.close();
+        } catch (IOException ignored) {
+            // the failure, if any, is already recorded
+        }
+        List<PendingAppend> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (PendingAppend pendingAppend : remaining) {
+            if (pendingAppend != PendingAppend.STOP) {
+                pendingAppend.future.completeExceptionally(new IOException("Journal is closed"));
+            }
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentIndex++;
+        Path path = directory.resolve(String.format("%020d%s", segmentIndex, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentPosition = 0;
+        forceDirectory();
+    }
+
+    /*
+     *  Continues appending to the last segment of an existing journal, after cutting off a torn tail.
+     */
+    private void reopenSegment(final Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validEnd = validEnd(channel, crc);
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            channel.position(validEnd);
+            segment = channel;
+            segmentPosition = validEnd;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     *  Forces the directory entry of a new segment to disk, without it the segment and the appends forced into it
+     *  could vanish in a crash. Some platforms cannot open a directory, there the entry is left to the file system.
+     */
+    private void forceDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException unsupported) {
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /*
+     *  Offset just after the last intact frame of a segment, read through the channel so no mapping outlives the
+     *  check.
+     */
+    private static long validEnd(final FileChannel channel, final CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_FRAMES * FRAME_SIZE);
+        long offset = 0;
+        while (true) {
+            buffer.clear();
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0) {
+                read = channel.read(buffer, offset + buffer.position());
+            }
+            int frames = buffer.position() / FRAME_SIZE;
+            for (int frame = 0; frame < frames; frame++) {
+                if (!isIntactFrame(buffer, frame * FRAME_SIZE, crc)) {
+                    return offset + (long) frame * FRAME_SIZE;
+                }
+            }
+            offset += (long) frames * FRAME_SIZE;
+            if (frames < READ_FRAMES) {
+                return offset;
+            }
+        }
+    }
+
+    /*
+     *  Offset just after the last intact frame of a segment.
+     */
+    private static int validEnd(final ByteBuffer buffer, final CRC32 crc) {
+        int offset = 0;
+        while (offset + FRAME_SIZE <= buffer.limit() && isIntactFrame(buffer, offset, crc)) {
+            offset += FRAME_SIZE;
+        }
+        return offset;
+    }
+
+    private static boolean isIntactFrame(final ByteBuffer buffer, final int offset, final CRC32 crc) {
+        if (buffer.getInt(offset) != InstructionRecordCodec.RECORD_SIZE) {
+            return false;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(offset + FRAME_SIZE).position(offset + FRAME_HEADER_SIZE);
+        crc.reset();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    private static List<Path> segments(final Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                segments.add(segment);
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long segmentIndex(final Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unexpected journal segment name " + name, e);
+        }
+    }
+
+    private static final class PendingAppend {
+
+        private static final PendingAppend STOP = new PendingAppend(null);
+
+        private final TradingInstruction tradingInstruction;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingAppend(final TradingInstruction tradingInstruction) {
+            this.tradingInstruction = tradingInstruction;
+        }
+    }
+
+    public static class Builder {
+
+        private Path directory;
+        private long segmentSize = DEFAULT_SEGMENT_SIZE;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public Builder withDirectory(final Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /*
+         *  Size after which the journal rolls to a new segment file, 64MB by default and at most 2GB, as segments are
+         *  mapped and read with int offsets.
+         */
+        public Builder withSegmentSize(final long segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /*
+         *  Largest number of appends written and forced to disk together, 8192 by default.
+         */
+        public Builder withMaxBatchSize(final int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /*
+         *  Opens the journal, creating the directory when needed, and starts its writer thread.
+         */
+        public InstructionJournal open() throws IOException {
+            checkNotNull(directory, "Directory should not be null when opening %s", InstructionJournal.class);
+            checkArgument(segmentSize >= FRAME_SIZE, "Segment size should hold at least one record");
+            checkArgument(segmentSize <= Integer.MAX_VALUE, "Segment size should be at most %s bytes", Integer.MAX_VALUE);
+            checkArgument(maxBatchSize > 0, "Maximum batch size should be greater than zero");
+            return new InstructionJournal(this);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/*
+ *  Fixed width binary layout of an already validated trading instruction, shared by the snapshot and journal
+ *  formats. All values are big endian.
+ *
+ *      offset  size  field
+ *           0     1  entity type ordinal
+ *           1     1  direction ordinal
+ *           2     3  currency ISO code, ASCII, zero padded
+ *           5     1  price per unit scale
+ *           6     1  agreed rate scale
+ *           7     1  reserved, zero
+ *           8     4  instruction date, epoch day
+ *          12     4  settlement date (already resolved), epoch day
+ *          16     4  number of units
+ *          20     8  price per unit, unscaled
+ *          28     8  agreed rate, unscaled
+ *
+ *  Decoding restores the instruction without validating it again or resolving its settlement date. A codec keeps
+ *  small caches of decoded currencies and dates and is not thread safe.
+ */
+public final class InstructionRecordCodec {
+
+    public static final int RECORD_SIZE = 36;
+
+    static final int ENTITY_TYPE = 0;
+    static final int DIRECTION = 1;
+    static final int CURRENCY = 2;
+    static final int CURRENCY_LENGTH = 3;
+    static final int PRICE_SCALE = 5;
+    static final int RATE_SCALE = 6;
+    static final int INSTRUCTION_DATE = 8;
+    static final int SETTLEMENT_DATE = 12;
+    static final int NUMBER_OF_UNITS = 16;
+    static final int PRICE = 20;
+    static final int RATE = 28;
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int CACHE_SLOTS = 64;
+
+    private final int[] currencyKeys = new int[CACHE_SLOTS];
+    private final TradeCurrency[] currencies = new TradeCurrency[CACHE_SLOTS];
+    private final int[] epochDays = new int[CACHE_SLOTS];
+    private final LocalDate[] dates = new LocalDate[CACHE_SLOTS];
+
+    /*
+     *  Checks that the instruction fits the fixed width layout: a currency code of at most three ASCII characters
+     *  and prices and rates whose unscaled value fits a long with a scale between -128 and 127.
+     */
+    public static void checkEncodable(final TradingInstruction tradingInstruction) {
+        String code = tradingInstruction.getCurrency().getCode();
+        checkArgument(code.length() <= CURRENCY_LENGTH && isAscii(code), "Currency %s does not fit the instruction record", code);
+        checkDecimal(tradingInstruction.getPricePerUnit(), "Price per unit");
+        checkDecimal(tradingInstruction.getRate(), "Agreed rate");
+        checkEpochDay(tradingInstruction.getInstructionDate(), "Instruction date");
+        checkEpochDay(tradingInstruction.getSettlementDate(), "Settlement date");
+    }
+
+    /*
+     *  Writes the record at the buffer's position and advances it by {@link #RECORD_SIZE}.
+     */
+    public static void encode(final TradingInstruction tradingInstruction, final ByteBuffer buffer) {
+        checkEncodable(tradingInstruction);
+        String code = tradingInstruction.getCurrency().getCode();
+        buffer.put((byte) tradingInstruction.getEntityType().ordinal());
+        buffer.put((byte) tradingInstruction.getDirection().ordinal());
+        for (int i = 0; i < CURRENCY_LENGTH; i++) {
+            buffer.put(i < code.length() ? (byte) code.charAt(i) : 0);
+        }
+        buffer.put((byte) tradingInstruction.getPricePerUnit().scale());
+        buffer.put((byte) tradingInstruction.getRate().scale());
+        buffer.put((byte) 0);
+        buffer.putInt((int) tradingInstruction.getInstructionDate().toEpochDay());
+        buffer.putInt((int) tradingInstruction.getSettlementDate().toEpochDay());
+        buffer.putInt(tradingInstruction.getNumberOfUnits());
+        buffer.putLong(tradingInstruction.getPricePerUnit().unscaledValue().longValue());
+        buffer.putLong(tradingInstruction.getRate().unscaledValue().longValue());
+    }
+
+    /*
+     *  Reads the record starting at the given absolute offset, leaving the buffer's position untouched.
+     */
+    public TradingInstruction decode(final ByteBuffer buffer, final int offset) {
+        return TradingInstruction.restore(ENTITY_TYPES[buffer.get(offset + ENTITY_TYPE)],
+                DIRECTIONS[buffer.get(offset + DIRECTION)],
+                BigDecimal.valueOf(buffer.getLong(offset + RATE), buffer.get(offset + RATE_SCALE)),
+                currency(buffer, offset + CURRENCY),
+                date(buffer.getInt(offset + INSTRUCTION_DATE)),
+                date(buffer.getInt(offset + SETTLEMENT_DATE)),
+                buffer.getInt(offset + NUMBER_OF_UNITS),
+                BigDecimal.valueOf(buffer.getLong(offset + PRICE), buffer.get(offset + PRICE_SCALE)));
+    }
+
+    TradeCurrency currency(final ByteBuffer buffer, final int offset) {
+        int key = 0;
+        int length = 0;
+        for (int i = 0; i < CURRENCY_LENGTH; i++) {
+            byte b = buffer.get(offset + i);
+            key = (key << 8) | (b & 0xFF);
+            if (b != 0) {
+                length = i + 1;
+            }
+        }
+        int slot = (key ^ (key >>> 11)) & (CACHE_SLOTS - 1);
+        if (currencyKeys[slot] != key || currencies[slot] == null) {
+            byte[] code = new byte[length];
+            for (int i = 0; i < length; i++) {
+                code[i] = buffer.get(offset + i);
+            }
+            currencyKeys[slot] = key;
+            currencies[slot] = Currencies.of(new String(code, StandardCharsets.US_ASCII));
+        }
+        return currencies[slot];
+    }
+
+    LocalDate date(final int epochDay) {
+        int slot = (epochDay ^ (epochDay >>> 6)) & (CACHE_SLOTS - 1);
+        if (epochDays[slot] != epochDay || dates[slot] == null) {
+            epochDays[slot] = epochDay;
+            dates[slot] = LocalDate.ofEpochDay(epochDay);
+        }
+        return dates[slot];
+    }
+
+    private static boolean isAscii(final String code) {
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) == 0 || code.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkDecimal(final BigDecimal value, final String field) {
+        checkArgument(value.unscaledValue().bitLength() < Long.SIZE && value.scale() >= Byte.MIN_VALUE && value.scale() <= Byte.MAX_VALUE,
+                "%s %s does not fit the instruction record", field, value);
+    }
+
+    private static void checkEpochDay(final LocalDate date, final String field) {
+        checkArgument(date.toEpochDay() >= Integer.MIN_VALUE && date.toEpochDay() <= Integer.MAX_VALUE,
+                "%s %s does not fit the instruction record", field, date);
+    }
+}
@@ -0,0 +1,132 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.TradingInstructionView;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Reusable flyweight reading an instruction in the {@link InstructionRecordCodec} layout straight out of a buffer.
+ *
+ *  Wrapping a record only moves the view, and the primitive accessors, the enums and the currency read the buffer
+ *  without allocating, so a feed can be copied into a columnar store with no garbage per message. The view holds
+ *  no copy: it reflects the buffer as it is when read and must not be kept after the buffer is reused. Like the
+ *  codec it is not thread safe.
+ */
+public final class InstructionRecordView implements TradingInstructionView {
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final InstructionRecordCodec codec = new InstructionRecordCodec();
+    private ByteBuffer buffer;
+    private int offset;
+
+    /*
+     *  Points the view at the record starting at the given absolute offset of the buffer.
+     */
+    public InstructionRecordView wrap(final ByteBuffer buffer, final int offset) {
+        checkNotNull(buffer, "Buffer should not be null");
+        checkArgument(offset >= 0 && offset <= buffer.limit() - InstructionRecordCodec.RECORD_SIZE,
+                "Record at offset %s does not fit the buffer", offset);
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    /*
+     *  Copies the record into a new instruction that can be kept.
+     */
+    public TradingInstruction toTradingInstruction() {
+        return codec.decode(buffer, offset);
+    }
+
+    @Override
+    public EntityType getEntityType() {
+        return ENTITY_TYPES[buffer.get(offset + InstructionRecordCodec.ENTITY_TYPE)];
+    }
+
+    @Override
+    public Direction getDirection() {
+        return DIRECTIONS[buffer.get(offset + InstructionRecordCodec.DIRECTION)];
+    }
+
+    /*
+     *  Resolved through a small cache, so it only allocates the first time a currency is met.
+     */
+    @Override
+    public TradeCurrency getCurrency() {
+        return codec.currency(buffer, offset + InstructionRecordCodec.CURRENCY);
+    }
+
+    @Override
+    public BigDecimal getRate() {
+        return BigDecimal.valueOf(getUnscaledRate(), getRateScale());
+    }
+
+    @Override
+    public LocalDate getInstructionDate() {
+        return codec.date((int) getInstructionEpochDay());
+    }
+
+    @Override
+    public LocalDate getSettlementDate() {
+        return codec.date((int) getSettlementEpochDay());
+    }
+
+    @Override
+    public int getNumberOfUnits() {
+        return buffer.getInt(offset + InstructionRecordCodec.NUMBER_OF_UNITS);
+    }
+
+    @Override
+    public BigDecimal getPricePerUnit() {
+        return BigDecimal.valueOf(getUnscaledPricePerUnit(), getPriceScale());
+    }
+
+    @Override
+    public long getInstructionEpochDay() {
+        return buffer.getInt(offset + InstructionRecordCodec.INSTRUCTION_DATE);
+    }
+
+    @Override
+    public long getSettlementEpochDay() {
+        return buffer.getInt(offset + InstructionRecordCodec.SETTLEMENT_DATE);
+    }
+
+    /*
+    *  Always true, records only hold values whose unscaled value fits a long.
+    */
+    @Override
+    public boolean hasLongUnscaledValues() {
+        return true;
+    }
+
+    @Override
+    public long getUnscaledRate() {
+        return buffer.getLong(offset + InstructionRecordCodec.RATE);
+    }
+
+    @Override
+    public int getRateScale() {
+        return buffer.get(offset + InstructionRecordCodec.RATE_SCALE);
+    }
+
+    @Override
+    public long getUnscaledPricePerUnit() {
+        return buffer.getLong(offset + InstructionRecordCodec.PRICE);
+    }
+
+    @Override
+    public int getPriceScale() {
+        return buffer.get(offset + InstructionRecordCodec.PRICE_SCALE);
+    }
+}
@@ -0,0 +1,244 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.TradingInstructionView;
+import com.org.trade.core.reporting.ReportGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Versioned binary snapshot of an instruction book.
+ *
+ *  The file starts with a 16 byte header (magic "TRIS", format version, record size and record count) followed by
+ *  fixed width records, see {@link InstructionRecordCodec}. Records hold instructions that were already validated
+ *  and have their settlement date resolved, so loading a snapshot skips the builder entirely.
+ *
+ *  An opened snapshot is memory mapped: instructions can be decoded lazily by index or all at once.
+ */
+public final class InstructionSnapshot {
+
+    static final int MAGIC = 0x54524953;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private static final int WRITE_BUFFER_RECORDS = 4096;
+    private static final int RECORDS_PER_REGION = Integer.MAX_VALUE / InstructionRecordCodec.RECORD_SIZE;
+
+    private final MappedByteBuffer[] regions;
+    private final int size;
+    private final ThreadLocal<InstructionRecordCodec> codecs = ThreadLocal.withInitial(InstructionRecordCodec::new);
+
+    private InstructionSnapshot(final MappedByteBuffer[] regions, final int size) {
+        this.regions = regions;
+        this.size = size;
+    }
+
+    /*
+     *  Writes the instructions to the given file, replacing it. Returns the number of instructions written.
+     *
+     *  The snapshot is written to a temporary file in the same directory, forced to disk and then moved over the
+     *  given file atomically, so a failure part way leaves the previous snapshot untouched.
+     */
+    public static long write(final Iterable<TradingInstruction> tradingInstructions, final Path path) throws IOException {
+        checkNotNull(tradingInstructions, "Trading instructions should not be null");
+        return write(tradingInstructions::forEach, path);
+    }
+
+    /*
+     *  Writes the instructions the given report generator works on to the given file, replacing it.
+     */
+    public static long write(final ReportGenerator reportGenerator, final Path path) throws IOException {
+        checkNotNull(reportGenerator, "Report generator should not be null");
+        return write(reportGenerator::forEachTradingInstruction, path);
+    }
+
+    /*
+     *  Maps the snapshot file and checks its header.
+     */
+    public static InstructionSnapshot open(final Path path) throws IOException {
+        checkNotNull(path, "Path should not be null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(path + " is not an instruction snapshot: file too short");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not an instruction snapshot: bad magic number");
+            }
+            short version = header.getShort();
+            if (version != VERSION) {
+                throw new IOException(path + " has unsupported snapshot version " + version);
+            }
+            short recordSize = header.getShort();
+            if (recordSize != InstructionRecordCodec.RECORD_SIZE) {
+                throw new IOException(path + " has unexpected record size " + recordSize);
+            }
+            long count = header.getLong();
+            if (count < 0 || count > Integer.MAX_VALUE || channel.size() < HEADER_SIZE + count * recordSize) {
+                throw new IOException(path + " is truncated: header announces " + count + " records");
+            }
+            int regionCount = (int) ((count + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION);
+            MappedByteBuffer[] regions = new MappedByteBuffer[regionCount];
+            for (int region = 0; region < regionCount; region++) {
+                long first = (long) region * RECORDS_PER_REGION;
+                long records = Math.min(RECORDS_PER_REGION, count - first);
+                regions[region] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * recordSize, records * recordSize);
+            }
+            return new InstructionSnapshot(regions, (int) count);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /*
+     *  Decodes the instruction at the given index, with a codec kept per thread so its currency and date caches are
+     *  reused across calls.
+     */
+    public TradingInstruction get(final int index) {
+        return get(index, codecs.get());
+    }
+
+    /*
+     *  Read-only list decoding instructions on access, usable directly with {@link ReportGenerator#of(List)}.
+     *  Each call to get decodes the record again, reusing the calling thread's codec.
+     */
+    public List<TradingInstruction> asList() {
+        return new LazyList();
+    }
+
+    /*
+     *  Decodes every instruction into a new list.
+     */
+    public List<TradingInstruction> loadAll() {
+        List<TradingInstruction> tradingInstructions = new ArrayList<>(size);
+        forEach(tradingInstructions::add);
+        return tradingInstructions;
+    }
+
+    /*
+     *  Decodes every instruction in file order and passes it to the consumer.
+     */
+    public void forEach(final Consumer<? super TradingInstruction> consumer) {
+        checkNotNull(consumer, "Consumer should not be null");
+        InstructionRecordCodec codec = new InstructionRecordCodec();
+        for (int index = 0; index < size; index++) {
+            consumer.accept(get(index, codec));
+        }
+    }
+
+    /*
+     *  Passes every record to the consumer through one reused {@link InstructionRecordView}, so no instruction is
+     *  created; the view is only valid during the call. Feeding a columnar store this way allocates nothing per
+     *  record.
+     */
+    public void forEachView(final Consumer<? super TradingInstructionView> consumer) {
+        checkNotNull(consumer, "Consumer should not be null");
+        InstructionRecordView view = new InstructionRecordView();
+        for (int index = 0; index < size; index++) {
+            consumer.accept(view.wrap(regions[index / RECORDS_PER_REGION], (index % RECORDS_PER_REGION) * InstructionRecordCodec.RECORD_SIZE));
+        }
+    }
+
+    private TradingInstruction get(final int index, final InstructionRecordCodec codec) {
+        checkArgument(index >= 0 && index < size, "Index %s is outside the snapshot of size %s", index, size);
+        return codec.decode(regions[index / RECORDS_PER_REGION], (index % RECORDS_PER_REGION) * InstructionRecordCodec.RECORD_SIZE);
+    }
+
+    private static long write(final Consumer<Consumer<TradingInstruction>> source, final Path path) throws IOException {
+        checkNotNull(path, "Path should not be null");
+        Path absolutePath = path.toAbsolutePath();
+        Path temporary = Files.createTempFile(absolutePath.getParent(), absolutePath.getFileName().toString(), ".tmp");
+        try {
+            long count = writeRecords(source, temporary);
+            Files.move(temporary, absolutePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static long writeRecords(final Consumer<Consumer<TradingInstruction>> source, final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            RecordWriter recordWriter = new RecordWriter(channel);
+            channel.position(HEADER_SIZE);
+            try {
+                source.accept(recordWriter);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            recordWriter.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) InstructionRecordCodec.RECORD_SIZE).putLong(recordWriter.count);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            return recordWriter.count;
+        }
+    }
+
+    private static final class RecordWriter implements Consumer<TradingInstruction> {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * InstructionRecordCodec.RECORD_SIZE);
+        private long count;
+
+        private RecordWriter(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void accept(final TradingInstruction tradingInstruction) {
+            checkArgument(count < Integer.MAX_VALUE, "Snapshots hold at most %s instructions", Integer.MAX_VALUE);
+            if (buffer.remaining() < InstructionRecordCodec.RECORD_SIZE) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            InstructionRecordCodec.encode(tradingInstruction, buffer);
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private final class LazyList extends AbstractList<TradingInstruction> implements RandomAccess {
+
+        @Override
+        public TradingInstruction get(final int index) {
+            return InstructionSnapshot.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
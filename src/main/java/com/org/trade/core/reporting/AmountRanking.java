@@ -0,0 +1,83 @@
+package com.org.trade.core.reporting;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/*
+ *  Bounded heap that keeps the best offset + limit items offered with their precomputed trade amount.
+ *
+ *  Ascending order is the order of the sort reports: amount first, then the order in which the items were
+ *  offered. Descending order is the exact reverse. Ranking n items costs O(n log(offset + limit)).
+ */
+final class AmountRanking<T> {
+
+    private final boolean descending;
+    private final int offset;
+    private final int capacity;
+    private final Comparator<Ranked<T>> bestFirst;
+    private final PriorityQueue<Ranked<T>> worstFirst;
+    private long sequence;
+
+    AmountRanking(final boolean descending, final int offset, final int limit) {
+        this.descending = descending;
+        this.offset = offset;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        Comparator<Ranked<T>> ascending = ascendingOrder();
+        this.bestFirst = descending ? ascending.reversed() : ascending;
+        this.worstFirst = new PriorityQueue<>(Math.max(1, Math.min(capacity, 1024)), bestFirst.reversed());
+    }
+
+    void offer(final BigDecimal amount, final T item) {
+        long itemSequence = sequence++;
+        if (capacity == 0) {
+            return;
+        }
+        if (worstFirst.size() < capacity) {
+            worstFirst.add(new Ranked<>(amount, itemSequence, item));
+            return;
+        }
+        // The new item was offered last, so it loses ties in ascending order and wins them in descending order.
+        int comparison = amount.compareTo(worstFirst.peek().amount);
+        if (descending ? comparison >= 0 : comparison < 0) {
+            worstFirst.poll();
+            worstFirst.add(new Ranked<>(amount, itemSequence, item));
+        }
+    }
+
+    List<T> result() {
+        if (worstFirst.size() <= offset) {
+            return new ArrayList<>();
+        }
+        List<Ranked<T>> ranked = new ArrayList<>(worstFirst);
+        Collections.sort(ranked, bestFirst);
+        List<T> page = new ArrayList<>(ranked.size() - offset);
+        for (int i = offset; i < ranked.size(); i++) {
+            page.add(ranked.get(i).item);
+        }
+        return page;
+    }
+
+    private static <T> Comparator<Ranked<T>> ascendingOrder() {
+        return (ranked1, ranked2) -> {
+            int comparison = ranked1.amount.compareTo(ranked2.amount);
+            return comparison != 0 ? comparison : Long.compare(ranked1.sequence, ranked2.sequence);
+        };
+    }
+
+    private static final class Ranked<T> {
+
+        private final BigDecimal amount;
+        private final long sequence;
+        private final T item;
+
+        private Ranked(final BigDecimal amount, final long sequence, final T item) {
+            this.amount = amount;
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.org.trade.core.reporting;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ *  Items collected with their trade amount computed once, summed and sorted the way the separate report
+ *  methods do: the total is zero when empty, and the sort is stable so equal amounts keep the order of add.
+ */
+final class AmountedList<T> {
+
+    private final List<Amounted<T>> amounted = new ArrayList<>();
+    private BigDecimal total;
+
+    void add(final BigDecimal amount, final T item) {
+        amounted.add(new Amounted<>(amount, item));
+        total = total == null ? amount : total.add(amount);
+    }
+
+    BigDecimal total() {
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    List<T> sortedItems() {
+        amounted.sort((amounted1, amounted2) -> amounted1.amount.compareTo(amounted2.amount));
+        List<T> sorted = new ArrayList<>(amounted.size());
+        for (Amounted<T> item : amounted) {
+            sorted.add(item.item);
+        }
+        return sorted;
+    }
+
+    private static final class Amounted<T> {
+
+        private final BigDecimal amount;
+        private final T item;
+
+        private Amounted(final BigDecimal amount, final T item) {
+            this.amount = amount;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.org.trade.core.reporting;
+
+import com.google.common.base.Objects;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.io.Closeable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Asynchronous front end over a {@link ReportGenerator}.
+ *
+ *  Queries run on a bounded thread pool with a bounded queue; when the queue is full the returned future fails with
+ *  a RejectedExecutionException instead of piling more work on the host. Identical queries share one computation
+ *  while it runs and its result is reused for a short time afterwards, as long as the report generator has not
+ *  been replaced and the instruction set has not changed. Failed computations are never reused.
+ *
+ *  A generator scanning a list that keeps growing does not notice appends by itself: give the service the version
+ *  of the instruction set, for example {@code instructionSet::getVersion} of a {@link VersionedInstructionSet},
+ *  or call {@link #invalidate()} after appending.
+ */
+public class AsyncReportService implements Closeable {
+
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final long cacheTtlNanos;
+    private final LongSupplier version;
+    private final ConcurrentHashMap<Query, Computation> computations = new ConcurrentHashMap<>();
+    private volatile ReportGenerator reportGenerator;
+
+    private AsyncReportService(final Builder builder) {
+        reportGenerator = builder.reportGenerator;
+        cacheTtlNanos = builder.cacheTtl.toNanos();
+        version = builder.version;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(builder.threads, builder.threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(builder.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "async-report-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public CompletableFuture<BigDecimal> calculateTotalOfIncomingTransactions(final LocalDate settledDate) {
+        return query(QueryType.TOTAL, settledDate, Direction.SELL,
+                generator -> () -> generator.calculateTotalOfIncomingTransactions(settledDate));
+    }
+
+    public CompletableFuture<BigDecimal> calculateTotalOfOutgoingTransactions(final LocalDate settledDate) {
+        return query(QueryType.TOTAL, settledDate, Direction.BUY,
+                generator -> () -> generator.calculateTotalOfOutgoingTransactions(settledDate));
+    }
+
+    /*
+     *  The list is shared by every caller of the same query, so it is unmodifiable.
+     */
+    public CompletableFuture<List<TradingInstruction>> sortIncomingTradingByAmount(final LocalDate settledDate) {
+        return query(QueryType.SORT, settledDate, Direction.SELL,
+                generator -> () -> Collections.unmodifiableList(generator.sortIncomingTradingByAmount(settledDate)));
+    }
+
+    /*
+     *  The list is shared by every caller of the same query, so it is unmodifiable.
+     */
+    public CompletableFuture<List<TradingInstruction>> sortOutgoingTradingByAmount(final LocalDate settledDate) {
+        return query(QueryType.SORT, settledDate, Direction.BUY,
+                generator -> () -> Collections.unmodifiableList(generator.sortOutgoingTradingByAmount(settledDate)));
+    }
+
+    public CompletableFuture<DailySettlementReport> generateDailySettlementReport(final LocalDate settledDate) {
+        return query(QueryType.DAILY, settledDate, null, generator -> () -> generator.generateDailySettlementReport(settledDate));
+    }
+
+    /*
+     *  Switches to a generator over a new instruction set. Results computed from the previous one are no longer
+     *  reused; queries already running complete with the previous generator.
+     */
+    public void replaceReportGenerator(final ReportGenerator reportGenerator) {
+        checkNotNull(reportGenerator, "Report generator should not be null");
+        this.reportGenerator = reportGenerator;
+        computations.clear();
+    }
+
+    /*
+     *  Stops reusing the results computed so far, for example after instructions were appended to the list the
+     *  generator scans. Queries already running complete, later identical queries start a new computation.
+     */
+    public void invalidate() {
+        computations.clear();
+    }
+
+    /*
+     *  Stops accepting queries. Queries already queued still run.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> query(final QueryType type, final LocalDate settledDate, final Direction direction,
+                                           final Function<ReportGenerator, Supplier<T>> report) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        Query query = new Query(type, settledDate, direction);
+        ReportGenerator generator = reportGenerator;
+        long currentVersion = version.getAsLong();
+        long now = System.nanoTime();
+        Computation computation = computations.get(query);
+        if (computation == null || !computation.isReusable(generator, currentVersion, now, cacheTtlNanos)) {
+            Computation candidate = new Computation(generator, currentVersion);
+            computation = computations.compute(query, (key, existing) ->
+                    existing != null && existing.isReusable(generator, currentVersion, now, cacheTtlNanos) ? existing : candidate);
+            if (computation == candidate) {
+                start(query, candidate, report.apply(generator));
+            }
+        }
+        // Every caller gets its own dependent future, so completing it cannot affect the other callers.
+        return ((CompletableFuture<T>) computation.future).thenApply(result -> result);
+    }
+
+    private <T> void start(final Query query, final Computation computation, final Supplier<T> report) {
+        if (computations.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            computations.values().removeIf(existing -> existing.future.isDone()
+                    && !existing.isReusable(existing.generator, existing.version, now, cacheTtlNanos));
+        }
+        computation.future.whenComplete((result, failure) -> {
+            if (failure != null) {
+                computations.remove(query, computation);
+            }
+        });
+        try {
+            executor.execute(() -> {
+                try {
+                    T result = report.get();
+                    // Set before completing, so callers seeing the result also see its completion time.
+                    computation.completedAt = System.nanoTime();
+                    computation.future.complete(result);
+                } catch (Throwable e) {
+                    // Errors included, a future left pending would be shared by every identical query.
+                    computation.future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            computation.future.completeExceptionally(e);
+        }
+    }
+
+    private enum QueryType {
+        TOTAL, SORT, DAILY
+    }
+
+    private static final class Query {
+
+        private final QueryType type;
+        private final LocalDate settledDate;
+        private final Direction direction;
+
+        private Query(final QueryType type, final LocalDate settledDate, final Direction direction) {
+            this.type = type;
+            this.settledDate = settledDate;
+            this.direction = direction;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Query that = (Query) o;
+            return type == that.type && direction == that.direction && settledDate.equals(that.settledDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(type, settledDate, direction);
+        }
+    }
+
+    private static final class Computation {
+
+        private final ReportGenerator generator;
+        private final long version;
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        private Computation(final ReportGenerator generator, final long version) {
+            this.generator = generator;
+            this.version = version;
+        }
+
+        /*
+         *  Running computations of the current generator and instruction set version are always shared; completed
+         *  ones only while fresh and successful.
+         */
+        private boolean isReusable(final ReportGenerator currentGenerator, final long currentVersion, final long now, final long ttlNanos) {
+            if (generator != currentGenerator || version != currentVersion) {
+                return false;
+            }
+            if (!future.isDone()) {
+                return true;
+            }
+            return !future.isCompletedExceptionally() && now - completedAt < ttlNanos;
+        }
+    }
+
+    public static class Builder {
+
+        private ReportGenerator reportGenerator;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private Duration cacheTtl = Duration.ofSeconds(1);
+        private LongSupplier version = () -> 0;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public Builder withReportGenerator(final ReportGenerator reportGenerator) {
+            this.reportGenerator = reportGenerator;
+            return this;
+        }
+
+        /*
+         *  Number of threads running queries, the number of processors by default.
+         */
+        public Builder withThreads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /*
+         *  Number of queries that may wait for a thread before new ones are rejected, 1024 by default.
+         */
+        public Builder withQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /*
+         *  How long a completed result is reused, one second by default. Zero only shares running computations.
+         */
+        public Builder withCacheTtl(final Duration cacheTtl) {
+            this.cacheTtl = cacheTtl;
+            return this;
+        }
+
+        /*
+         *  Version of the instruction set the generator reports on, results are only reused while it is unchanged.
+         *  Constant by default, in which case only {@link #invalidate()} and replacing the generator drop results.
+         */
+        public Builder withVersion(final LongSupplier version) {
+            this.version = version;
+            return this;
+        }
+
+        public AsyncReportService build() {
+            checkNotNull(reportGenerator, "Report generator should not be null when building %s", AsyncReportService.class);
+            checkNotNull(cacheTtl, "Cache TTL should not be null when building %s", AsyncReportService.class);
+            checkNotNull(version, "Version should not be null when building %s", AsyncReportService.class);
+            checkArgument(threads > 0, "Threads should be greater than zero");
+            checkArgument(queueCapacity > 0, "Queue capacity should be greater than zero");
+            checkArgument(!cacheTtl.isNegative(), "Cache TTL should not be negative");
+            return new AsyncReportService(this);
+        }
+    }
+}
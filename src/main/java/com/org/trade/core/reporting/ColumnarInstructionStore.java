@@ -0,0 +1,369 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.FixedPointSum;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.TradingInstructionView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Struct-of-arrays copy of a list of trading instructions.
+ *
+ *  Every field lives in its own primitive array: direction, entity type and currency id as small codes, dates as
+ *  epoch days and price and rate as unscaled longs with their scale, so a row costs a few dozen bytes instead of
+ *  the object graph of a {@link TradingInstruction}. Totals are summed in long arithmetic and only fall back to
+ *  BigDecimal when a value overflows. Instructions are only materialised again for sort results.
+ */
+public class ColumnarInstructionStore implements InstructionAggregator {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private final int size;
+    private final byte[] directions;
+    private final byte[] entityTypes;
+    private final short[] currencies;
+    private final int[] settlementEpochDays;
+    private final int[] instructionEpochDays;
+    private final int[] numberOfUnits;
+    private final long[] unscaledPrices;
+    private final byte[] priceScales;
+    private final long[] unscaledRates;
+    private final byte[] rateScales;
+
+    private ColumnarInstructionStore(final Builder builder) {
+        size = builder.size;
+        directions = Arrays.copyOf(builder.directions, size);
+        entityTypes = Arrays.copyOf(builder.entityTypes, size);
+        currencies = Arrays.copyOf(builder.currencies, size);
+        settlementEpochDays = Arrays.copyOf(builder.settlementEpochDays, size);
+        instructionEpochDays = Arrays.copyOf(builder.instructionEpochDays, size);
+        numberOfUnits = Arrays.copyOf(builder.numberOfUnits, size);
+        unscaledPrices = Arrays.copyOf(builder.unscaledPrices, size);
+        priceScales = Arrays.copyOf(builder.priceScales, size);
+        unscaledRates = Arrays.copyOf(builder.unscaledRates, size);
+        rateScales = Arrays.copyOf(builder.rateScales, size);
+    }
+
+    /*
+     *  Copies the given instructions into a new store. Prices and rates must fit an unscaled long with a scale
+     *  between -128 and 127.
+     */
+    public static ColumnarInstructionStore of(final List<TradingInstruction> tradingInstructions) {
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", ColumnarInstructionStore.class);
+        Builder builder = Builder.newBuilder(tradingInstructions.size());
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            builder.add(tradingInstruction);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int scanSize(final LocalDate settledDate, final Direction direction) {
+        return size;
+    }
+
+    @Override
+    public BigDecimal total(final LocalDate settledDate, final Direction direction) {
+        int[] rows = matchingRows(settledDate, direction);
+        FixedPointSum sum = new FixedPointSum();
+        for (int row : rows) {
+            addTradeAmount(sum, row);
+        }
+        return sum.toBigDecimal();
+    }
+
+    /*
+     *  Total of the instructions settled on the given date in the given direction and currency. The currency is
+     *  matched on its id, so the filter is a plain int comparison per row.
+     */
+    public BigDecimal total(final LocalDate settledDate, final Direction direction, final TradeCurrency currency) {
+        checkNotNull(currency, "Currency should not be null");
+        int[] rows = matchingRows(settledDate, direction);
+        short currencyId = (short) currency.getId();
+        FixedPointSum sum = new FixedPointSum();
+        for (int row : rows) {
+            if (currencies[row] == currencyId) {
+                addTradeAmount(sum, row);
+            }
+        }
+        return sum.toBigDecimal();
+    }
+
+    @Override
+    public List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
+        int[] rows = matchingRows(settledDate, direction);
+        RowAmount[] rowAmounts = new RowAmount[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            rowAmounts[i] = new RowAmount(rows[i], tradeAmount(rows[i]));
+        }
+        Arrays.sort(rowAmounts, (row1, row2) -> row1.amount.compareTo(row2.amount));
+        List<TradingInstruction> sorted = new ArrayList<>(rowAmounts.length);
+        for (RowAmount rowAmount : rowAmounts) {
+            sorted.add(tradingInstruction(rowAmount.row));
+        }
+        return sorted;
+    }
+
+    /*
+     *  One pass over the rows for both directions; only the matching rows are rebuilt as instructions.
+     */
+    @Override
+    public DailySettlementReport dailyReport(final LocalDate settledDate) {
+        AmountedList<Integer> incoming = new AmountedList<>();
+        AmountedList<Integer> outgoing = new AmountedList<>();
+        long epochDay = settledDate.toEpochDay();
+        byte sell = (byte) Direction.SELL.ordinal();
+        for (int row = 0; row < size; row++) {
+            if (settlementEpochDays[row] == epochDay) {
+                (directions[row] == sell ? incoming : outgoing).add(tradeAmount(row), row);
+            }
+        }
+        return new DailySettlementReport(settledDate, incoming.total(), outgoing.total(),
+                tradingInstructions(incoming.sortedItems()), tradingInstructions(outgoing.sortedItems()));
+    }
+
+    /*
+     *  Groups are computed from the columns, so only the amounts of the matching rows are materialised.
+     */
+    @Override
+    public GroupedTotals groupTotals(final GroupByQuery query) {
+        GroupedTotals.Accumulator accumulator = new GroupedTotals.Accumulator(query);
+        for (int row = 0; row < size; row++) {
+            int group = accumulator.group(directions[row], entityTypes[row], currencies[row], settlementEpochDays[row]);
+            if (group >= 0) {
+                accumulator.add(group, tradeAmount(row));
+            }
+        }
+        return accumulator.result();
+    }
+
+    /*
+     *  Amounts are computed once per matching row and only the ranked rows are rebuilt as instructions.
+     */
+    @Override
+    public List<TradingInstruction> rank(final LocalDate settledDate, final Direction direction,
+                                         final boolean descending, final int offset, final int limit) {
+        AmountRanking<Integer> ranking = new AmountRanking<>(descending, offset, limit);
+        for (int row : matchingRows(settledDate, direction)) {
+            ranking.offer(tradeAmount(row), row);
+        }
+        List<Integer> rows = ranking.result();
+        List<TradingInstruction> ranked = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            ranked.add(tradingInstruction(row));
+        }
+        return ranked;
+    }
+
+    @Override
+    public void forEach(final Consumer<? super TradingInstruction> consumer) {
+        for (int row = 0; row < size; row++) {
+            consumer.accept(tradingInstruction(row));
+        }
+    }
+
+    /*
+     *  Rebuilds the instruction stored at the given row. The stored settlement date is already resolved, so it is
+     *  restored as is.
+     */
+    public TradingInstruction tradingInstruction(final int row) {
+        checkArgument(row >= 0 && row < size, "Row %s is outside the store of size %s", row, size);
+        return TradingInstruction.restore(ENTITY_TYPES[entityTypes[row]],
+                DIRECTIONS[directions[row]],
+                BigDecimal.valueOf(unscaledRates[row], rateScales[row]),
+                Currencies.byId(currencies[row]),
+                LocalDate.ofEpochDay(instructionEpochDays[row]),
+                LocalDate.ofEpochDay(settlementEpochDays[row]),
+                numberOfUnits[row],
+                BigDecimal.valueOf(unscaledPrices[row], priceScales[row]));
+    }
+
+    private List<TradingInstruction> tradingInstructions(final List<Integer> rows) {
+        List<TradingInstruction> tradingInstructions = new ArrayList<>(rows.size());
+        for (int row : rows) {
+            tradingInstructions.add(tradingInstruction(row));
+        }
+        return tradingInstructions;
+    }
+
+    private int[] matchingRows(final LocalDate settledDate, final Direction direction) {
+        long epochDay = settledDate.toEpochDay();
+        if (epochDay < Integer.MIN_VALUE || epochDay > Integer.MAX_VALUE) {
+            return new int[0];
+        }
+        int day = (int) epochDay;
+        byte directionCode = (byte) direction.ordinal();
+        int[] rows = new int[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (settlementEpochDays[row] == day & directions[row] == directionCode) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private void addTradeAmount(final FixedPointSum sum, final int row) {
+        sum.addTradeAmount(unscaledPrices[row], priceScales[row], unscaledRates[row], rateScales[row], numberOfUnits[row]);
+    }
+
+    private BigDecimal tradeAmount(final int row) {
+        return BigDecimal.valueOf(unscaledPrices[row], priceScales[row])
+                .multiply(BigDecimal.valueOf(unscaledRates[row], rateScales[row]))
+                .multiply(new BigDecimal(numberOfUnits[row]));
+    }
+
+    private static long unscaledLong(final BigDecimal value, final String field) {
+        checkArgument(value.unscaledValue().bitLength() < Long.SIZE, "%s %s does not fit the columnar store", field, value);
+        return value.unscaledValue().longValue();
+    }
+
+    private static byte scale(final BigDecimal value, final String field) {
+        checkArgument(value.scale() >= Byte.MIN_VALUE && value.scale() <= Byte.MAX_VALUE, "%s %s does not fit the columnar store", field, value);
+        return (byte) value.scale();
+    }
+
+    private static final class RowAmount {
+
+        private final int row;
+        private final BigDecimal amount;
+
+        private RowAmount(final int row, final BigDecimal amount) {
+            this.row = row;
+            this.amount = amount;
+        }
+    }
+
+    /*
+     *  Appends instructions straight into the columns, so a stream of instructions (for example from a file
+     *  loader) can be stored without holding the instruction objects in between.
+     */
+    public static class Builder implements Consumer<TradingInstructionView> {
+
+        private int size;
+        private byte[] directions;
+        private byte[] entityTypes;
+        private short[] currencies;
+        private int[] settlementEpochDays;
+        private int[] instructionEpochDays;
+        private int[] numberOfUnits;
+        private long[] unscaledPrices;
+        private byte[] priceScales;
+        private long[] unscaledRates;
+        private byte[] rateScales;
+
+        private Builder(final int expectedSize) {
+            allocate(Math.max(16, expectedSize));
+        }
+
+        public static Builder newBuilder() {
+            return new Builder(16);
+        }
+
+        public static Builder newBuilder(final int expectedSize) {
+            checkArgument(expectedSize >= 0, "Expected size should not be negative");
+            return new Builder(expectedSize);
+        }
+
+        public Builder add(final TradingInstruction tradingInstruction) {
+            checkNotNull(tradingInstruction, "Trading instruction should not be null");
+            if (size == directions.length) {
+                allocate(size + (size >> 1));
+            }
+            int row = size;
+            directions[row] = (byte) tradingInstruction.getDirection().ordinal();
+            entityTypes[row] = (byte) tradingInstruction.getEntityType().ordinal();
+            currencies[row] = currency(tradingInstruction.getCurrency());
+            settlementEpochDays[row] = Math.toIntExact(tradingInstruction.getSettlementDate().toEpochDay());
+            instructionEpochDays[row] = Math.toIntExact(tradingInstruction.getInstructionDate().toEpochDay());
+            numberOfUnits[row] = tradingInstruction.getNumberOfUnits();
+            unscaledPrices[row] = unscaledLong(tradingInstruction.getPricePerUnit(), "Price per unit");
+            priceScales[row] = scale(tradingInstruction.getPricePerUnit(), "Price per unit");
+            unscaledRates[row] = unscaledLong(tradingInstruction.getRate(), "Agreed rate");
+            rateScales[row] = scale(tradingInstruction.getRate(), "Agreed rate");
+            size++;
+            return this;
+        }
+
+        /*
+         *  Appends any instruction view through its primitive accessors, so a flyweight over a binary record is
+         *  copied without allocating. Prices and rates must fit an unscaled long with a scale between -128 and 127.
+         */
+        public Builder add(final TradingInstructionView tradingInstruction) {
+            checkNotNull(tradingInstruction, "Trading instruction should not be null");
+            if (tradingInstruction instanceof TradingInstruction) {
+                return add((TradingInstruction) tradingInstruction);
+            }
+            checkArgument(tradingInstruction.hasLongUnscaledValues(), "Price or rate of the trading instruction does not fit the columnar store");
+            checkArgument(fitsScale(tradingInstruction.getPriceScale()) && fitsScale(tradingInstruction.getRateScale()),
+                    "Scale of the trading instruction does not fit the columnar store");
+            if (size == directions.length) {
+                allocate(size + (size >> 1));
+            }
+            int row = size;
+            directions[row] = (byte) tradingInstruction.getDirection().ordinal();
+            entityTypes[row] = (byte) tradingInstruction.getEntityType().ordinal();
+            currencies[row] = currency(tradingInstruction.getCurrency());
+            settlementEpochDays[row] = Math.toIntExact(tradingInstruction.getSettlementEpochDay());
+            instructionEpochDays[row] = Math.toIntExact(tradingInstruction.getInstructionEpochDay());
+            numberOfUnits[row] = tradingInstruction.getNumberOfUnits();
+            unscaledPrices[row] = tradingInstruction.getUnscaledPricePerUnit();
+            priceScales[row] = (byte) tradingInstruction.getPriceScale();
+            unscaledRates[row] = tradingInstruction.getUnscaledRate();
+            rateScales[row] = (byte) tradingInstruction.getRateScale();
+            size++;
+            return this;
+        }
+
+        @Override
+        public void accept(final TradingInstructionView tradingInstruction) {
+            add(tradingInstruction);
+        }
+
+        public ColumnarInstructionStore build() {
+            return new ColumnarInstructionStore(this);
+        }
+
+        private static boolean fitsScale(final int scale) {
+            return scale >= Byte.MIN_VALUE && scale <= Byte.MAX_VALUE;
+        }
+
+        private static short currency(final TradeCurrency currency) {
+            checkArgument(currency.getId() <= Short.MAX_VALUE, "Currency %s does not fit the columnar store", currency);
+            return (short) currency.getId();
+        }
+
+        private void allocate(final int capacity) {
+            directions = directions == null ? new byte[capacity] : Arrays.copyOf(directions, capacity);
+            entityTypes = entityTypes == null ? new byte[capacity] : Arrays.copyOf(entityTypes, capacity);
+            currencies = currencies == null ? new short[capacity] : Arrays.copyOf(currencies, capacity);
+            settlementEpochDays = settlementEpochDays == null ? new int[capacity] : Arrays.copyOf(settlementEpochDays, capacity);
+            instructionEpochDays = instructionEpochDays == null ? new int[capacity] : Arrays.copyOf(instructionEpochDays, capacity);
+            numberOfUnits = numberOfUnits == null ? new int[capacity] : Arrays.copyOf(numberOfUnits, capacity);
+            unscaledPrices = unscaledPrices == null ? new long[capacity] : Arrays.copyOf(unscaledPrices, capacity);
+            priceScales = priceScales == null ? new byte[capacity] : Arrays.copyOf(priceScales, capacity);
+            unscaledRates = unscaledRates == null ? new long[capacity] : Arrays.copyOf(unscaledRates, capacity);
+            rateScales = rateScales == null ? new byte[capacity] : Arrays.copyOf(rateScales, capacity);
+        }
+    }
+}
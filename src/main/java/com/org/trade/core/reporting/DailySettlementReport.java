@@ -0,0 +1,70 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ *  Everything the end of day job reports for one settlement date, built in a single pass by
+ *  {@link ReportGenerator#generateDailySettlementReport(LocalDate)}. Totals and orderings are the ones the
+ *  separate report methods return.
+ */
+public final class DailySettlementReport {
+
+    private final LocalDate settlementDate;
+    private final BigDecimal incomingTotal;
+    private final BigDecimal outgoingTotal;
+    private final List<TradingInstruction> incomingTradings;
+    private final List<TradingInstruction> outgoingTradings;
+
+    DailySettlementReport(final LocalDate settlementDate, final BigDecimal incomingTotal, final BigDecimal outgoingTotal,
+                          final List<TradingInstruction> incomingTradings, final List<TradingInstruction> outgoingTradings) {
+        this.settlementDate = settlementDate;
+        this.incomingTotal = incomingTotal;
+        this.outgoingTotal = outgoingTotal;
+        this.incomingTradings = Collections.unmodifiableList(incomingTradings);
+        this.outgoingTradings = Collections.unmodifiableList(outgoingTradings);
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    /*
+     *  Same as {@link ReportGenerator#calculateTotalOfIncomingTransactions(LocalDate)}.
+     */
+    public BigDecimal getIncomingTotal() {
+        return incomingTotal;
+    }
+
+    /*
+     *  Same as {@link ReportGenerator#calculateTotalOfOutgoingTransactions(LocalDate)}.
+     */
+    public BigDecimal getOutgoingTotal() {
+        return outgoingTotal;
+    }
+
+    /*
+     *  Incoming total less outgoing total.
+     */
+    public BigDecimal getNetPosition() {
+        return incomingTotal.subtract(outgoingTotal);
+    }
+
+    /*
+     *  Same as {@link ReportGenerator#sortIncomingTradingByAmount(LocalDate)}.
+     */
+    public List<TradingInstruction> getIncomingTradings() {
+        return incomingTradings;
+    }
+
+    /*
+     *  Same as {@link ReportGenerator#sortOutgoingTradingByAmount(LocalDate)}.
+     */
+    public List<TradingInstruction> getOutgoingTradings() {
+        return outgoingTradings;
+    }
+}
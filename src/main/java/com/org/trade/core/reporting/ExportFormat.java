@@ -0,0 +1,15 @@
+package com.org.trade.core.reporting;
+
+/*
+ *  Text formats written by {@link ReportExporter}, both UTF-8 with one record per line.
+ */
+public enum ExportFormat {
+    /*
+     *  Comma separated values with a header line, fields quoted only when they contain a comma, quote or line break.
+     */
+    CSV,
+    /*
+     *  One JSON object per line, amounts written as JSON numbers with their full scale.
+     */
+    JSON_LINES;
+}
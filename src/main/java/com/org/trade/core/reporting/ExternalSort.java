@@ -0,0 +1,316 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Settings of the out of core ranking used by {@link ReportGenerator#streamIncomingTradingByAmount}.
+ *
+ *  Matching instructions are collected with their trade amount into runs of at most runSize records. A full run is
+ *  sorted and spilled to a temporary file, and the runs are k-way merged lazily while the result stream is read,
+ *  so memory stays bounded by one run plus one buffered record per spilled run. The order is the one of the sort
+ *  reports: amount first, then the order in which the instructions were scanned.
+ *
+ *  Run files only live as long as the stream, they hold process local currency ids and are deleted when the
+ *  stream is exhausted or closed, or when the scan fails. Instructions read back from run files are equal copies
+ *  restored from the spilled fields; only a ranking that fits one run streams the scanned instances themselves.
+ */
+public final class ExternalSort {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Comparator<Amounted> ORDER = (amounted1, amounted2) -> {
+        int comparison = amounted1.amount.compareTo(amounted2.amount);
+        return comparison != 0 ? comparison : Long.compare(amounted1.sequence, amounted2.sequence);
+    };
+
+    private final Path tempDirectory;
+    private final int runSize;
+
+    private ExternalSort(final Builder builder) {
+        tempDirectory = builder.tempDirectory;
+        runSize = builder.runSize;
+    }
+
+    Sorter newSorter() {
+        return new Sorter();
+    }
+
+    /*
+     *  Collects the instructions of one ranking and hands out the merged stream once.
+     */
+    final class Sorter {
+
+        private final List<Amounted> run = new ArrayList<>();
+        private final List<Path> runFiles = new ArrayList<>();
+        private long sequence;
+
+        void add(final BigDecimal amount, final TradingInstruction tradingInstruction) {
+            run.add(new Amounted(amount, sequence++, tradingInstruction));
+            if (run.size() == runSize) {
+                spill();
+            }
+        }
+
+        /*
+         *  Deletes the runs spilled so far, for a scan that failed before the stream was handed out.
+         */
+        void discard() {
+            run.clear();
+            deleteQuietly(runFiles);
+            runFiles.clear();
+        }
+
+        Stream<TradingInstruction> sortedStream() {
+            if (runFiles.isEmpty()) {
+                run.sort(ORDER);
+                return run.stream().map(amounted -> amounted.tradingInstruction);
+            }
+            if (!run.isEmpty()) {
+                spill();
+            }
+            MergeIterator merge = new MergeIterator(runFiles);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(merge::close);
+        }
+
+        private void spill() {
+            run.sort(ORDER);
+            Path runFile = null;
+            try {
+                runFile = Files.createTempFile(tempDirectory, "ranking-", ".run");
+                runFiles.add(runFile);
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runFile), BUFFER_SIZE))) {
+                    for (Amounted amounted : run) {
+                        write(output, amounted);
+                    }
+                }
+            } catch (IOException e) {
+                deleteQuietly(runFiles);
+                throw new UncheckedIOException("Could not spill ranking run " + runFile, e);
+            }
+            run.clear();
+        }
+    }
+
+    private static final class MergeIterator implements Iterator<TradingInstruction> {
+
+        private final List<Path> runFiles;
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<RunReader> heads = new PriorityQueue<>((reader1, reader2) -> ORDER.compare(reader1.head, reader2.head));
+        private boolean closed;
+
+        private MergeIterator(final List<Path> runFiles) {
+            this.runFiles = runFiles;
+            try {
+                for (Path runFile : runFiles) {
+                    RunReader reader = new RunReader(runFile);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Could not open ranking runs", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heads.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public TradingInstruction next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            RunReader reader = heads.poll();
+            TradingInstruction tradingInstruction = reader.head.tradingInstruction;
+            try {
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Could not read ranking run", e);
+            }
+            return tradingInstruction;
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            heads.clear();
+            for (RunReader reader : readers) {
+                try {
+                    reader.input.close();
+                } catch (IOException ignored) {
+                    // the run file is deleted below anyway
+                }
+            }
+            deleteQuietly(runFiles);
+        }
+    }
+
+    private static final class RunReader {
+
+        private final DataInputStream input;
+        private Amounted head;
+
+        private RunReader(final Path runFile) throws IOException {
+            input = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile), BUFFER_SIZE));
+        }
+
+        private boolean advance() throws IOException {
+            head = read(input);
+            return head != null;
+        }
+    }
+
+    private static void write(final DataOutputStream output, final Amounted amounted) throws IOException {
+        TradingInstruction tradingInstruction = amounted.tradingInstruction;
+        output.writeLong(amounted.sequence);
+        writeDecimal(output, amounted.amount);
+        output.writeByte(tradingInstruction.getEntityType().ordinal());
+        output.writeByte(tradingInstruction.getDirection().ordinal());
+        output.writeInt(tradingInstruction.getCurrency().getId());
+        output.writeLong(tradingInstruction.getInstructionDate().toEpochDay());
+        output.writeLong(tradingInstruction.getSettlementDate().toEpochDay());
+        output.writeInt(tradingInstruction.getNumberOfUnits());
+        writeDecimal(output, tradingInstruction.getRate());
+        writeDecimal(output, tradingInstruction.getPricePerUnit());
+    }
+
+    /*
+     *  Next record of a run, null at the end of it.
+     */
+    private static Amounted read(final DataInputStream input) throws IOException {
+        long sequence;
+        try {
+            sequence = input.readLong();
+        } catch (EOFException end) {
+            return null;
+        }
+        BigDecimal amount = readDecimal(input);
+        EntityType entityType = ENTITY_TYPES[input.readByte()];
+        Direction direction = DIRECTIONS[input.readByte()];
+        int currencyId = input.readInt();
+        LocalDate instructionDate = LocalDate.ofEpochDay(input.readLong());
+        LocalDate settlementDate = LocalDate.ofEpochDay(input.readLong());
+        int numberOfUnits = input.readInt();
+        BigDecimal rate = readDecimal(input);
+        BigDecimal pricePerUnit = readDecimal(input);
+        return new Amounted(amount, sequence, TradingInstruction.restore(entityType, direction, rate, Currencies.byId(currencyId),
+                instructionDate, settlementDate, numberOfUnits, pricePerUnit));
+    }
+
+    private static void writeDecimal(final DataOutputStream output, final BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        output.writeInt(value.scale());
+        output.writeShort(unscaled.length);
+        output.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(final DataInputStream input) throws IOException {
+        int scale = input.readInt();
+        byte[] unscaled = new byte[input.readUnsignedShort()];
+        input.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void deleteQuietly(final List<Path> runFiles) {
+        for (Path runFile : runFiles) {
+            try {
+                Files.deleteIfExists(runFile);
+            } catch (IOException ignored) {
+                // best effort, the file is in a temporary directory
+            }
+        }
+    }
+
+    private static final class Amounted {
+
+        private final BigDecimal amount;
+        private final long sequence;
+        private final TradingInstruction tradingInstruction;
+
+        private Amounted(final BigDecimal amount, final long sequence, final TradingInstruction tradingInstruction) {
+            this.amount = amount;
+            this.sequence = sequence;
+            this.tradingInstruction = tradingInstruction;
+        }
+    }
+
+    public static class Builder {
+
+        private Path tempDirectory = Paths.get(System.getProperty("java.io.tmpdir"));
+        private int runSize = 262_144;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  Directory the sorted runs are spilled to, java.io.tmpdir by default.
+         */
+        public Builder withTempDirectory(final Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        /*
+         *  Number of instructions kept in memory before a run is spilled, 262144 by default.
+         */
+        public Builder withRunSize(final int runSize) {
+            this.runSize = runSize;
+            return this;
+        }
+
+        public ExternalSort build() {
+            checkNotNull(tempDirectory, "Temp directory should not be null when building %s", ExternalSort.class);
+            checkArgument(runSize > 0, "Run size should be greater than zero");
+            return new ExternalSort(this);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.FixedPointSum;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstructionView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Revalues a set of instructions against tables of currency to USD rates without rebuilding them.
+ *
+ *  The instructions are scanned once and grouped by settlement date, direction and currency, keeping per group the
+ *  exact sum of price per unit * number of units and the sum of the trade amounts at the agreed rates. As every
+ *  instruction of a group is revalued at the same rate, its revalued amount is that rate times the group's sum, so
+ *  a scenario only touches the groups and never the instructions. Totals are identical, scale included, to the ones
+ *  of a report over the instructions rebuilt with the scenario rates. Currencies missing from a scenario keep their
+ *  agreed rates.
+ *
+ *  Settlement dates are the already resolved ones of the instructions. Instances are immutable once built, so
+ *  scenarios can be revalued concurrently.
+ */
+public final class FxRevaluation {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /*
+     *  Group keys pack the settlement epoch day above bit 24, the direction in bits 20 to 23 and the currency id
+     *  below bit 20.
+     */
+    private static final int CURRENCY_ID_BITS = 20;
+
+    private final LocalDate[] settlementDates;
+    private final Direction[] directions;
+    private final TradeCurrency[] currencies;
+    private final BigDecimal[] notionals;
+    private final BigDecimal[] agreedAmounts;
+
+    private FxRevaluation(final List<Group> groups) {
+        int size = groups.size();
+        settlementDates = new LocalDate[size];
+        directions = new Direction[size];
+        currencies = new TradeCurrency[size];
+        notionals = new BigDecimal[size];
+        agreedAmounts = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            Group group = groups.get(i);
+            settlementDates[i] = group.settlementDate;
+            directions[i] = group.direction;
+            currencies[i] = group.currency;
+            notionals[i] = group.notional.toBigDecimal();
+            agreedAmounts[i] = group.agreedAmount.toBigDecimal();
+        }
+    }
+
+    /*
+     *  Groups the given instructions in one pass.
+     */
+    public static FxRevaluation of(final Iterable<? extends TradingInstructionView> tradingInstructions) {
+        checkNotNull(tradingInstructions, "Trading instructions should not be null when building %s", FxRevaluation.class);
+        Grouping grouping = new Grouping();
+        tradingInstructions.forEach(grouping);
+        return new FxRevaluation(grouping.groups);
+    }
+
+    /*
+     *  Groups the instructions the report generator reports on in one pass.
+     */
+    public static FxRevaluation of(final ReportGenerator reportGenerator) {
+        checkNotNull(reportGenerator, "Report generator should not be null when building %s", FxRevaluation.class);
+        Grouping grouping = new Grouping();
+        reportGenerator.forEachTradingInstruction(grouping);
+        return new FxRevaluation(grouping.groups);
+    }
+
+    /*
+     *  Totals per settlement date and direction with the instructions of each currency in the table valued at its
+     *  rate.
+     */
+    public RevaluedTotals revalue(final Map<TradeCurrency, BigDecimal> rates) {
+        checkNotNull(rates, "Rates should not be null");
+        for (Map.Entry<TradeCurrency, BigDecimal> rate : rates.entrySet()) {
+            checkNotNull(rate.getKey(), "Currency of a rate should not be null");
+            checkArgument(rate.getValue() != null && rate.getValue().signum() > 0, "Rate for %s should be greater than zero", rate.getKey());
+        }
+        Map<LocalDate, BigDecimal[]> totals = new TreeMap<>();
+        for (int i = 0; i < notionals.length; i++) {
+            BigDecimal rate = rates.get(currencies[i]);
+            BigDecimal amount = rate == null ? agreedAmounts[i] : notionals[i].multiply(rate);
+            BigDecimal[] dateTotals = totals.computeIfAbsent(settlementDates[i], settlementDate -> new BigDecimal[DIRECTIONS.length]);
+            int direction = directions[i].ordinal();
+            dateTotals[direction] = dateTotals[direction] == null ? amount : dateTotals[direction].add(amount);
+        }
+        return new RevaluedTotals(totals);
+    }
+
+    /*
+     *  Revalues every scenario on the common fork join pool, see {@link #revalue}. The totals are returned in the
+     *  order of the scenarios.
+     */
+    public List<RevaluedTotals> revalueAll(final List<Map<TradeCurrency, BigDecimal>> scenarios) {
+        return revalueAll(scenarios, ForkJoinPool.commonPool());
+    }
+
+    /*
+     *  Revalues every scenario as its own task on the given pool.
+     */
+    public List<RevaluedTotals> revalueAll(final List<Map<TradeCurrency, BigDecimal>> scenarios, final ForkJoinPool pool) {
+        checkNotNull(scenarios, "Scenarios should not be null");
+        checkNotNull(pool, "Fork join pool should not be null");
+        List<ForkJoinTask<RevaluedTotals>> tasks = new ArrayList<>(scenarios.size());
+        for (Map<TradeCurrency, BigDecimal> scenario : scenarios) {
+            tasks.add(pool.submit(() -> revalue(scenario)));
+        }
+        List<RevaluedTotals> revaluedTotals = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<RevaluedTotals> task : tasks) {
+            revaluedTotals.add(task.join());
+        }
+        return revaluedTotals;
+    }
+
+    /*
+     *  Number of settlement date, direction and currency groups a scenario is applied to.
+     */
+    public int getGroupCount() {
+        return notionals.length;
+    }
+
+    private static final class Grouping implements Consumer<TradingInstructionView> {
+
+        private final Map<Long, Group> groupsByKey = new HashMap<>();
+        private final List<Group> groups = new ArrayList<>();
+
+        @Override
+        public void accept(final TradingInstructionView tradingInstruction) {
+            int currencyId = tradingInstruction.getCurrency().getId();
+            checkArgument(currencyId < 1 << CURRENCY_ID_BITS, "Currency id %s does not fit the group key", currencyId);
+            long key = tradingInstruction.getSettlementEpochDay() << (CURRENCY_ID_BITS + 4)
+                    | (long) tradingInstruction.getDirection().ordinal() << CURRENCY_ID_BITS
+                    | currencyId;
+            Group group = groupsByKey.get(key);
+            if (group == null) {
+                group = new Group(tradingInstruction);
+                groupsByKey.put(key, group);
+                groups.add(group);
+            }
+            if (tradingInstruction.hasLongUnscaledValues()) {
+                group.notional.addTradeAmount(tradingInstruction.getUnscaledPricePerUnit(), tradingInstruction.getPriceScale(), 1, 0,
+                        tradingInstruction.getNumberOfUnits());
+            } else {
+                group.notional.add(tradingInstruction.getPricePerUnit().multiply(new BigDecimal(tradingInstruction.getNumberOfUnits())));
+            }
+            tradingInstruction.addTradeAmountTo(group.agreedAmount);
+        }
+    }
+
+    private static final class Group {
+
+        private final LocalDate settlementDate;
+        private final Direction direction;
+        private final TradeCurrency currency;
+        private final FixedPointSum notional = new FixedPointSum();
+        private final FixedPointSum agreedAmount = new FixedPointSum();
+
+        private Group(final TradingInstructionView tradingInstruction) {
+            settlementDate = tradingInstruction.getSettlementDate();
+            direction = tradingInstruction.getDirection();
+            currency = tradingInstruction.getCurrency();
+        }
+    }
+}
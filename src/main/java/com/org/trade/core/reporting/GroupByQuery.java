@@ -0,0 +1,105 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/*
+ *  Breakdown of trade amount totals asked from {@link ReportGenerator#groupTotals(GroupByQuery)}: the dimensions to
+ *  group by and optional filters on direction and settlement date range.
+ */
+public final class GroupByQuery {
+
+    private final Set<GroupingDimension> dimensions;
+    private final Direction direction;
+    private final LocalDate fromSettlementDate;
+    private final LocalDate toSettlementDate;
+
+    private GroupByQuery(final Builder builder) {
+        checkState(!builder.dimensions.contains(GroupingDimension.SETTLEMENT_DATE) || builder.fromSettlementDate != null,
+                "Settlement date range should be set to group by settlement date");
+        checkState(builder.fromSettlementDate == null || !builder.fromSettlementDate.isAfter(builder.toSettlementDate),
+                "Settlement date range should not end before it starts");
+        dimensions = EnumSet.copyOf(builder.dimensions);
+        direction = builder.direction;
+        fromSettlementDate = builder.fromSettlementDate;
+        toSettlementDate = builder.toSettlementDate;
+    }
+
+    public boolean groupsBy(final GroupingDimension dimension) {
+        return dimensions.contains(dimension);
+    }
+
+    /*
+     *  Direction the instructions are filtered on, null for both.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /*
+     *  First settlement date of the range the instructions are filtered on, null for all dates.
+     */
+    public LocalDate getFromSettlementDate() {
+        return fromSettlementDate;
+    }
+
+    /*
+     *  Last settlement date, inclusive, of the range the instructions are filtered on, null for all dates.
+     */
+    public LocalDate getToSettlementDate() {
+        return toSettlementDate;
+    }
+
+    public static class Builder {
+
+        private final Set<GroupingDimension> dimensions = EnumSet.noneOf(GroupingDimension.class);
+        private Direction direction;
+        private LocalDate fromSettlementDate;
+        private LocalDate toSettlementDate;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public Builder withDimensions(final GroupingDimension... dimensions) {
+            for (GroupingDimension dimension : dimensions) {
+                this.dimensions.add(checkNotNull(dimension, "Grouping dimension should not be null"));
+            }
+            return this;
+        }
+
+        public Builder withDirection(final Direction direction) {
+            this.direction = direction;
+            return this;
+        }
+
+        public Builder withSettlementDate(final LocalDate settlementDate) {
+            return withSettlementDates(settlementDate, settlementDate);
+        }
+
+        /*
+         *  Inclusive range of settlement dates.
+         */
+        public Builder withSettlementDates(final LocalDate fromSettlementDate, final LocalDate toSettlementDate) {
+            checkArgument((fromSettlementDate == null) == (toSettlementDate == null),
+                    "Settlement date range should have both ends or none");
+            this.fromSettlementDate = fromSettlementDate;
+            this.toSettlementDate = toSettlementDate;
+            return this;
+        }
+
+        public GroupByQuery build() {
+            return new GroupByQuery(this);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.org.trade.core.reporting;
+
+import com.google.common.base.Objects;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradeCurrency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/*
+ *  Total trade amount and number of instructions of one group of a {@link GroupedTotals}. Attributes the query
+ *  does not group by are null.
+ */
+public final class GroupTotal {
+
+    private final Direction direction;
+    private final EntityType entityType;
+    private final TradeCurrency currency;
+    private final LocalDate settlementDate;
+    private final BigDecimal total;
+    private final int count;
+
+    GroupTotal(final Direction direction, final EntityType entityType, final TradeCurrency currency,
+               final LocalDate settlementDate, final BigDecimal total, final int count) {
+        this.direction = direction;
+        this.entityType = entityType;
+        this.currency = currency;
+        this.settlementDate = settlementDate;
+        this.total = total;
+        this.count = count;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public TradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GroupTotal that = (GroupTotal) o;
+        return count == that.count &&
+                direction == that.direction &&
+                entityType == that.entityType &&
+                currency == that.currency &&
+                Objects.equal(settlementDate, that.settlementDate) &&
+                Objects.equal(total, that.total);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(direction, entityType, currency, settlementDate, total, count);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupTotal{direction=" + direction + ", entityType=" + entityType + ", currency=" + currency
+                + ", settlementDate=" + settlementDate + ", total=" + total + ", count=" + count + '}';
+    }
+}
@@ -0,0 +1,203 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/*
+ *  Trade amount totals of a {@link GroupByQuery}, one per group.
+ *
+ *  Groups live in dense arrays indexed by direction and entity type ordinal, currency id and day within the
+ *  settlement date range, with the currency as the outermost dimension so currencies registered during the scan
+ *  only extend the arrays. A breakdown is one scan with a single BigDecimal add per matching instruction.
+ */
+public final class GroupedTotals {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final int MAX_GROUPS = 1 << 24;
+
+    private final GroupByQuery query;
+    private final Layout layout;
+    private final BigDecimal[] totals;
+    private final int[] counts;
+
+    private GroupedTotals(final GroupByQuery query, final Layout layout, final BigDecimal[] totals, final int[] counts) {
+        this.query = query;
+        this.layout = layout;
+        this.totals = totals;
+        this.counts = counts;
+    }
+
+    /*
+     *  Total of the given group, zero when no instruction falls in it. Attributes the query does not group by must
+     *  be null, the others must be set.
+     */
+    public BigDecimal total(final Direction direction, final EntityType entityType, final TradeCurrency currency,
+                            final LocalDate settlementDate) {
+        int group = group(direction, entityType, currency, settlementDate);
+        return group < 0 || group >= totals.length || totals[group] == null ? BigDecimal.ZERO : totals[group];
+    }
+
+    /*
+     *  Number of instructions of the given group, see {@link #total}.
+     */
+    public int count(final Direction direction, final EntityType entityType, final TradeCurrency currency,
+                     final LocalDate settlementDate) {
+        int group = group(direction, entityType, currency, settlementDate);
+        return group < 0 || group >= counts.length ? 0 : counts[group];
+    }
+
+    /*
+     *  Every group holding at least one instruction, ordered by currency id, entity type, direction and
+     *  settlement date.
+     */
+    public List<GroupTotal> getGroups() {
+        List<GroupTotal> groups = new ArrayList<>();
+        for (int group = 0; group < totals.length; group++) {
+            if (totals[group] == null) {
+                continue;
+            }
+            int day = group % layout.days;
+            int rest = group / layout.days;
+            int direction = rest % layout.directions;
+            rest /= layout.directions;
+            int entityType = rest % layout.entityTypes;
+            int currency = rest / layout.entityTypes;
+            groups.add(new GroupTotal(
+                    query.groupsBy(GroupingDimension.DIRECTION) ? DIRECTIONS[direction] : null,
+                    query.groupsBy(GroupingDimension.ENTITY_TYPE) ? ENTITY_TYPES[entityType] : null,
+                    query.groupsBy(GroupingDimension.CURRENCY) ? Currencies.byId(currency) : null,
+                    query.groupsBy(GroupingDimension.SETTLEMENT_DATE) ? LocalDate.ofEpochDay(layout.fromEpochDay + day) : null,
+                    totals[group], counts[group]));
+        }
+        return groups;
+    }
+
+    private int group(final Direction direction, final EntityType entityType, final TradeCurrency currency,
+                      final LocalDate settlementDate) {
+        checkGrouped(GroupingDimension.DIRECTION, direction);
+        checkGrouped(GroupingDimension.ENTITY_TYPE, entityType);
+        checkGrouped(GroupingDimension.CURRENCY, currency);
+        checkGrouped(GroupingDimension.SETTLEMENT_DATE, settlementDate);
+        long day = settlementDate == null ? 0 : settlementDate.toEpochDay() - layout.fromEpochDay;
+        if (day < 0 || day >= layout.days) {
+            return -1;
+        }
+        return layout.group(direction == null ? 0 : direction.ordinal(), entityType == null ? 0 : entityType.ordinal(),
+                currency == null ? 0 : currency.getId(), (int) day);
+    }
+
+    private void checkGrouped(final GroupingDimension dimension, final Object value) {
+        checkArgument(query.groupsBy(dimension) == (value != null),
+                query.groupsBy(dimension) ? "%s should be set as the query groups by it" : "%s should be null as the query does not group by it",
+                dimension);
+    }
+
+    /*
+     *  Accumulates the instructions passed to it into the groups of the query.
+     */
+    static final class Accumulator implements Consumer<TradingInstruction> {
+
+        private final GroupByQuery query;
+        private final Layout layout;
+        private final long toEpochDay;
+        private BigDecimal[] totals;
+        private int[] counts;
+
+        Accumulator(final GroupByQuery query) {
+            this.query = query;
+            this.layout = new Layout(query);
+            this.toEpochDay = query.getToSettlementDate() == null ? Long.MAX_VALUE : query.getToSettlementDate().toEpochDay();
+            int currencies = query.groupsBy(GroupingDimension.CURRENCY) ? Math.max(1, Currencies.size()) : 1;
+            int groups = layout.groupsPerCurrency * currencies;
+            checkArgument(layout.groupsPerCurrency <= MAX_GROUPS && groups <= MAX_GROUPS, "Group by query covers too many groups");
+            totals = new BigDecimal[groups];
+            counts = new int[groups];
+        }
+
+        @Override
+        public void accept(final TradingInstruction tradingInstruction) {
+            int group = group(tradingInstruction.getDirection().ordinal(), tradingInstruction.getEntityType().ordinal(),
+                    tradingInstruction.getCurrency().getId(), tradingInstruction.getSettlementDate().toEpochDay());
+            if (group >= 0) {
+                add(group, tradingInstruction.determineTradeAmount());
+            }
+        }
+
+        /*
+         *  Group of an instruction with the given attributes, negative when the query filters it out.
+         */
+        int group(final int direction, final int entityType, final int currency, final long settlementEpochDay) {
+            if (query.getDirection() != null && direction != query.getDirection().ordinal()) {
+                return -1;
+            }
+            long day = 0;
+            if (query.getFromSettlementDate() != null) {
+                if (settlementEpochDay < layout.fromEpochDay || settlementEpochDay > toEpochDay) {
+                    return -1;
+                }
+                day = settlementEpochDay - layout.fromEpochDay;
+            }
+            return layout.group(
+                    query.groupsBy(GroupingDimension.DIRECTION) ? direction : 0,
+                    query.groupsBy(GroupingDimension.ENTITY_TYPE) ? entityType : 0,
+                    query.groupsBy(GroupingDimension.CURRENCY) ? currency : 0,
+                    query.groupsBy(GroupingDimension.SETTLEMENT_DATE) ? (int) day : 0);
+        }
+
+        void add(final int group, final BigDecimal amount) {
+            if (group >= totals.length) {
+                grow(group);
+            }
+            totals[group] = totals[group] == null ? amount : totals[group].add(amount);
+            counts[group]++;
+        }
+
+        GroupedTotals result() {
+            return new GroupedTotals(query, layout, totals, counts);
+        }
+
+        private void grow(final int group) {
+            int groups = (group / layout.groupsPerCurrency + 1) * layout.groupsPerCurrency;
+            checkArgument(groups <= MAX_GROUPS, "Group by query covers too many groups");
+            totals = Arrays.copyOf(totals, groups);
+            counts = Arrays.copyOf(counts, groups);
+        }
+    }
+
+    private static final class Layout {
+
+        private final long fromEpochDay;
+        private final int days;
+        private final int directions;
+        private final int entityTypes;
+        private final int groupsPerCurrency;
+
+        private Layout(final GroupByQuery query) {
+            fromEpochDay = query.getFromSettlementDate() == null ? 0 : query.getFromSettlementDate().toEpochDay();
+            long dayCount = query.groupsBy(GroupingDimension.SETTLEMENT_DATE)
+                    ? query.getToSettlementDate().toEpochDay() - fromEpochDay + 1 : 1;
+            checkArgument(dayCount <= MAX_GROUPS, "Group by query covers too many groups");
+            days = (int) dayCount;
+            directions = query.groupsBy(GroupingDimension.DIRECTION) ? DIRECTIONS.length : 1;
+            entityTypes = query.groupsBy(GroupingDimension.ENTITY_TYPE) ? ENTITY_TYPES.length : 1;
+            groupsPerCurrency = days * directions * entityTypes;
+        }
+
+        private int group(final int direction, final int entityType, final int currency, final int day) {
+            return ((currency * entityTypes + entityType) * directions + direction) * days + day;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.org.trade.core.reporting;
+
+/*
+ *  Instruction attribute a {@link GroupByQuery} can break totals down by.
+ */
+public enum GroupingDimension {
+    DIRECTION, ENTITY_TYPE, CURRENCY, SETTLEMENT_DATE;
+}
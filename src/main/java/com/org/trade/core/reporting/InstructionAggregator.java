@@ -0,0 +1,59 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ *  Strategy used by {@link ReportGenerator} to answer settlement date and direction queries
+ *  over a set of trading instructions.
+ */
+interface InstructionAggregator {
+
+    /*
+     *  Total trade amount of the instructions settled on the given date in the given direction,
+     *  zero when there is none.
+     */
+    BigDecimal total(LocalDate settledDate, Direction direction);
+
+    /*
+     *  Instructions settled on the given date in the given direction, in ascending order of trade amount.
+     */
+    List<TradingInstruction> sort(LocalDate settledDate, Direction direction);
+
+    /*
+     *  The slice [offset, offset + limit) of the instructions settled on the given date in the given direction,
+     *  ranked by trade amount. Ascending ranking follows the order of {@link #sort}, descending is its reverse.
+     */
+    List<TradingInstruction> rank(LocalDate settledDate, Direction direction, boolean descending, int offset, int limit);
+
+    /*
+     *  Totals and ascending orderings of both directions for the given settlement date, computing the trade amount
+     *  of every matching instruction only once.
+     */
+    DailySettlementReport dailyReport(LocalDate settledDate);
+
+    /*
+     *  Totals of the groups of the query, by default accumulated over {@link #forEach}.
+     */
+    default GroupedTotals groupTotals(final GroupByQuery query) {
+        GroupedTotals.Accumulator accumulator = new GroupedTotals.Accumulator(query);
+        forEach(accumulator);
+        return accumulator.result();
+    }
+
+    /*
+     *  Number of instructions a query for the given settlement date and direction visits, reported to the
+     *  metrics recorder.
+     */
+    int scanSize(LocalDate settledDate, Direction direction);
+
+    /*
+     *  Passes every instruction to the consumer.
+     */
+    void forEach(Consumer<? super TradingInstruction> consumer);
+}
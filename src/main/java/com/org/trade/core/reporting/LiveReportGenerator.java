@@ -0,0 +1,150 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Report generator for live intake. Instructions can be appended from any number of threads while reports are
+ *  being generated.
+ *
+ *  Totals are kept up to date per settlement date and direction in striped accumulators, so a total query does
+ *  not scan anything and never blocks writers. Reports only reflect the appends completed before the query
+ *  started; once appends stop they match a {@link ReportGenerator} built over the same instructions in append order.
+ *  The total and the instructions of a settlement date are updated one after the other, not atomically: while
+ *  appends are running a total may include instructions a sorted list does not show yet, and the other way round.
+ *
+ *  Instructions are retained per settlement date until {@link #evictSettledBefore(LocalDate)} drops the dates that
+ *  are no longer reported on, which bounds memory to the instructions of the retained dates.
+ */
+public class LiveReportGenerator implements Consumer<TradingInstruction> {
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final ConcurrentHashMap<Long, Bucket[]> bucketsByEpochDay = new ConcurrentHashMap<>();
+
+    private LiveReportGenerator() {
+    }
+
+    public static LiveReportGenerator create() {
+        return new LiveReportGenerator();
+    }
+
+    /*
+     *  Adds the instruction to the running totals of its settlement date and direction.
+     *
+     *  An eviction of the date may drop its buckets while the instruction is being added to them, so the append is
+     *  repeated on the buckets that replaced them until the ones it was added to are still retained.
+     */
+    public void append(final TradingInstruction tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        long epochDay = tradingInstruction.getSettlementDate().toEpochDay();
+        int direction = tradingInstruction.getDirection().ordinal();
+        BigDecimal tradeAmount = tradingInstruction.determineTradeAmount();
+        Bucket[] buckets = buckets(epochDay);
+        while (true) {
+            Bucket bucket = buckets[direction];
+            bucket.total.add(tradeAmount);
+            bucket.tradingInstructions.add(tradingInstruction);
+            Bucket[] retained = bucketsByEpochDay.get(epochDay);
+            if (retained == buckets) {
+                return;
+            }
+            buckets = retained != null ? retained : buckets(epochDay);
+        }
+    }
+
+    @Override
+    public void accept(final TradingInstruction tradingInstruction) {
+        append(tradingInstruction);
+    }
+
+    /*
+     *  Drops the totals and instructions of every settlement date before the given one. Instructions appended later
+     *  for an evicted date start that date again from zero.
+     */
+    public void evictSettledBefore(final LocalDate settledDate) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        long epochDay = settledDate.toEpochDay();
+        bucketsByEpochDay.keySet().removeIf(day -> day < epochDay);
+    }
+
+    /*
+    *  Calculates the total amount traded for incoming transactions based on settled date
+    *
+    *  If no incoming transactions then zero will be returned
+    */
+    public BigDecimal calculateTotalOfIncomingTransactions(final LocalDate settledDate) {
+        return calculateTotal(settledDate, Direction.SELL);
+    }
+
+    /*
+    *  Calculates the total amount traded for outgoing transactions based on settled date
+    *
+    *  If no outgoing transactions then zero will be returned
+    */
+    public BigDecimal calculateTotalOfOutgoingTransactions(final LocalDate settledDate) {
+        return calculateTotal(settledDate, Direction.BUY);
+    }
+
+    /*
+     *  Returns the list of Incoming tradings on ascending order of trading amount.
+     */
+    public List<TradingInstruction> sortIncomingTradingByAmount(final LocalDate settledDate) {
+        return sort(settledDate, Direction.SELL);
+    }
+
+    /*
+     *  Returns the list of outgoing tradings on ascending order of trading amount.
+     */
+    public List<TradingInstruction> sortOutgoingTradingByAmount(final LocalDate settledDate) {
+        return sort(settledDate, Direction.BUY);
+    }
+
+    private BigDecimal calculateTotal(final LocalDate settledDate, final Direction direction) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        Bucket[] buckets = bucketsByEpochDay.get(settledDate.toEpochDay());
+        return buckets == null ? BigDecimal.ZERO : buckets[direction.ordinal()].total.sum();
+    }
+
+    private List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        Bucket[] buckets = bucketsByEpochDay.get(settledDate.toEpochDay());
+        if (buckets == null) {
+            return new ArrayList<>();
+        }
+        AmountedList<TradingInstruction> amounted = new AmountedList<>();
+        for (TradingInstruction tradingInstruction : buckets[direction.ordinal()].tradingInstructions) {
+            amounted.add(tradingInstruction.determineTradeAmount(), tradingInstruction);
+        }
+        return amounted.sortedItems();
+    }
+
+    private Bucket[] buckets(final long epochDay) {
+        Bucket[] buckets = bucketsByEpochDay.get(epochDay);
+        return buckets != null ? buckets : bucketsByEpochDay.computeIfAbsent(epochDay, day -> newBuckets());
+    }
+
+    private static Bucket[] newBuckets() {
+        Bucket[] buckets = new Bucket[DIRECTIONS];
+        for (int i = 0; i < DIRECTIONS; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    private static final class Bucket {
+
+        private final StripedBigDecimalSum total = new StripedBigDecimalSum();
+        private final ConcurrentLinkedQueue<TradingInstruction> tradingInstructions = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,249 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.FixedPointSum;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/*
+ *  Splits the instruction list into ranges that are scanned in parallel on a fork join pool. Ranges no larger
+ *  than the threshold are processed sequentially.
+ *
+ *  Partial totals are exact fixed point sums, so combining them gives the same value and scale as the sequential
+ *  reduce. Partial runs are ordered by amount and then by position in the list, which is the order a stable
+ *  sequential sort gives, so merged runs come out in the same order too.
+ */
+class ParallelAggregator implements InstructionAggregator {
+
+    private static final Comparator<Amounted> ASCENDING = (amounted1, amounted2) -> {
+        int comparison = amounted1.amount.compareTo(amounted2.amount);
+        return comparison != 0 ? comparison : Integer.compare(amounted1.index, amounted2.index);
+    };
+    private static final Comparator<Amounted> DESCENDING = ASCENDING.reversed();
+
+    private final List<TradingInstruction> tradingInstructions;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    ParallelAggregator(final List<TradingInstruction> tradingInstructions, final ForkJoinPool pool, final int threshold) {
+        this.tradingInstructions = tradingInstructions;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public int scanSize(final LocalDate settledDate, final Direction direction) {
+        return tradingInstructions.size();
+    }
+
+    @Override
+    public BigDecimal total(final LocalDate settledDate, final Direction direction) {
+        List<TradingInstruction> snapshot = randomAccess();
+        return pool.invoke(new TotalTask(snapshot, settledDate, direction, 0, snapshot.size())).toBigDecimal();
+    }
+
+    @Override
+    public void forEach(final Consumer<? super TradingInstruction> consumer) {
+        tradingInstructions.forEach(consumer);
+    }
+
+    @Override
+    public List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
+        return rank(settledDate, direction, false, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TradingInstruction> rank(final LocalDate settledDate, final Direction direction,
+                                         final boolean descending, final int offset, final int limit) {
+        List<TradingInstruction> snapshot = randomAccess();
+        int capacity = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+        List<Amounted> run = pool.invoke(new RunTask(snapshot, settledDate, direction, descending ? DESCENDING : ASCENDING,
+                capacity, 0, snapshot.size()));
+        List<TradingInstruction> page = new ArrayList<>(Math.max(0, run.size() - offset));
+        for (int i = offset; i < run.size(); i++) {
+            page.add(run.get(i).tradingInstruction);
+        }
+        return page;
+    }
+
+    /*
+     *  Each direction is ranked once in full and its total summed from the ranked amounts, which is exact whatever
+     *  the order of the additions.
+     */
+    @Override
+    public DailySettlementReport dailyReport(final LocalDate settledDate) {
+        List<TradingInstruction> snapshot = randomAccess();
+        RunTask incomingTask = new RunTask(snapshot, settledDate, Direction.SELL, ASCENDING, Integer.MAX_VALUE, 0, snapshot.size());
+        RunTask outgoingTask = new RunTask(snapshot, settledDate, Direction.BUY, ASCENDING, Integer.MAX_VALUE, 0, snapshot.size());
+        pool.execute(outgoingTask);
+        List<Amounted> incoming = pool.invoke(incomingTask);
+        List<Amounted> outgoing = outgoingTask.join();
+        return new DailySettlementReport(settledDate, totalOf(incoming), totalOf(outgoing),
+                tradingInstructions(incoming), tradingInstructions(outgoing));
+    }
+
+    private static BigDecimal totalOf(final List<Amounted> run) {
+        BigDecimal total = null;
+        for (Amounted amounted : run) {
+            total = total == null ? amounted.amount : total.add(amounted.amount);
+        }
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    private static List<TradingInstruction> tradingInstructions(final List<Amounted> run) {
+        List<TradingInstruction> tradingInstructions = new ArrayList<>(run.size());
+        for (Amounted amounted : run) {
+            tradingInstructions.add(amounted.tradingInstruction);
+        }
+        return tradingInstructions;
+    }
+
+    private List<TradingInstruction> randomAccess() {
+        return tradingInstructions instanceof RandomAccess ? tradingInstructions : new ArrayList<>(tradingInstructions);
+    }
+
+    private static boolean matches(final TradingInstruction tradingInstruction, final LocalDate settledDate, final Direction direction) {
+        return tradingInstruction.getDirection() == direction && tradingInstruction.getSettlementDate().isEqual(settledDate);
+    }
+
+    /*
+     *  Exact sum of the matching amounts in [from, to).
+     */
+    private final class TotalTask extends RecursiveTask<FixedPointSum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<TradingInstruction> snapshot;
+        private final LocalDate settledDate;
+        private final Direction direction;
+        private final int from;
+        private final int to;
+
+        private TotalTask(final List<TradingInstruction> snapshot, final LocalDate settledDate, final Direction direction,
+                          final int from, final int to) {
+            this.snapshot = snapshot;
+            this.settledDate = settledDate;
+            this.direction = direction;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected FixedPointSum compute() {
+            if (to - from <= threshold) {
+                FixedPointSum total = new FixedPointSum();
+                for (int i = from; i < to; i++) {
+                    TradingInstruction tradingInstruction = snapshot.get(i);
+                    if (matches(tradingInstruction, settledDate, direction)) {
+                        tradingInstruction.addTradeAmountTo(total);
+                    }
+                }
+                return total;
+            }
+            int middle = (from + to) >>> 1;
+            TotalTask left = new TotalTask(snapshot, settledDate, direction, from, middle);
+            left.fork();
+            FixedPointSum right = new TotalTask(snapshot, settledDate, direction, middle, to).compute();
+            return left.join().add(right);
+        }
+    }
+
+    /*
+     *  The first capacity matching instructions of [from, to) in the given order, with their amount computed once.
+     */
+    private final class RunTask extends RecursiveTask<List<Amounted>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<TradingInstruction> snapshot;
+        private final LocalDate settledDate;
+        private final Direction direction;
+        private final Comparator<Amounted> order;
+        private final int capacity;
+        private final int from;
+        private final int to;
+
+        private RunTask(final List<TradingInstruction> snapshot, final LocalDate settledDate, final Direction direction,
+                        final Comparator<Amounted> order, final int capacity, final int from, final int to) {
+            this.snapshot = snapshot;
+            this.settledDate = settledDate;
+            this.direction = direction;
+            this.order = order;
+            this.capacity = capacity;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Amounted> compute() {
+            if (to - from <= threshold) {
+                return leafRun();
+            }
+            int middle = (from + to) >>> 1;
+            RunTask left = new RunTask(snapshot, settledDate, direction, order, capacity, from, middle);
+            left.fork();
+            List<Amounted> right = new RunTask(snapshot, settledDate, direction, order, capacity, middle, to).compute();
+            return merge(left.join(), right);
+        }
+
+        private List<Amounted> leafRun() {
+            if (capacity < to - from) {
+                AmountRanking<Amounted> ranking = new AmountRanking<>(order == DESCENDING, 0, capacity);
+                for (int i = from; i < to; i++) {
+                    TradingInstruction tradingInstruction = snapshot.get(i);
+                    if (matches(tradingInstruction, settledDate, direction)) {
+                        BigDecimal amount = tradingInstruction.determineTradeAmount();
+                        ranking.offer(amount, new Amounted(tradingInstruction, amount, i));
+                    }
+                }
+                return ranking.result();
+            }
+            List<Amounted> run = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                TradingInstruction tradingInstruction = snapshot.get(i);
+                if (matches(tradingInstruction, settledDate, direction)) {
+                    run.add(new Amounted(tradingInstruction, tradingInstruction.determineTradeAmount(), i));
+                }
+            }
+            run.sort(order);
+            return run;
+        }
+
+        private List<Amounted> merge(final List<Amounted> left, final List<Amounted> right) {
+            int size = (int) Math.min(capacity, (long) left.size() + right.size());
+            List<Amounted> merged = new ArrayList<>(size);
+            int l = 0;
+            int r = 0;
+            while (merged.size() < size) {
+                if (r == right.size() || (l < left.size() && order.compare(left.get(l), right.get(r)) <= 0)) {
+                    merged.add(left.get(l++));
+                } else {
+                    merged.add(right.get(r++));
+                }
+            }
+            return merged;
+        }
+    }
+
+    private static final class Amounted {
+
+        private final TradingInstruction tradingInstruction;
+        private final BigDecimal amount;
+        private final int index;
+
+        private Amounted(final TradingInstruction tradingInstruction, final BigDecimal amount, final int index) {
+            this.tradingInstruction = tradingInstruction;
+            this.amount = amount;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.org.trade.core.reporting;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Mergeable streaming sketch of the distribution of non negative values with a relative accuracy guarantee.
+ *
+ *  Values are counted in logarithmic bins: bin i holds the values in (gamma^(i-1), gamma^i] with
+ *  gamma = (1 + accuracy) / (1 - accuracy), so every quantile is answered within the relative accuracy of the exact
+ *  one without keeping or sorting the values. At most maxBins bins are kept; past that the lowest bins are folded
+ *  into one, which only affects the accuracy of the lowest quantiles. Sketches with the same accuracy merge exactly,
+ *  as if all values had been added to one sketch. Not thread safe.
+ */
+public final class QuantileSketch {
+
+    private static final double MIN_RELATIVE_ACCURACY = 1e-6;
+    private static final int INITIAL_BINS = 64;
+    private static final long[] NO_BINS = new long[0];
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int maxBins;
+
+    private long[] bins = NO_BINS;
+    private int offset;
+    private int lowest;
+    private int highest;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    private QuantileSketch(final double relativeAccuracy, final int maxBins) {
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.maxBins = maxBins;
+    }
+
+    /*
+     *  Empty sketch answering quantiles within the given relative accuracy, at least 1e-6 and below 1, using at
+     *  most maxBins bins.
+     */
+    public static QuantileSketch of(final double relativeAccuracy, final int maxBins) {
+        checkArgument(relativeAccuracy >= MIN_RELATIVE_ACCURACY && relativeAccuracy < 1, "Relative accuracy should be between 1e-6 and 1");
+        checkArgument(maxBins > 0, "Maximum number of bins should be greater than zero");
+        return new QuantileSketch(relativeAccuracy, maxBins);
+    }
+
+    public void add(final double value) {
+        checkArgument(value >= 0 && value < Double.POSITIVE_INFINITY, "Value %s should be finite and not negative", value);
+        if (value < Double.MIN_NORMAL) {
+            zeroCount++;
+        } else {
+            addToBin((int) Math.ceil(Math.log(value) / logGamma), 1);
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /*
+     *  Adds the values of the other sketch to this one. Both sketches must have the same relative accuracy.
+     */
+    public void merge(final QuantileSketch other) {
+        checkNotNull(other, "Sketch should not be null");
+        checkArgument(other.relativeAccuracy == relativeAccuracy, "Sketches with a different relative accuracy cannot be merged");
+        if (other.count == 0) {
+            return;
+        }
+        if (other.bins.length > 0) {
+            for (int index = other.lowest; index <= other.highest; index++) {
+                long binCount = other.bins[index - other.offset];
+                if (binCount > 0) {
+                    addToBin(index, binCount);
+                }
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /*
+     *  Independent sketch holding the same values.
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy, maxBins);
+        copy.merge(this);
+        return copy;
+    }
+
+    /*
+     *  Value at or below which the given fraction of the values fall, between 0 and 1, within the relative accuracy.
+     *  The smallest and largest values are exact. Zero when the sketch is empty.
+     */
+    public double quantile(final double fraction) {
+        checkArgument(fraction >= 0 && fraction <= 1, "Quantile should be between 0 and 1");
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        if (rank == 1 || rank <= zeroCount) {
+            return min;
+        }
+        if (rank == count) {
+            return max;
+        }
+        long seen = zeroCount;
+        for (int index = lowest; index <= highest; index++) {
+            seen += bins[index - offset];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, 2 * Math.pow(gamma, index) / (gamma + 1)));
+            }
+        }
+        return max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /*
+     *  Smallest value added, zero when the sketch is empty.
+     */
+    public double getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /*
+     *  Largest value added, zero when the sketch is empty.
+     */
+    public double getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /*
+     *  Number of bins currently holding values, at most maxBins.
+     */
+    public int getBinCount() {
+        return bins.length == 0 ? 0 : highest - lowest + 1;
+    }
+
+    private void addToBin(int index, final long binCount) {
+        if (bins.length == 0) {
+            bins = new long[Math.min(INITIAL_BINS, maxBins)];
+            offset = index - bins.length / 2;
+            lowest = index;
+            highest = index;
+        }
+        int low = Math.min(index, lowest);
+        int high = Math.max(index, highest);
+        if (high - low + 1 > maxBins) {
+            low = high - maxBins + 1;
+            index = Math.max(index, low);
+        }
+        if (low < offset || high >= offset + bins.length) {
+            relayout(low, high);
+        }
+        bins[index - offset] += binCount;
+        lowest = low;
+        highest = high;
+    }
+
+    /*
+     *  Moves the bins to an array covering [low, high], folding the bins below low into low.
+     */
+    private void relayout(final int low, final int high) {
+        int length = Math.min(maxBins, Math.max(high - low + 1, 2 * bins.length));
+        int newOffset = low - (length - (high - low + 1)) / 2;
+        long[] newBins = new long[length];
+        for (int index = lowest; index <= highest; index++) {
+            long binCount = bins[index - offset];
+            if (binCount > 0) {
+                newBins[Math.max(index, low) - newOffset] += binCount;
+            }
+        }
+        bins = newBins;
+        offset = newOffset;
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch{count=" + count + ", p50=" + quantile(0.5) + ", p95=" + quantile(0.95) + ", p99=" + quantile(0.99)
+                + ", max=" + getMax() + ", bins=" + getBinCount() + '}';
+    }
+}
@@ -0,0 +1,497 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstructionView;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Writes report totals and lists of tradings as CSV or JSON lines straight to a channel or file.
+ *
+ *  Records are encoded field by field into a direct buffer that is flushed to the channel whenever it fills up, so
+ *  no per row strings are built and a list can be written while it is being produced, for example from
+ *  {@link ReportGenerator#streamIncomingTradingByAmount}. Amounts are written from their unscaled long values and
+ *  read exactly like BigDecimal.toPlainString. Buffers are returned to the exporter after each export and reused,
+ *  so one exporter can be shared between threads.
+ */
+public final class ReportExporter {
+
+    private static final String[] TRADING_FIELDS = {"direction", "entityType", "currency", "instructionDate", "settlementDate",
+            "numberOfUnits", "pricePerUnit", "agreedFxRate", "tradeAmount"};
+    private static final String[] TOTALS_FIELDS = {"settlementDate", "incomingTotal", "outgoingTotal", "netPosition"};
+
+    private final ExportFormat format;
+    private final int bufferSize;
+    private final boolean gzip;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private ReportExporter(final Builder builder) {
+        format = builder.format;
+        bufferSize = builder.bufferSize;
+        gzip = builder.gzip;
+    }
+
+    /*
+     *  Writes one record per trading in encounter order and returns the number of records written. The stream is
+     *  read to the end but not closed, and the channel is left open.
+     */
+    public long exportTradings(final Stream<? extends TradingInstructionView> tradings, final WritableByteChannel channel) throws IOException {
+        checkNotNull(tradings, "Tradings should not be null");
+        return exportTradings(tradings.iterator(), channel);
+    }
+
+    public long exportTradings(final Iterable<? extends TradingInstructionView> tradings, final WritableByteChannel channel) throws IOException {
+        checkNotNull(tradings, "Tradings should not be null");
+        return exportTradings(tradings.iterator(), channel);
+    }
+
+    /*
+     *  Writes the tradings to the file, replacing its content.
+     */
+    public long exportTradings(final Stream<? extends TradingInstructionView> tradings, final Path path) throws IOException {
+        checkNotNull(tradings, "Tradings should not be null");
+        try (FileChannel channel = open(path)) {
+            return exportTradings(tradings.iterator(), channel);
+        }
+    }
+
+    public long exportTradings(final Iterable<? extends TradingInstructionView> tradings, final Path path) throws IOException {
+        checkNotNull(tradings, "Tradings should not be null");
+        try (FileChannel channel = open(path)) {
+            return exportTradings(tradings.iterator(), channel);
+        }
+    }
+
+    /*
+     *  Writes the settlement date, both totals and the net position of the report as a single record.
+     */
+    public void exportTotals(final DailySettlementReport dailySettlementReport, final WritableByteChannel channel) throws IOException {
+        checkNotNull(dailySettlementReport, "Daily settlement report should not be null");
+        checkNotNull(channel, "Channel should not be null");
+        RecordWriter writer = new RecordWriter(channel);
+        try {
+            writer.header(TOTALS_FIELDS);
+            writer.beginRecord();
+            writer.date(TOTALS_FIELDS[0], dailySettlementReport.getSettlementDate());
+            writer.decimal(TOTALS_FIELDS[1], dailySettlementReport.getIncomingTotal());
+            writer.decimal(TOTALS_FIELDS[2], dailySettlementReport.getOutgoingTotal());
+            writer.decimal(TOTALS_FIELDS[3], dailySettlementReport.getNetPosition());
+            writer.endRecord();
+            writer.finish();
+        } finally {
+            writer.release();
+        }
+    }
+
+    public void exportTotals(final DailySettlementReport dailySettlementReport, final Path path) throws IOException {
+        try (FileChannel channel = open(path)) {
+            exportTotals(dailySettlementReport, channel);
+        }
+    }
+
+    private long exportTradings(final Iterator<? extends TradingInstructionView> tradings, final WritableByteChannel channel) throws IOException {
+        checkNotNull(channel, "Channel should not be null");
+        RecordWriter writer = new RecordWriter(channel);
+        long count = 0;
+        try {
+            writer.header(TRADING_FIELDS);
+            while (tradings.hasNext()) {
+                writer.trading(tradings.next());
+                count++;
+            }
+            writer.finish();
+        } finally {
+            writer.release();
+        }
+        return count;
+    }
+
+    private static FileChannel open(final Path path) throws IOException {
+        checkNotNull(path, "Path should not be null");
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    private ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /*
+     *  Encodes the records of one export into a pooled buffer, compressing them on the way out when gzip is on.
+     */
+    private final class RecordWriter {
+
+        private final ByteBuffer buffer = acquire();
+        private final byte[] digits = new byte[20];
+        private final GZIPOutputStream gzipStream;
+        private final WritableByteChannel target;
+        private int field;
+
+        private RecordWriter(final WritableByteChannel channel) throws IOException {
+            if (gzip) {
+                gzipStream = new GZIPOutputStream(new ChannelOutputStream(channel), bufferSize);
+                target = Channels.newChannel(gzipStream);
+            } else {
+                gzipStream = null;
+                target = channel;
+            }
+        }
+
+        private void header(final String[] fields) throws IOException {
+            if (format != ExportFormat.CSV) {
+                return;
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    put(',');
+                }
+                ascii(fields[i]);
+            }
+            put('\n');
+        }
+
+        private void trading(final TradingInstructionView trading) throws IOException {
+            beginRecord();
+            text(TRADING_FIELDS[0], trading.getDirection().name());
+            text(TRADING_FIELDS[1], trading.getEntityType().name());
+            text(TRADING_FIELDS[2], trading.getCurrency().getCode());
+            date(TRADING_FIELDS[3], trading.getInstructionDate());
+            date(TRADING_FIELDS[4], trading.getSettlementDate());
+            name(TRADING_FIELDS[5]);
+            number(trading.getNumberOfUnits());
+            name(TRADING_FIELDS[6]);
+            if (!trading.hasLongUnscaledValues()) {
+                decimal(trading.getPricePerUnit());
+                decimal(TRADING_FIELDS[7], trading.getRate());
+                decimal(TRADING_FIELDS[8], trading.determineTradeAmount());
+                endRecord();
+                return;
+            }
+            long unscaledPrice = trading.getUnscaledPricePerUnit();
+            long unscaledRate = trading.getUnscaledRate();
+            decimal(unscaledPrice, trading.getPriceScale());
+            name(TRADING_FIELDS[7]);
+            decimal(unscaledRate, trading.getRateScale());
+            name(TRADING_FIELDS[8]);
+            long tradeAmount;
+            try {
+                tradeAmount = Math.multiplyExact(Math.multiplyExact(unscaledPrice, unscaledRate), (long) trading.getNumberOfUnits());
+            } catch (ArithmeticException overflow) {
+                decimal(trading.determineTradeAmount());
+                endRecord();
+                return;
+            }
+            decimal(tradeAmount, trading.getPriceScale() + trading.getRateScale());
+            endRecord();
+        }
+
+        private void beginRecord() throws IOException {
+            field = 0;
+            if (format == ExportFormat.JSON_LINES) {
+                put('{');
+            }
+        }
+
+        private void endRecord() throws IOException {
+            if (format == ExportFormat.JSON_LINES) {
+                put('}');
+            }
+            put('\n');
+        }
+
+        private void name(final String name) throws IOException {
+            if (field++ > 0) {
+                put(',');
+            }
+            if (format == ExportFormat.JSON_LINES) {
+                put('"');
+                ascii(name);
+                put('"');
+                put(':');
+            }
+        }
+
+        private void text(final String name, final String value) throws IOException {
+            name(name);
+            if (format == ExportFormat.JSON_LINES) {
+                jsonString(value);
+            } else {
+                csvString(value);
+            }
+        }
+
+        private void date(final String name, final LocalDate date) throws IOException {
+            name(name);
+            boolean quoted = format == ExportFormat.JSON_LINES;
+            if (quoted) {
+                put('"');
+            }
+            if (date.getYear() < 0 || date.getYear() > 9999) {
+                ascii(date.toString());
+            } else {
+                padded(date.getYear(), 4);
+                put('-');
+                padded(date.getMonthValue(), 2);
+                put('-');
+                padded(date.getDayOfMonth(), 2);
+            }
+            if (quoted) {
+                put('"');
+            }
+        }
+
+        private void decimal(final String name, final BigDecimal value) throws IOException {
+            name(name);
+            decimal(value);
+        }
+
+        private void decimal(final BigDecimal value) throws IOException {
+            ascii(value.toPlainString());
+        }
+
+        /*
+         *  Writes unscaled * 10^-scale the way BigDecimal.toPlainString does.
+         */
+        private void decimal(final long unscaled, final int scale) throws IOException {
+            if (unscaled == Long.MIN_VALUE) {
+                decimal(BigDecimal.valueOf(unscaled, scale));
+                return;
+            }
+            if (unscaled < 0) {
+                put('-');
+            }
+            int start = toDigits(Math.abs(unscaled));
+            int length = digits.length - start;
+            if (scale <= 0) {
+                putDigits(start, length);
+                for (int i = 0; unscaled != 0 && i < -scale; i++) {
+                    put('0');
+                }
+            } else if (length > scale) {
+                putDigits(start, length - scale);
+                put('.');
+                putDigits(digits.length - scale, scale);
+            } else {
+                put('0');
+                put('.');
+                for (int i = length; i < scale; i++) {
+                    put('0');
+                }
+                putDigits(start, length);
+            }
+        }
+
+        private void number(final long value) throws IOException {
+            decimal(value, 0);
+        }
+
+        private void padded(final int value, final int width) throws IOException {
+            int start = toDigits(value);
+            for (int i = digits.length - start; i < width; i++) {
+                put('0');
+            }
+            putDigits(start, digits.length - start);
+        }
+
+        private int toDigits(long value) {
+            int position = digits.length;
+            do {
+                digits[--position] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value != 0);
+            return position;
+        }
+
+        private void putDigits(final int from, final int length) throws IOException {
+            for (int i = from; i < from + length; i++) {
+                put(digits[i]);
+            }
+        }
+
+        private void csvString(final String value) throws IOException {
+            boolean quoted = false;
+            for (int i = 0; i < value.length() && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quoted) {
+                utf8(value);
+                return;
+            }
+            put('"');
+            for (int i = 0; i < value.length(); i = value.offsetByCodePoints(i, 1)) {
+                int codePoint = value.codePointAt(i);
+                if (codePoint == '"') {
+                    put('"');
+                }
+                codePoint(codePoint);
+            }
+            put('"');
+        }
+
+        private void jsonString(final String value) throws IOException {
+            put('"');
+            for (int i = 0; i < value.length(); i = value.offsetByCodePoints(i, 1)) {
+                int codePoint = value.codePointAt(i);
+                if (codePoint == '"' || codePoint == '\\') {
+                    put('\\');
+                    put((byte) codePoint);
+                } else if (codePoint < 0x20) {
+                    ascii("\\u00");
+                    put(Character.forDigit(codePoint >> 4, 16));
+                    put(Character.forDigit(codePoint & 0xF, 16));
+                } else {
+                    codePoint(codePoint);
+                }
+            }
+            put('"');
+        }
+
+        private void utf8(final String value) throws IOException {
+            for (int i = 0; i < value.length(); i = value.offsetByCodePoints(i, 1)) {
+                codePoint(value.codePointAt(i));
+            }
+        }
+
+        private void codePoint(final int codePoint) throws IOException {
+            if (codePoint < 0x80) {
+                put((byte) codePoint);
+            } else if (codePoint < 0x800) {
+                put((byte) (0xC0 | codePoint >> 6));
+                put((byte) (0x80 | codePoint & 0x3F));
+            } else if (codePoint < 0x10000) {
+                put((byte) (0xE0 | codePoint >> 12));
+                put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                put((byte) (0x80 | codePoint & 0x3F));
+            } else {
+                put((byte) (0xF0 | codePoint >> 18));
+                put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                put((byte) (0x80 | codePoint & 0x3F));
+            }
+        }
+
+        private void ascii(final String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                put((byte) value.charAt(i));
+            }
+        }
+
+        private void put(final char c) throws IOException {
+            put((byte) c);
+        }
+
+        private void put(final byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void finish() throws IOException {
+            flush();
+            if (gzipStream != null) {
+                gzipStream.close();
+            }
+        }
+
+        private void release() {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+
+    /*
+     *  Hands the compressed bytes to the channel without closing it, so finishing the gzip stream leaves the
+     *  caller's channel open.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+
+        private final WritableByteChannel channel;
+
+        private ChannelOutputStream(final WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            ByteBuffer source = ByteBuffer.wrap(bytes, offset, length);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private ExportFormat format = ExportFormat.CSV;
+        private int bufferSize = 64 * 1024;
+        private boolean gzip;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  Format of the records, CSV by default.
+         */
+        public Builder withFormat(final ExportFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        /*
+         *  Size in bytes of the direct buffer records are encoded into, 65536 by default.
+         */
+        public Builder withBufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /*
+         *  Compresses the output with gzip, off by default.
+         */
+        public Builder withGzip(final boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        public ReportExporter build() {
+            checkNotNull(format, "Export format should not be null when building %s", ReportExporter.class);
+            checkArgument(bufferSize > 0, "Buffer size should be greater than zero");
+            return new ReportExporter(this);
+        }
+    }
+}
@@ -2,12 +2,18 @@ package com.org.trade.core.reporting;
 
 import com.org.trade.core.domain.Direction;
 import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.metrics.Metric;
+import com.org.trade.core.metrics.Metrics;
+import com.org.trade.core.metrics.MetricsRecorder;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /*
@@ -17,15 +23,61 @@ import static com.google.common.base.Preconditions.checkNotNull;
 */
 public class ReportGenerator {
 
-    private final List<TradingInstruction> tradingInstructions;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 16_384;
 
-    private ReportGenerator(final List<TradingInstruction> tradingInstructions) {
-        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", this.getClass());
-        this.tradingInstructions = tradingInstructions;
+    private final InstructionAggregator aggregator;
+
+    private ReportGenerator(final InstructionAggregator aggregator) {
+        this.aggregator = aggregator;
     }
 
+    /*
+    *  Builds a report generator that scans the given list on every query.
+    */
     public static ReportGenerator of(final List<TradingInstruction> tradingInstructions) {
-        return new ReportGenerator(tradingInstructions);
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", ReportGenerator.class);
+        return new ReportGenerator(new ScanningAggregator(tradingInstructions));
+    }
+
+    /*
+    *  Builds a report generator that indexes the given list once by settlement date and direction.
+    *
+    *  Totals are pre-summed and instructions pre-sorted per bucket, so each query only touches the matching
+    *  bucket. Changes made to the list afterwards are not reflected in the reports.
+    */
+    public static ReportGenerator indexedOf(final List<TradingInstruction> tradingInstructions) {
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", ReportGenerator.class);
+        return new ReportGenerator(SettlementIndex.of(tradingInstructions));
+    }
+
+    /*
+    *  Builds a report generator that scans the given list in parallel on the common fork join pool, using the
+    *  default threshold below which a range of instructions is scanned sequentially.
+    */
+    public static ReportGenerator parallelOf(final List<TradingInstruction> tradingInstructions) {
+        return parallelOf(tradingInstructions, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /*
+    *  Builds a report generator that scans the given list in parallel on the given pool. Ranges of at most
+    *  threshold instructions are scanned sequentially, so small lists never leave the calling thread.
+    *
+    *  Totals and orderings are identical to the ones of a generator built with of.
+    */
+    public static ReportGenerator parallelOf(final List<TradingInstruction> tradingInstructions, final ForkJoinPool pool,
+                                             final int threshold) {
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", ReportGenerator.class);
+        checkNotNull(pool, "Fork join pool should not be null when building %s", ReportGenerator.class);
+        checkArgument(threshold > 0, "Parallel threshold should be greater than zero");
+        return new ReportGenerator(new ParallelAggregator(tradingInstructions, pool, threshold));
+    }
+
+    /*
+    *  Builds a report generator that runs its queries over a columnar instruction store.
+    */
+    public static ReportGenerator ofStore(final ColumnarInstructionStore instructionStore) {
+        checkNotNull(instructionStore, "Instruction store should not be null when building %s", ReportGenerator.class);
+        return new ReportGenerator(instructionStore);
     }
 
     /*
@@ -62,22 +114,173 @@ public class ReportGenerator {
         return sort(settledDate, Direction.BUY);
     }
 
+    /*
+     *  Streams the incoming tradings on ascending order of trading amount, the order of
+     *  sortIncomingTradingByAmount, without holding them all in memory: sorted runs are spilled to temporary files
+     *  and merged while the stream is read. Close the stream when not reading it to the end, so the run files are
+     *  deleted. Once runs were spilled the stream holds equal copies read back from them, not the scanned instances.
+     */
+    public Stream<TradingInstruction> streamIncomingTradingByAmount(final LocalDate settledDate, final ExternalSort externalSort) {
+        return stream(settledDate, Direction.SELL, externalSort);
+    }
+
+    /*
+     *  Streams the outgoing tradings on ascending order of trading amount, see streamIncomingTradingByAmount.
+     */
+    public Stream<TradingInstruction> streamOutgoingTradingByAmount(final LocalDate settledDate, final ExternalSort externalSort) {
+        return stream(settledDate, Direction.BUY, externalSort);
+    }
+
+    /*
+     *  Returns at most the given number of incoming tradings with the largest trading amount, on descending order
+     *  of trading amount.
+     */
+    public List<TradingInstruction> topIncomingTradingByAmount(final LocalDate settledDate, final int count) {
+        return rank(settledDate, Direction.SELL, true, 0, count);
+    }
+
+    /*
+     *  Returns at most the given number of outgoing tradings with the largest trading amount, on descending order
+     *  of trading amount.
+     */
+    public List<TradingInstruction> topOutgoingTradingByAmount(final LocalDate settledDate, final int count) {
+        return rank(settledDate, Direction.BUY, true, 0, count);
+    }
+
+    /*
+     *  Returns at most the given number of incoming tradings with the smallest trading amount, on ascending order
+     *  of trading amount.
+     */
+    public List<TradingInstruction> bottomIncomingTradingByAmount(final LocalDate settledDate, final int count) {
+        return rank(settledDate, Direction.SELL, false, 0, count);
+    }
+
+    /*
+     *  Returns at most the given number of outgoing tradings with the smallest trading amount, on ascending order
+     *  of trading amount.
+     */
+    public List<TradingInstruction> bottomOutgoingTradingByAmount(final LocalDate settledDate, final int count) {
+        return rank(settledDate, Direction.BUY, false, 0, count);
+    }
+
+    /*
+     *  Returns one page of the incoming tradings on ascending order of trading amount, the same page
+     *  sortIncomingTradingByAmount(settledDate).subList(offset, offset + limit) would give.
+     */
+    public List<TradingInstruction> pageIncomingTradingByAmount(final LocalDate settledDate, final int offset, final int limit) {
+        return rank(settledDate, Direction.SELL, false, offset, limit);
+    }
+
+    /*
+     *  Returns one page of the outgoing tradings on ascending order of trading amount, the same page
+     *  sortOutgoingTradingByAmount(settledDate).subList(offset, offset + limit) would give.
+     */
+    public List<TradingInstruction> pageOutgoingTradingByAmount(final LocalDate settledDate, final int offset, final int limit) {
+        return rank(settledDate, Direction.BUY, false, offset, limit);
+    }
+
+    /*
+     *  Generates the incoming and outgoing totals, the net position and both lists of tradings on ascending order
+     *  of trading amount for the settled date in one pass, computing each trading amount once. The values are the
+     *  ones the separate report methods return.
+     */
+    public DailySettlementReport generateDailySettlementReport(final LocalDate settledDate) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        MetricsRecorder recorder = Metrics.recorder();
+        if (!recorder.isEnabled()) {
+            return aggregator.dailyReport(settledDate);
+        }
+        long start = System.nanoTime();
+        DailySettlementReport dailySettlementReport = aggregator.dailyReport(settledDate);
+        recorder.record(Metric.REPORT_DAILY_NANOS, System.nanoTime() - start);
+        return dailySettlementReport;
+    }
+
+    /*
+     *  Breaks the trading amount totals down by the dimensions of the query in one scan, for example by entity
+     *  type and currency per settlement date.
+     */
+    public GroupedTotals groupTotals(final GroupByQuery query) {
+        checkNotNull(query, "Group by query should not be null");
+        MetricsRecorder recorder = Metrics.recorder();
+        if (!recorder.isEnabled()) {
+            return aggregator.groupTotals(query);
+        }
+        long start = System.nanoTime();
+        GroupedTotals groupedTotals = aggregator.groupTotals(query);
+        recorder.record(Metric.REPORT_GROUP_BY_NANOS, System.nanoTime() - start);
+        return groupedTotals;
+    }
+
+    /*
+     *  Passes every trading instruction the reports are generated from to the consumer. The order depends on how
+     *  the generator was built: list order for the scanning and parallel generators, row order for a columnar store
+     *  and settlement date and direction groups for an indexed generator.
+     */
+    public void forEachTradingInstruction(final Consumer<? super TradingInstruction> consumer) {
+        checkNotNull(consumer, "Consumer should not be null");
+        aggregator.forEach(consumer);
+    }
+
     private BigDecimal calculateTotal(LocalDate settledDate, Direction direction) {
         checkNotNull(settledDate, "Settled date should not be null");
-        return tradingInstructions.stream()
-                .filter(tradingInstruction -> tradingInstruction.getDirection() == direction)
-                .filter(tradingInstruction -> tradingInstruction.getSettlementDate().isEqual(settledDate))
-                .map(tradingInstruction -> tradingInstruction.determineTradeAmount())
-                .reduce(BigDecimal::add)
-                .orElse(BigDecimal.ZERO);
+        MetricsRecorder recorder = Metrics.recorder();
+        if (!recorder.isEnabled()) {
+            return aggregator.total(settledDate, direction);
+        }
+        long start = System.nanoTime();
+        BigDecimal total = aggregator.total(settledDate, direction);
+        recordQuery(recorder, Metric.REPORT_TOTAL_NANOS, start, settledDate, direction);
+        return total;
     }
 
     private List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
         checkNotNull(settledDate, "Settled date should not be null");
-        return tradingInstructions.stream()
-                .filter(tradingInstruction -> tradingInstruction.getDirection() == direction)
-                .filter(tradingInstruction -> tradingInstruction.getSettlementDate().isEqual(settledDate))
-                .sorted((ins1, ins2) -> ins1.determineTradeAmount().compareTo(ins2.determineTradeAmount()))
-                .collect(Collectors.toList());
+        MetricsRecorder recorder = Metrics.recorder();
+        if (!recorder.isEnabled()) {
+            return aggregator.sort(settledDate, direction);
+        }
+        long start = System.nanoTime();
+        List<TradingInstruction> sorted = aggregator.sort(settledDate, direction);
+        recordQuery(recorder, Metric.REPORT_SORT_NANOS, start, settledDate, direction);
+        return sorted;
+    }
+
+    private Stream<TradingInstruction> stream(final LocalDate settledDate, final Direction direction, final ExternalSort externalSort) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkNotNull(externalSort, "External sort should not be null");
+        ExternalSort.Sorter sorter = externalSort.newSorter();
+        try {
+            aggregator.forEach(tradingInstruction -> {
+                if (tradingInstruction.getDirection() == direction && tradingInstruction.getSettlementDate().isEqual(settledDate)) {
+                    sorter.add(tradingInstruction.determineTradeAmount(), tradingInstruction);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            sorter.discard();
+            throw e;
+        }
+        return sorter.sortedStream();
+    }
+
+    private List<TradingInstruction> rank(final LocalDate settledDate, final Direction direction,
+                                          final boolean descending, final int offset, final int limit) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkArgument(offset >= 0, "Offset should not be negative");
+        checkArgument(limit >= 0, "Limit should not be negative");
+        MetricsRecorder recorder = Metrics.recorder();
+        if (!recorder.isEnabled()) {
+            return aggregator.rank(settledDate, direction, descending, offset, limit);
+        }
+        long start = System.nanoTime();
+        List<TradingInstruction> ranked = aggregator.rank(settledDate, direction, descending, offset, limit);
+        recordQuery(recorder, Metric.REPORT_RANK_NANOS, start, settledDate, direction);
+        return ranked;
+    }
+
+    private void recordQuery(final MetricsRecorder recorder, final Metric latency, final long start,
+                             final LocalDate settledDate, final Direction direction) {
+        recorder.record(latency, System.nanoTime() - start);
+        recorder.record(Metric.REPORT_SCANNED_INSTRUCTIONS, aggregator.scanSize(settledDate, direction));
     }
 }
@@ -0,0 +1,53 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Trade amount totals per settlement date and direction of one {@link FxRevaluation} scenario.
+ */
+public final class RevaluedTotals {
+
+    private final Map<LocalDate, BigDecimal[]> totals;
+
+    RevaluedTotals(final Map<LocalDate, BigDecimal[]> totals) {
+        this.totals = totals;
+    }
+
+    /*
+     *  Revalued total of the incoming transactions settled on the date, zero when there are none.
+     */
+    public BigDecimal totalOfIncomingTransactions(final LocalDate settledDate) {
+        return total(settledDate, Direction.SELL);
+    }
+
+    /*
+     *  Revalued total of the outgoing transactions settled on the date, zero when there are none.
+     */
+    public BigDecimal totalOfOutgoingTransactions(final LocalDate settledDate) {
+        return total(settledDate, Direction.BUY);
+    }
+
+    public BigDecimal total(final LocalDate settledDate, final Direction direction) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkNotNull(direction, "Direction should not be null");
+        BigDecimal[] dateTotals = totals.get(settledDate);
+        BigDecimal total = dateTotals == null ? null : dateTotals[direction.ordinal()];
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    /*
+     *  Settlement dates with at least one instruction, in ascending order.
+     */
+    public SortedSet<LocalDate> getSettlementDates() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(totals.keySet()));
+    }
+}
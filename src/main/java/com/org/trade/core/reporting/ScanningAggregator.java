@@ -0,0 +1,81 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.FixedPointSum;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ *  Answers every query with a full scan of the instruction list. Changes made to the list after
+ *  the aggregator is created are visible to later queries.
+ */
+class ScanningAggregator implements InstructionAggregator {
+
+    private final List<TradingInstruction> tradingInstructions;
+
+    ScanningAggregator(final List<TradingInstruction> tradingInstructions) {
+        this.tradingInstructions = tradingInstructions;
+    }
+
+    @Override
+    public int scanSize(final LocalDate settledDate, final Direction direction) {
+        return tradingInstructions.size();
+    }
+
+    @Override
+    public BigDecimal total(final LocalDate settledDate, final Direction direction) {
+        FixedPointSum sum = new FixedPointSum();
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            if (tradingInstruction.getDirection() == direction && tradingInstruction.getSettlementDate().isEqual(settledDate)) {
+                tradingInstruction.addTradeAmountTo(sum);
+            }
+        }
+        return sum.toBigDecimal();
+    }
+
+    /*
+     *  One pass over the list for both directions.
+     */
+    @Override
+    public DailySettlementReport dailyReport(final LocalDate settledDate) {
+        AmountedList<TradingInstruction> incoming = new AmountedList<>();
+        AmountedList<TradingInstruction> outgoing = new AmountedList<>();
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            if (tradingInstruction.getSettlementDate().isEqual(settledDate)) {
+                (tradingInstruction.getDirection() == Direction.SELL ? incoming : outgoing)
+                        .add(tradingInstruction.determineTradeAmount(), tradingInstruction);
+            }
+        }
+        return new DailySettlementReport(settledDate, incoming.total(), outgoing.total(), incoming.sortedItems(), outgoing.sortedItems());
+    }
+
+    @Override
+    public void forEach(final Consumer<? super TradingInstruction> consumer) {
+        tradingInstructions.forEach(consumer);
+    }
+
+    @Override
+    public List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
+        AmountedList<TradingInstruction> amounted = new AmountedList<>();
+        tradingInstructions.stream()
+                .filter(tradingInstruction -> tradingInstruction.getDirection() == direction)
+                .filter(tradingInstruction -> tradingInstruction.getSettlementDate().isEqual(settledDate))
+                .forEachOrdered(tradingInstruction -> amounted.add(tradingInstruction.determineTradeAmount(), tradingInstruction));
+        return amounted.sortedItems();
+    }
+
+    @Override
+    public List<TradingInstruction> rank(final LocalDate settledDate, final Direction direction,
+                                         final boolean descending, final int offset, final int limit) {
+        AmountRanking<TradingInstruction> ranking = new AmountRanking<>(descending, offset, limit);
+        tradingInstructions.stream()
+                .filter(tradingInstruction -> tradingInstruction.getDirection() == direction)
+                .filter(tradingInstruction -> tradingInstruction.getSettlementDate().isEqual(settledDate))
+                .forEachOrdered(tradingInstruction -> ranking.offer(tradingInstruction.determineTradeAmount(), tradingInstruction));
+        return ranking.result();
+    }
+}
@@ -0,0 +1,162 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*
+ *  Index of trading instructions keyed by settlement epoch day and {@link Direction}.
+ *
+ *  The index is built once from the instruction list. Every bucket keeps its instructions already sorted
+ *  by trade amount together with the pre-summed total, so a total query is a single lookup and a sort query
+ *  only copies the matching bucket. Changes made to the list after the index is built are not visible.
+ */
+class SettlementIndex implements InstructionAggregator {
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final Map<Long, Bucket[]> bucketsByEpochDay;
+
+    private SettlementIndex(final Map<Long, Bucket[]> bucketsByEpochDay) {
+        this.bucketsByEpochDay = bucketsByEpochDay;
+    }
+
+    static SettlementIndex of(final List<TradingInstruction> tradingInstructions) {
+        Map<Long, List<AmountedInstruction>[]> grouped = new HashMap<>();
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            List<AmountedInstruction>[] byDirection = grouped.computeIfAbsent(
+                    tradingInstruction.getSettlementDate().toEpochDay(), epochDay -> newDirectionLists());
+            byDirection[tradingInstruction.getDirection().ordinal()]
+                    .add(new AmountedInstruction(tradingInstruction, tradingInstruction.determineTradeAmount()));
+        }
+        Map<Long, Bucket[]> bucketsByEpochDay = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<Long, List<AmountedInstruction>[]> entry : grouped.entrySet()) {
+            Bucket[] buckets = new Bucket[DIRECTIONS];
+            for (int i = 0; i < DIRECTIONS; i++) {
+                buckets[i] = Bucket.of(entry.getValue()[i]);
+            }
+            bucketsByEpochDay.put(entry.getKey(), buckets);
+        }
+        return new SettlementIndex(bucketsByEpochDay);
+    }
+
+    @Override
+    public BigDecimal total(final LocalDate settledDate, final Direction direction) {
+        Bucket bucket = bucket(settledDate, direction);
+        return bucket == null ? BigDecimal.ZERO : bucket.total;
+    }
+
+    @Override
+    public List<TradingInstruction> sort(final LocalDate settledDate, final Direction direction) {
+        Bucket bucket = bucket(settledDate, direction);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.sortedInstructions);
+    }
+
+    @Override
+    public DailySettlementReport dailyReport(final LocalDate settledDate) {
+        return new DailySettlementReport(settledDate, total(settledDate, Direction.SELL), total(settledDate, Direction.BUY),
+                sort(settledDate, Direction.SELL), sort(settledDate, Direction.BUY));
+    }
+
+    /*
+     *  Buckets are already sorted, so a ranking is a plain slice.
+     */
+    @Override
+    public List<TradingInstruction> rank(final LocalDate settledDate, final Direction direction,
+                                         final boolean descending, final int offset, final int limit) {
+        Bucket bucket = bucket(settledDate, direction);
+        List<TradingInstruction> page = new ArrayList<>();
+        if (bucket == null) {
+            return page;
+        }
+        int size = bucket.sortedInstructions.size();
+        long end = Math.min(size, (long) offset + limit);
+        for (int i = offset; i < end; i++) {
+            page.add(bucket.sortedInstructions.get(descending ? size - 1 - i : i));
+        }
+        return page;
+    }
+
+    /*
+     *  Instructions come out grouped by settlement date and direction, in ascending order of amount per group.
+     */
+    @Override
+    public void forEach(final Consumer<? super TradingInstruction> consumer) {
+        for (Bucket[] buckets : bucketsByEpochDay.values()) {
+            for (Bucket bucket : buckets) {
+                bucket.sortedInstructions.forEach(consumer);
+            }
+        }
+    }
+
+    @Override
+    public int scanSize(final LocalDate settledDate, final Direction direction) {
+        Bucket bucket = bucket(settledDate, direction);
+        return bucket == null ? 0 : bucket.sortedInstructions.size();
+    }
+
+    private Bucket bucket(final LocalDate settledDate, final Direction direction) {
+        Bucket[] buckets = bucketsByEpochDay.get(settledDate.toEpochDay());
+        return buckets == null ? null : buckets[direction.ordinal()];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<AmountedInstruction>[] newDirectionLists() {
+        List<AmountedInstruction>[] lists = new List[DIRECTIONS];
+        for (int i = 0; i < DIRECTIONS; i++) {
+            lists[i] = new ArrayList<>();
+        }
+        return lists;
+    }
+
+    private static final class Bucket {
+
+        private final List<TradingInstruction> sortedInstructions;
+        private final BigDecimal total;
+
+        private Bucket(final List<TradingInstruction> sortedInstructions, final BigDecimal total) {
+            this.sortedInstructions = sortedInstructions;
+            this.total = total;
+        }
+
+        /*
+         *  The sort is stable so instructions with equal amounts keep their original order, exactly like the
+         *  scanning aggregator.
+         */
+        private static Bucket of(final List<AmountedInstruction> amountedInstructions) {
+            if (amountedInstructions.isEmpty()) {
+                return new Bucket(Collections.<TradingInstruction>emptyList(), BigDecimal.ZERO);
+            }
+            BigDecimal total = null;
+            for (AmountedInstruction amountedInstruction : amountedInstructions) {
+                total = total == null ? amountedInstruction.amount : total.add(amountedInstruction.amount);
+            }
+            amountedInstructions.sort(Comparator.comparing(amountedInstruction -> amountedInstruction.amount));
+            List<TradingInstruction> sortedInstructions = new ArrayList<>(amountedInstructions.size());
+            for (AmountedInstruction amountedInstruction : amountedInstructions) {
+                sortedInstructions.add(amountedInstruction.tradingInstruction);
+            }
+            return new Bucket(Collections.unmodifiableList(sortedInstructions), total);
+        }
+    }
+
+    private static final class AmountedInstruction {
+
+        private final TradingInstruction tradingInstruction;
+        private final BigDecimal amount;
+
+        private AmountedInstruction(final TradingInstruction tradingInstruction, final BigDecimal amount) {
+            this.tradingInstruction = tradingInstruction;
+            this.amount = amount;
+        }
+    }
+}
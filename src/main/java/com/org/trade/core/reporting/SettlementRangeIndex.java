@@ -0,0 +1,240 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Settlement totals over date ranges, per direction and optionally per entity type.
+ *
+ *  Daily totals are kept in segment trees over settlement epoch days, one per direction and entity type plus one per
+ *  direction for all entity types. A range total combines O(log D) tree nodes, D being the number of days covered,
+ *  and appending an instruction updates O(log D) nodes. Nodes only ever hold sums of days inside them, so a range
+ *  total has exactly the value and scale of adding the instructions of the range one by one. The trees double when
+ *  an instruction settles outside the covered days, up to a window of maxDays days. Instructions settling outside
+ *  that window, such as a 9999-12-31 sentinel date next to current dates, are summed per day in a sorted map
+ *  instead, so they cost one entry per distinct day and a range total visits the outlying days it covers.
+ *
+ *  All methods are synchronized, appends and queries may come from different threads.
+ */
+public class SettlementRangeIndex implements Consumer<TradingInstruction> {
+
+    private static final int DIRECTIONS = Direction.values().length;
+    private static final int ENTITY_TYPES = EntityType.values().length;
+    private static final int ALL_ENTITY_TYPES = ENTITY_TYPES;
+    private static final int INITIAL_DAYS = 64;
+    private static final int MAX_DAYS_LIMIT = 1 << 29;
+
+    private final int maxDays;
+    private long firstEpochDay;
+    private int days;
+    /*
+     * trees[direction * (ENTITY_TYPES + 1) + entityType], leaves at [days, 2 * days), null for an empty node
+     */
+    private BigDecimal[][] trees;
+    /*
+     * Daily totals of the days outside the window of the trees, indexed like the trees
+     */
+    private final NavigableMap<Long, BigDecimal[]> outliers = new TreeMap<>();
+
+    private SettlementRangeIndex(final Builder builder) {
+        maxDays = builder.maxDays;
+    }
+
+    public static SettlementRangeIndex create() {
+        return Builder.newBuilder().build();
+    }
+
+    public static SettlementRangeIndex of(final List<TradingInstruction> tradingInstructions) {
+        checkNotNull(tradingInstructions, "Trading instruction list should not be null when building %s", SettlementRangeIndex.class);
+        SettlementRangeIndex settlementRangeIndex = create();
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            settlementRangeIndex.append(tradingInstruction);
+        }
+        return settlementRangeIndex;
+    }
+
+    public synchronized void append(final TradingInstruction tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        long epochDay = tradingInstruction.getSettlementDate().toEpochDay();
+        BigDecimal amount = tradingInstruction.determineTradeAmount();
+        int direction = tradingInstruction.getDirection().ordinal() * (ENTITY_TYPES + 1);
+        int entityTypeTree = direction + tradingInstruction.getEntityType().ordinal();
+        if (cover(epochDay)) {
+            int leaf = (int) (epochDay - firstEpochDay) + days;
+            add(trees[entityTypeTree], leaf, amount);
+            add(trees[direction + ALL_ENTITY_TYPES], leaf, amount);
+        } else {
+            BigDecimal[] totals = outliers.computeIfAbsent(epochDay, day -> new BigDecimal[trees.length]);
+            totals[entityTypeTree] = sum(totals[entityTypeTree], amount);
+            totals[direction + ALL_ENTITY_TYPES] = sum(totals[direction + ALL_ENTITY_TYPES], amount);
+        }
+    }
+
+    @Override
+    public void accept(final TradingInstruction tradingInstruction) {
+        append(tradingInstruction);
+    }
+
+    /*
+     *  Total amount of the incoming transactions settled between the two dates, both included.
+     */
+    public BigDecimal calculateTotalOfIncomingTransactions(final LocalDate fromDate, final LocalDate toDate) {
+        return calculateTotal(fromDate, toDate, Direction.SELL);
+    }
+
+    /*
+     *  Total amount of the outgoing transactions settled between the two dates, both included.
+     */
+    public BigDecimal calculateTotalOfOutgoingTransactions(final LocalDate fromDate, final LocalDate toDate) {
+        return calculateTotal(fromDate, toDate, Direction.BUY);
+    }
+
+    /*
+     *  Total amount settled between the two dates, both included, in the given direction. Zero when there is none.
+     */
+    public synchronized BigDecimal calculateTotal(final LocalDate fromDate, final LocalDate toDate, final Direction direction) {
+        checkNotNull(direction, "Direction should not be null");
+        return total(fromDate, toDate, direction.ordinal() * (ENTITY_TYPES + 1) + ALL_ENTITY_TYPES);
+    }
+
+    /*
+     *  Total amount settled between the two dates, both included, in the given direction for the given entity type.
+     */
+    public synchronized BigDecimal calculateTotal(final LocalDate fromDate, final LocalDate toDate, final Direction direction,
+                                                  final EntityType entityType) {
+        checkNotNull(direction, "Direction should not be null");
+        checkNotNull(entityType, "Entity type should not be null");
+        return total(fromDate, toDate, direction.ordinal() * (ENTITY_TYPES + 1) + entityType.ordinal());
+    }
+
+    /*
+     *  Total amount settled up to and including the given date in the given direction.
+     */
+    public synchronized BigDecimal calculateCumulativeTotal(final LocalDate toDate, final Direction direction) {
+        checkNotNull(toDate, "To date should not be null");
+        checkNotNull(direction, "Direction should not be null");
+        return total(LocalDate.MIN, toDate, direction.ordinal() * (ENTITY_TYPES + 1) + ALL_ENTITY_TYPES);
+    }
+
+    private BigDecimal total(final LocalDate fromDate, final LocalDate toDate, final int tree) {
+        checkNotNull(fromDate, "From date should not be null");
+        checkNotNull(toDate, "To date should not be null");
+        checkArgument(!toDate.isBefore(fromDate), "To date should not be before from date");
+        if (trees == null) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal total = null;
+        for (BigDecimal[] totals : outliers.subMap(fromDate.toEpochDay(), true, toDate.toEpochDay(), true).values()) {
+            total = sum(total, totals[tree]);
+        }
+        long from = Math.max(fromDate.toEpochDay(), firstEpochDay) - firstEpochDay;
+        long to = Math.min(toDate.toEpochDay(), firstEpochDay + days - 1) - firstEpochDay;
+        if (from > to) {
+            return total == null ? BigDecimal.ZERO : total;
+        }
+        BigDecimal[] nodes = trees[tree];
+        int left = (int) from + days;
+        int right = (int) to + days + 1;
+        while (left < right) {
+            if ((left & 1) == 1) {
+                total = sum(total, nodes[left++]);
+            }
+            if ((right & 1) == 1) {
+                total = sum(total, nodes[--right]);
+            }
+            left >>>= 1;
+            right >>>= 1;
+        }
+        return total == null ? BigDecimal.ZERO : total;
+    }
+
+    private static void add(final BigDecimal[] nodes, final int leaf, final BigDecimal amount) {
+        for (int node = leaf; node > 0; node >>>= 1) {
+            nodes[node] = sum(nodes[node], amount);
+        }
+    }
+
+    private static BigDecimal sum(final BigDecimal total, final BigDecimal amount) {
+        if (total == null) {
+            return amount;
+        }
+        return amount == null ? total : total.add(amount);
+    }
+
+    /*
+     *  Makes sure the trees cover the given day, doubling them and rebuilding the inner nodes when they do not.
+     *  Returns false, leaving the trees as they are, when covering the day would span more than maxDays days.
+     */
+    private boolean cover(final long epochDay) {
+        if (trees == null) {
+            firstEpochDay = epochDay - INITIAL_DAYS / 2;
+            days = INITIAL_DAYS;
+            trees = new BigDecimal[DIRECTIONS * (ENTITY_TYPES + 1)][2 * days];
+            return true;
+        }
+        long lastEpochDay = firstEpochDay + days - 1;
+        if (epochDay >= firstEpochDay && epochDay <= lastEpochDay) {
+            return true;
+        }
+        long first = Math.min(firstEpochDay, epochDay);
+        long last = Math.max(lastEpochDay, epochDay);
+        if (last - first + 1 > maxDays) {
+            return false;
+        }
+        // At most MAX_DAYS_LIMIT days are spanned, so the doubled size and the node arrays fit an int.
+        int newDays = days;
+        while (newDays < last - first + 1) {
+            newDays <<= 1;
+        }
+        // Leave the spare days on the side the index had to grow towards.
+        long newFirstEpochDay = epochDay < firstEpochDay ? last - newDays + 1 : first;
+        for (int tree = 0; tree < trees.length; tree++) {
+            BigDecimal[] nodes = new BigDecimal[2 * newDays];
+            System.arraycopy(trees[tree], days, nodes, (int) (firstEpochDay - newFirstEpochDay) + newDays, days);
+            for (int node = newDays - 1; node > 0; node--) {
+                nodes[node] = sum(nodes[2 * node], nodes[2 * node + 1]);
+            }
+            trees[tree] = nodes;
+        }
+        firstEpochDay = newFirstEpochDay;
+        days = newDays;
+        return true;
+    }
+
+    public static class Builder {
+
+        private int maxDays = 1 << 14;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  Largest number of days the trees span, 16384 days (about 45 years) by default and at most 2^29. Days
+         *  outside the window are kept apart, see {@link SettlementRangeIndex}.
+         */
+        public Builder withMaxDays(final int maxDays) {
+            this.maxDays = maxDays;
+            return this;
+        }
+
+        public SettlementRangeIndex build() {
+            checkArgument(maxDays > 0 && maxDays <= MAX_DAYS_LIMIT, "Maximum number of days should be between 1 and %s", MAX_DAYS_LIMIT);
+            return new SettlementRangeIndex(this);
+        }
+    }
+}
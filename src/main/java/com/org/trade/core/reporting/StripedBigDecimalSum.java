@@ -0,0 +1,48 @@
+package com.org.trade.core.reporting;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ *  Exact BigDecimal sum spread over a fixed number of cells, so concurrent writers rarely contend on the same
+ *  compare-and-set. Reading adds up the cells, which is exact and gives the same value and scale as adding the
+ *  same amounts in any order, but may miss additions still in flight.
+ */
+final class StripedBigDecimalSum {
+
+    private static final int STRIPES = stripes();
+
+    private final AtomicReferenceArray<BigDecimal> cells = new AtomicReferenceArray<>(STRIPES);
+
+    void add(final BigDecimal amount) {
+        int stripe = stripe();
+        BigDecimal current;
+        do {
+            current = cells.get(stripe);
+        } while (!cells.compareAndSet(stripe, current, current == null ? amount : current.add(amount)));
+    }
+
+    /*
+     *  Zero when nothing was added.
+     */
+    BigDecimal sum() {
+        BigDecimal sum = null;
+        for (int i = 0; i < STRIPES; i++) {
+            BigDecimal cell = cells.get(i);
+            if (cell != null) {
+                sum = sum == null ? cell : sum.add(cell);
+            }
+        }
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) * 0x9E3779B9 >>> 16 & (STRIPES - 1);
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+    }
+}
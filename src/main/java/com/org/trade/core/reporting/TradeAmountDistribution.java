@@ -0,0 +1,181 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstructionView;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/*
+ *  Distribution of the trade amounts per settlement date, direction and entity type, kept in one
+ *  {@link QuantileSketch} per group, so the median, p95 or p99 trade size is answered without sorting anything.
+ *
+ *  Fed one instruction at a time, for example through {@code reportGenerator.forEachTradingInstruction(distribution)}
+ *  or straight from a loader. Memory is bounded by maxBins per group whatever the number of instructions.
+ *  Distributions of partitions, or of threads scanning in parallel, are combined with {@link #merge}. Not thread
+ *  safe.
+ */
+public final class TradeAmountDistribution implements Consumer<TradingInstructionView> {
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
+    private final double relativeAccuracy;
+    private final int maxBins;
+    private final Map<Long, QuantileSketch> sketches = new HashMap<>();
+
+    private TradeAmountDistribution(final Builder builder) {
+        relativeAccuracy = builder.relativeAccuracy;
+        maxBins = builder.maxBins;
+    }
+
+    /*
+     *  Adds the trade amount of the instruction to the sketch of its group.
+     */
+    public void add(final TradingInstructionView tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        sketchOf(key(tradingInstruction.getSettlementEpochDay(), tradingInstruction.getDirection(), tradingInstruction.getEntityType()))
+                .add(tradeAmount(tradingInstruction));
+    }
+
+    @Override
+    public void accept(final TradingInstructionView tradingInstruction) {
+        add(tradingInstruction);
+    }
+
+    /*
+     *  Adds every group of the other distribution, which must have the same relative accuracy. The merged groups
+     *  keep the maxBins of this distribution.
+     */
+    public void merge(final TradeAmountDistribution other) {
+        checkNotNull(other, "Distribution should not be null");
+        checkArgument(other.relativeAccuracy == relativeAccuracy, "Distributions with a different relative accuracy cannot be merged");
+        for (Map.Entry<Long, QuantileSketch> entry : other.sketches.entrySet()) {
+            sketchOf(entry.getKey()).merge(entry.getValue());
+        }
+    }
+
+    /*
+     *  Copy of the sketch of the group, empty when no instruction falls in it.
+     */
+    public QuantileSketch sketch(final LocalDate settledDate, final Direction direction, final EntityType entityType) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkNotNull(direction, "Direction should not be null");
+        checkNotNull(entityType, "Entity type should not be null");
+        QuantileSketch sketch = sketches.get(key(settledDate.toEpochDay(), direction, entityType));
+        return sketch == null ? QuantileSketch.of(relativeAccuracy, maxBins) : sketch.copy();
+    }
+
+    /*
+     *  Sketch of every entity type of the settlement date and direction merged together.
+     */
+    public QuantileSketch sketch(final LocalDate settledDate, final Direction direction) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkNotNull(direction, "Direction should not be null");
+        QuantileSketch merged = QuantileSketch.of(relativeAccuracy, maxBins);
+        for (EntityType entityType : ENTITY_TYPES) {
+            QuantileSketch sketch = sketches.get(key(settledDate.toEpochDay(), direction, entityType));
+            if (sketch != null) {
+                merged.merge(sketch);
+            }
+        }
+        return merged;
+    }
+
+    /*
+     *  Trade amount at or below which the given fraction of the group's amounts fall, within the relative accuracy.
+     *  Zero when no instruction falls in the group.
+     */
+    public double quantile(final LocalDate settledDate, final Direction direction, final EntityType entityType, final double fraction) {
+        checkNotNull(settledDate, "Settled date should not be null");
+        checkNotNull(direction, "Direction should not be null");
+        checkNotNull(entityType, "Entity type should not be null");
+        checkArgument(fraction >= 0 && fraction <= 1, "Quantile should be between 0 and 1");
+        QuantileSketch sketch = sketches.get(key(settledDate.toEpochDay(), direction, entityType));
+        return sketch == null ? 0 : sketch.quantile(fraction);
+    }
+
+    /*
+     *  Settlement dates with at least one instruction, in ascending order.
+     */
+    public SortedSet<LocalDate> getSettlementDates() {
+        SortedSet<LocalDate> settlementDates = new TreeSet<>();
+        for (long key : sketches.keySet()) {
+            settlementDates.add(LocalDate.ofEpochDay(key >> 8));
+        }
+        return Collections.unmodifiableSortedSet(settlementDates);
+    }
+
+    private QuantileSketch sketchOf(final long key) {
+        QuantileSketch sketch = sketches.get(key);
+        if (sketch == null) {
+            sketch = QuantileSketch.of(relativeAccuracy, maxBins);
+            sketches.put(key, sketch);
+        }
+        return sketch;
+    }
+
+    private static long key(final long settlementEpochDay, final Direction direction, final EntityType entityType) {
+        return settlementEpochDay << 8 | direction.ordinal() << 4 | entityType.ordinal();
+    }
+
+    /*
+     *  The trade amount as a double, from the unscaled values unless they or their product overflow a long.
+     */
+    private static double tradeAmount(final TradingInstructionView tradingInstruction) {
+        if (tradingInstruction.hasLongUnscaledValues()) {
+            try {
+                long unscaled = Math.multiplyExact(Math.multiplyExact(tradingInstruction.getUnscaledPricePerUnit(), tradingInstruction.getUnscaledRate()),
+                        (long) tradingInstruction.getNumberOfUnits());
+                return unscaled / Math.pow(10, tradingInstruction.getPriceScale() + tradingInstruction.getRateScale());
+            } catch (ArithmeticException productOverflow) {
+                // Falls back to BigDecimal below.
+            }
+        }
+        return tradingInstruction.determineTradeAmount().doubleValue();
+    }
+
+    public static class Builder {
+
+        private double relativeAccuracy = 0.01;
+        private int maxBins = 2048;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  Relative accuracy of the quantiles, 0.01 by default.
+         */
+        public Builder withRelativeAccuracy(final double relativeAccuracy) {
+            this.relativeAccuracy = relativeAccuracy;
+            return this;
+        }
+
+        /*
+         *  Maximum number of bins per group, 2048 by default, enough for amounts spanning more than seventeen orders of
+         *  magnitude at the default accuracy.
+         */
+        public Builder withMaxBins(final int maxBins) {
+            this.maxBins = maxBins;
+            return this;
+        }
+
+        public TradeAmountDistribution build() {
+            checkArgument(relativeAccuracy >= 1e-6 && relativeAccuracy < 1, "Relative accuracy should be between 1e-6 and 1");
+            checkArgument(maxBins > 0, "Maximum number of bins should be greater than zero");
+            return new TradeAmountDistribution(this);
+        }
+    }
+}
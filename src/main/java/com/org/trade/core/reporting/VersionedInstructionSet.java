@@ -0,0 +1,183 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/*
+ *  Append only set of instructions that can be read at a consistent point in time while writers keep appending.
+ *
+ *  Instructions are stored in fixed size chunks that are never moved or overwritten once filled. Each append
+ *  publishes a new version, the chunk directory and the number of instructions, through a single volatile write.
+ *  A {@link Snapshot} captures one version and reads the chunks in place, so taking a snapshot copies nothing and
+ *  readers never lock: {@code ReportGenerator.of(instructionSet.snapshot())} reports on exactly the instructions
+ *  appended before the snapshot was taken, whatever is appended meanwhile. Writers are serialized among themselves.
+ */
+public final class VersionedInstructionSet implements Consumer<TradingInstruction> {
+
+    private static final int INITIAL_CHUNKS = 16;
+
+    private final int chunkSize;
+    private final int chunkShift;
+    private final int chunkMask;
+
+    private TradingInstruction[][] chunks = new TradingInstruction[INITIAL_CHUNKS][];
+    private int size;
+    private volatile Snapshot snapshot;
+
+    private VersionedInstructionSet(final Builder builder) {
+        chunkSize = builder.chunkSize;
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        snapshot = new Snapshot(chunks, 0, chunkShift, chunkMask);
+    }
+
+    /*
+     *  Appends the instruction and publishes the new version.
+     */
+    public synchronized void append(final TradingInstruction tradingInstruction) {
+        checkNotNull(tradingInstruction, "Trading instruction should not be null");
+        write(tradingInstruction);
+        publish();
+    }
+
+    /*
+     *  Appends the instructions and publishes them as one version, so no snapshot sees only part of them. Returns
+     *  the new version.
+     */
+    public synchronized long appendAll(final Iterable<? extends TradingInstruction> tradingInstructions) {
+        checkNotNull(tradingInstructions, "Trading instructions should not be null");
+        int first = size;
+        try {
+            for (TradingInstruction tradingInstruction : tradingInstructions) {
+                checkNotNull(tradingInstruction, "Trading instruction should not be null");
+                write(tradingInstruction);
+            }
+        } catch (RuntimeException e) {
+            size = first;
+            throw e;
+        }
+        publish();
+        return size;
+    }
+
+    @Override
+    public void accept(final TradingInstruction tradingInstruction) {
+        append(tradingInstruction);
+    }
+
+    /*
+     *  The instructions of the latest published version, without copying them.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /*
+     *  Latest published version, the number of instructions appended so far.
+     */
+    public long getVersion() {
+        return snapshot.size();
+    }
+
+    private void write(final TradingInstruction tradingInstruction) {
+        checkState(size < Integer.MAX_VALUE, "Instruction set is full");
+        int chunk = size >>> chunkShift;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new TradingInstruction[chunkSize];
+        }
+        chunks[chunk][size & chunkMask] = tradingInstruction;
+        size++;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(chunks, size, chunkShift, chunkMask);
+    }
+
+    /*
+     *  Immutable list of the instructions of one version, in append order. Slots past the version's size may be
+     *  filled by later appends but are never read.
+     */
+    public static final class Snapshot extends AbstractList<TradingInstruction> implements RandomAccess {
+
+        private final TradingInstruction[][] chunks;
+        private final int size;
+        private final int chunkShift;
+        private final int chunkMask;
+
+        private Snapshot(final TradingInstruction[][] chunks, final int size, final int chunkShift, final int chunkMask) {
+            this.chunks = chunks;
+            this.size = size;
+            this.chunkShift = chunkShift;
+            this.chunkMask = chunkMask;
+        }
+
+        /*
+         *  Version the snapshot was taken at, equal to its size.
+         */
+        public long getVersion() {
+            return size;
+        }
+
+        @Override
+        public TradingInstruction get(final int index) {
+            checkElementIndex(index, size);
+            return chunks[index >>> chunkShift][index & chunkMask];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void forEach(final Consumer<? super TradingInstruction> action) {
+            checkNotNull(action, "Consumer should not be null");
+            int remaining = size;
+            for (int chunk = 0; remaining > 0; chunk++) {
+                TradingInstruction[] tradingInstructions = chunks[chunk];
+                int count = Math.min(remaining, tradingInstructions.length);
+                for (int i = 0; i < count; i++) {
+                    action.accept(tradingInstructions[i]);
+                }
+                remaining -= count;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int chunkSize = 4096;
+
+        private Builder() {
+        }
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        /*
+         *  Number of instructions per chunk, a power of two, 4096 by default.
+         */
+        public Builder withChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public VersionedInstructionSet build() {
+            checkArgument(chunkSize > 0 && Integer.bitCount(chunkSize) == 1, "Chunk size should be a power of two");
+            return new VersionedInstructionSet(this);
+        }
+    }
+}
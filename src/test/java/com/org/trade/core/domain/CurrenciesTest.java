@@ -0,0 +1,102 @@
+package com.org.trade.core.domain;
+
+import com.org.trade.core.domain.calendar.BusinessCalendar;
+import com.org.trade.core.domain.calendar.BusinessCalendars;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CurrenciesTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_exception_when_code_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Currency should not be null");
+        Currencies.of(null);
+    }
+
+    @Test
+    public void expect_one_canonical_currency_per_code() {
+        assertThat(Currencies.of("sar"), is(sameInstance(Currencies.SAR)));
+        assertThat(Currencies.of(" Gbp "), is(sameInstance(Currencies.GBP)));
+        assertThat(Currencies.byId(Currencies.AED.getId()), is(sameInstance(Currencies.AED)));
+    }
+
+    @Test
+    public void expect_currency_to_carry_weekend_and_precision() {
+        assertThat(Currencies.AED.getWeekend(), is(Weekend.FRI_SAT));
+        assertThat(Currencies.SAR.getWeekend(), is(Weekend.FRI_SAT));
+        assertThat(Currencies.USD.getWeekend(), is(Weekend.SAT_SUN));
+        assertThat(Currencies.JPY.getDecimalPrecision(), is(0));
+        assertThat(Currencies.of("KWD").getDecimalPrecision(), is(3));
+    }
+
+    @Test
+    public void expect_unknown_and_blank_codes_not_to_be_found_or_registered() {
+        int size = Currencies.size();
+        assertThat(Currencies.find("XYZ").isPresent(), is(false));
+        assertThat(Currencies.find(" ").isPresent(), is(false));
+        assertThat(Currencies.find(" Gbp ").get(), is(sameInstance(Currencies.GBP)));
+        assertThat(Currencies.size(), is(size));
+    }
+
+    @Test
+    public void expect_iso_code_registered_on_first_lookup_with_iso_precision() {
+        TradeCurrency currency = Currencies.of("mxn");
+        assertThat(currency.getCode(), is("MXN"));
+        assertThat(currency.getWeekend(), is(Weekend.SAT_SUN));
+        assertThat(currency.getDecimalPrecision(), is(2));
+        assertThat(Currencies.of("MXN"), is(sameInstance(currency)));
+        assertThat(Currencies.byId(currency.getId()), is(sameInstance(currency)));
+        assertThat(Currencies.of("CLP").getDecimalPrecision(), is(0));
+    }
+
+    @Test
+    public void expect_holiday_calendar_installed_for_preregistered_currency() {
+        BusinessCalendar businessCalendar = BusinessCalendar.Builder.newBuilder()
+                .withWeekend(Weekend.SAT_SUN)
+                .withHoliday(LocalDate.of(2017, 8, 28))
+                .build();
+        TradeCurrency currency = Currencies.installCalendar("CHF", businessCalendar);
+        try {
+            assertThat(currency, is(sameInstance(Currencies.CHF)));
+            assertThat(Currencies.CHF.getBusinessCalendar().nextBusinessDay(LocalDate.of(2017, 8, 26)), is(LocalDate.of(2017, 8, 29)));
+        } finally {
+            Currencies.installCalendar("CHF", BusinessCalendars.forWeekend(Weekend.SAT_SUN));
+        }
+    }
+
+    @Test
+    public void expect_exception_when_code_is_not_registered() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Currency GPB is not registered");
+        Currencies.of("GPB");
+    }
+
+    @Test
+    public void expect_currency_registered_with_holiday_calendar() {
+        BusinessCalendar businessCalendar = BusinessCalendar.Builder.newBuilder()
+                .withWeekend(Weekend.SAT_SUN)
+                .withHoliday(LocalDate.of(2017, 8, 28))
+                .build();
+        TradeCurrency currency = Currencies.register("XTH", businessCalendar, 2);
+        assertThat(Currencies.register("xth", businessCalendar, 2), is(sameInstance(currency)));
+        assertThat(currency.getBusinessCalendar().nextBusinessDay(LocalDate.of(2017, 8, 26)), is(LocalDate.of(2017, 8, 29)));
+    }
+
+    @Test
+    public void expect_exception_when_currency_registered_again_with_different_rules() {
+        expectedEx.expect(IllegalStateException.class);
+        expectedEx.expectMessage("Currency AED is already registered with different rules");
+        Currencies.register("AED", Weekend.SAT_SUN, 2);
+    }
+}
@@ -0,0 +1,72 @@
+package com.org.trade.core.domain;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FixedPointSumTest {
+
+    @Test
+    public void expect_empty_sum_to_be_zero() {
+        FixedPointSum sum = new FixedPointSum();
+
+        assertThat(sum.isEmpty(), is(true));
+        assertThat(sum.toBigDecimal(), is(BigDecimal.ZERO));
+    }
+
+    @Test
+    public void expect_sum_to_keep_the_largest_scale() {
+        FixedPointSum sum = new FixedPointSum().add(1200, 1).add(10600, 2);
+
+        assertThat(sum.toBigDecimal(), is(new BigDecimal("226.00")));
+        assertThat(sum.toBigDecimal(), is(reduce(new BigDecimal("120.0"), new BigDecimal("106.00"))));
+    }
+
+    @Test
+    public void expect_trade_amount_to_equal_determineTradeAmount() {
+        FixedPointSum sum = new FixedPointSum().addTradeAmount(10050, 2, 50, 2, 200);
+
+        assertThat(sum.toBigDecimal(), is(new BigDecimal("100.50").multiply(new BigDecimal("0.50")).multiply(new BigDecimal(200))));
+    }
+
+    @Test
+    public void expect_overflowing_sum_to_equal_BigDecimal_reduce() {
+        FixedPointSum sum = new FixedPointSum().add(Long.MAX_VALUE, 2).add(Long.MAX_VALUE, 2).add(1, 3);
+
+        assertThat(sum.toBigDecimal(), is(reduce(BigDecimal.valueOf(Long.MAX_VALUE, 2), BigDecimal.valueOf(Long.MAX_VALUE, 2),
+                BigDecimal.valueOf(1, 3))));
+    }
+
+    @Test
+    public void expect_overflowing_rescale_to_equal_BigDecimal_reduce() {
+        FixedPointSum sum = new FixedPointSum().add(Long.MAX_VALUE / 10, 0).add(5, 2);
+
+        assertThat(sum.toBigDecimal(), is(reduce(BigDecimal.valueOf(Long.MAX_VALUE / 10), BigDecimal.valueOf(5, 2))));
+    }
+
+    @Test
+    public void expect_overflowing_trade_amount_to_equal_determineTradeAmount() {
+        FixedPointSum sum = new FixedPointSum().addTradeAmount(Long.MAX_VALUE, 2, 3, 1, 7);
+
+        assertThat(sum.toBigDecimal(), is(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(new BigDecimal("0.3")).multiply(new BigDecimal(7))));
+    }
+
+    @Test
+    public void expect_merged_sums_to_equal_one_sum() {
+        FixedPointSum left = new FixedPointSum().add(1200, 1);
+        FixedPointSum right = new FixedPointSum().add(10600, 2).add(Long.MAX_VALUE, 0);
+
+        assertThat(left.add(right).add(new FixedPointSum()).toBigDecimal(),
+                is(new FixedPointSum().add(1200, 1).add(10600, 2).add(Long.MAX_VALUE, 0).toBigDecimal()));
+    }
+
+    private static BigDecimal reduce(final BigDecimal... values) {
+        List<BigDecimal> list = Arrays.asList(values);
+        return list.stream().reduce(BigDecimal::add).orElse(BigDecimal.ZERO);
+    }
+}
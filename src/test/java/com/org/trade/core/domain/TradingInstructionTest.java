@@ -1,14 +1,19 @@
 package com.org.trade.core.domain;
 
+import com.google.common.base.Objects;
+import com.org.trade.core.domain.calendar.BusinessCalendar;
 import com.org.trade.core.domain.util.DateUtil;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
 
 import static com.org.trade.core.domain.fixture.HappyPathBuilder.buildTradingInstruction;
 
@@ -154,4 +159,133 @@ public class TradingInstructionTest {
         BigDecimal tradeAmount = buildTradingInstruction().build().determineTradeAmount();
         assertThat(tradeAmount, is(new BigDecimal("240.00")));
     }
+
+    @Test
+    public void expect_settlement_date_pushed_considering_holidays_of_the_business_calendar() {
+        LocalDate holidayOnMonday = LocalDate.of(2017, 8, 14);
+        BusinessCalendar businessCalendar = BusinessCalendar.Builder.newBuilder()
+                .withWeekend(Weekend.SAT_SUN)
+                .withHoliday(holidayOnMonday)
+                .build();
+        TradingInstruction tradingInstruction = buildTradingInstruction().withSettlementDate(LocalDate.of(2017, 8, 12))
+                .withBusinessCalendar(businessCalendar)
+                .build();
+        assertThat(tradingInstruction.getSettlementDate(), is(LocalDate.of(2017, 8, 15)));
+    }
+
+    @Test
+    public void expect_currency_resolved_to_canonical_currency_ignoring_case() {
+        TradingInstruction tradingInstruction = buildTradingInstruction().withSettlementDate(LocalDate.of(2017, 8, 11))
+                .withCurrency("aed")
+                .build();
+        assertThat(tradingInstruction.getCurrency(), is(Currencies.AED));
+        assertThat(tradingInstruction.getSettlementDate(), is(LocalDate.of(2017, 8, 13)));
+        assertThat(buildTradingInstruction().withTradeCurrency(Currencies.GBP).build(), is(buildTradingInstruction().build()));
+    }
+
+    @Test
+    public void expect_tradingInstruction_doesnot_builds_when_currency_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Currency should not be null");
+        buildTradingInstruction().withTradeCurrency(null).build();
+    }
+
+    @Test
+    public void expect_validate_to_return_null_for_valid_builder() {
+        assertThat(buildTradingInstruction().validate(), is(nullValue()));
+        assertThat(buildTradingInstruction().validateAll().isEmpty(), is(true));
+    }
+
+    @Test
+    public void expect_validate_to_report_first_failure_with_build_message() {
+        ValidationFailure failure = buildTradingInstruction().withNumberOfUnits(0).withPricePerUnit(null).validate();
+        assertThat(failure, is(ValidationFailure.NON_POSITIVE_NUMBER_OF_UNITS));
+        assertThat(failure.getMessage(), is("No of units should be greater than zero"));
+    }
+
+    @Test
+    public void expect_validateAll_to_report_every_failure() {
+        assertThat(buildTradingInstruction().withDirection(null).withAgreedFxRate(BigDecimal.ZERO).withTradeCurrency(null)
+                        .withPricePerUnit(BigDecimal.ONE.negate()).validateAll(),
+                is(EnumSet.of(ValidationFailure.MISSING_DIRECTION, ValidationFailure.NON_POSITIVE_AGREED_FX_RATE,
+                        ValidationFailure.MISSING_CURRENCY, ValidationFailure.NON_POSITIVE_PRICE_PER_UNIT)));
+    }
+
+    @Test
+    public void expect_blank_or_unregistered_currency_to_be_rejected_without_throwing() {
+        assertThat(buildTradingInstruction().withCurrency(" ").validate(), is(ValidationFailure.UNKNOWN_CURRENCY));
+        assertThat(buildTradingInstruction().withCurrency("GPB").validateAll(), is(EnumSet.of(ValidationFailure.UNKNOWN_CURRENCY)));
+        assertThat(buildTradingInstruction().withCurrency("PLN").validate(), is(nullValue()));
+        assertThat(buildTradingInstruction().withCurrency("brl").build().getCurrency().getCode(), is("BRL"));
+        BatchBuildResult result = TradingInstruction.Builder.buildAll(Arrays.asList(buildTradingInstruction().withCurrency("")));
+        assertThat(result.getAccepted().isEmpty(), is(true));
+        assertThat(result.getRejects(), is(Arrays.asList(new BuildReject(0, EnumSet.of(ValidationFailure.UNKNOWN_CURRENCY)))));
+    }
+
+    @Test
+    public void expect_tradingInstruction_doesnot_builds_when_currency_is_not_registered() {
+        expectedEx.expect(IllegalStateException.class);
+        expectedEx.expectMessage("Currency should be a registered or ISO 4217 currency code");
+        buildTradingInstruction().withCurrency("GPB").build();
+    }
+
+    @Test
+    public void expect_buildAll_to_split_accepted_and_rejected() {
+        BatchBuildResult result = TradingInstruction.Builder.buildAll(Arrays.asList(
+                buildTradingInstruction(),
+                buildTradingInstruction().withEntityType(null),
+                buildTradingInstruction().withDirection(Direction.SELL),
+                buildTradingInstruction().withSettlementDate(null).withNumberOfUnits(-1)));
+
+        assertThat(result.getAccepted(), is(Arrays.asList(buildTradingInstruction().build(),
+                buildTradingInstruction().withDirection(Direction.SELL).build())));
+        assertThat(result.getRejects(), is(Arrays.asList(
+                new BuildReject(1, EnumSet.of(ValidationFailure.MISSING_ENTITY_TYPE)),
+                new BuildReject(3, EnumSet.of(ValidationFailure.MISSING_SETTLEMENT_DATE, ValidationFailure.NON_POSITIVE_NUMBER_OF_UNITS)))));
+    }
+
+    @Test
+    public void expect_hashCode_to_match_objects_hashCode_of_fields() {
+        TradingInstruction tradingInstruction = buildTradingInstruction().build();
+        assertThat(tradingInstruction.hashCode(), is(Objects.hashCode(tradingInstruction.getEntityType(),
+                tradingInstruction.getDirection(), tradingInstruction.getRate(), tradingInstruction.getCurrency(),
+                tradingInstruction.getInstructionDate(), tradingInstruction.getSettlementDate(),
+                tradingInstruction.getNumberOfUnits(), tradingInstruction.getPricePerUnit())));
+        assertThat(tradingInstruction.hashCode(), is(buildTradingInstruction().build().hashCode()));
+    }
+
+    @Test
+    public void expect_fingerprint_to_be_equal_for_equal_instructions_only() {
+        assertThat(buildTradingInstruction().build().fingerprint(), is(buildTradingInstruction().build().fingerprint()));
+        assertThat(buildTradingInstruction().build().fingerprint() == buildTradingInstruction().withNumberOfUnits(201).build().fingerprint(),
+                is(false));
+        assertThat(buildTradingInstruction().build().fingerprint() == buildTradingInstruction().withDirection(Direction.SELL).build().fingerprint(),
+                is(false));
+    }
+
+    @Test
+    public void expect_unscaled_values_to_be_flagged_when_they_do_not_fit_a_long() {
+        TradingInstruction tradingInstruction = buildTradingInstruction().build();
+        assertThat(tradingInstruction.hasLongUnscaledValues(), is(true));
+        assertThat(BigDecimal.valueOf(tradingInstruction.getUnscaledPricePerUnit(), tradingInstruction.getPriceScale()),
+                is(tradingInstruction.getPricePerUnit()));
+
+        TradingInstruction largePrice = buildTradingInstruction().withPricePerUnit(new BigDecimal("123456789012345678901234.5")).build();
+        assertThat(largePrice.hasLongUnscaledValues(), is(false));
+        FixedPointSum sum = new FixedPointSum();
+        largePrice.addTradeAmountTo(sum);
+        assertThat(sum.toBigDecimal(), is(largePrice.determineTradeAmount()));
+    }
+
+    @Test
+    public void expect_fingerprint_to_differ_for_prices_and_rates_with_equal_hashCode() {
+        BigDecimal price = new BigDecimal("42949672.96");
+        BigDecimal otherPrice = new BigDecimal("0.31");
+        assertThat(price.hashCode(), is(otherPrice.hashCode()));
+
+        assertThat(buildTradingInstruction().withPricePerUnit(price).build().fingerprint()
+                == buildTradingInstruction().withPricePerUnit(otherPrice).build().fingerprint(), is(false));
+        assertThat(buildTradingInstruction().withAgreedFxRate(price).build().fingerprint()
+                == buildTradingInstruction().withAgreedFxRate(otherPrice).build().fingerprint(), is(false));
+    }
 }
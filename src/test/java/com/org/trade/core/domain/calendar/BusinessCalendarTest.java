@@ -0,0 +1,104 @@
+package com.org.trade.core.domain.calendar;
+
+import com.org.trade.core.domain.Weekend;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class BusinessCalendarTest {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2017, 8, 11);
+    private static final LocalDate SATURDAY = LocalDate.of(2017, 8, 12);
+    private static final LocalDate MONDAY = LocalDate.of(2017, 8, 14);
+    private static final LocalDate TUESDAY = LocalDate.of(2017, 8, 15);
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void expect_exception_when_weekend_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Weekend should not be null");
+        BusinessCalendar.Builder.newBuilder().build();
+    }
+
+    @Test
+    public void expect_same_instance_when_date_is_a_business_day() {
+        assertThat(BusinessCalendars.forWeekend(Weekend.SAT_SUN).nextBusinessDay(TUESDAY), is(sameInstance(TUESDAY)));
+        assertThat(BusinessCalendars.forWeekend(Weekend.FRI_SAT).isBusinessDay(FRIDAY), is(false));
+    }
+
+    @Test
+    public void expect_weekend_calendars_to_match_walking_day_by_day() {
+        for (Weekend weekend : Weekend.values()) {
+            BusinessCalendar businessCalendar = BusinessCalendars.forWeekend(weekend);
+            for (LocalDate date = LocalDate.of(2016, 12, 1); date.isBefore(LocalDate.of(2018, 2, 1)); date = date.plusDays(1)) {
+                LocalDate expected = date;
+                while (weekend.getWeekendDays().contains(expected.getDayOfWeek())) {
+                    expected = expected.plusDays(1);
+                }
+                assertThat(businessCalendar.nextBusinessDay(date), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void expect_holidays_to_be_skipped_together_with_the_weekend() {
+        BusinessCalendar businessCalendar = BusinessCalendar.Builder.newBuilder()
+                .withWeekend(Weekend.SAT_SUN)
+                .withHoliday(MONDAY)
+                .build();
+        assertThat(businessCalendar.nextBusinessDay(SATURDAY), is(TUESDAY));
+        assertThat(businessCalendar.nextBusinessDay(MONDAY), is(TUESDAY));
+        assertThat(businessCalendar.nextBusinessDay(FRIDAY), is(FRIDAY));
+    }
+
+    @Test
+    public void expect_dates_outside_the_table_range_to_be_resolved() {
+        BusinessCalendar businessCalendar = BusinessCalendar.Builder.newBuilder()
+                .withWeekend(Weekend.SAT_SUN)
+                .withRange(MONDAY, MONDAY.plusDays(10))
+                .build();
+        assertThat(businessCalendar.nextBusinessDay(SATURDAY), is(MONDAY));
+        assertThat(businessCalendar.nextBusinessDay(SATURDAY.plusWeeks(3)), is(MONDAY.plusWeeks(3)));
+    }
+
+    @Test
+    public void expect_calendars_with_same_definition_to_be_shared() {
+        BusinessCalendar first = BusinessCalendar.Builder.newBuilder().withWeekend(Weekend.FRI_SAT).withHolidays(Arrays.asList(MONDAY, TUESDAY)).build();
+        BusinessCalendar second = BusinessCalendar.Builder.newBuilder().withWeekend(Weekend.FRI_SAT).withHolidays(Arrays.asList(TUESDAY, MONDAY)).build();
+        assertThat(first, is(sameInstance(second)));
+        assertThat(BusinessCalendar.Builder.newBuilder().withWeekend(Weekend.SAT_SUN).build(), is(sameInstance(BusinessCalendars.forWeekend(Weekend.SAT_SUN))));
+    }
+
+    @Test
+    public void expect_holidays_to_be_loaded_from_a_file() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, "# UK bank holidays\n2017-08-28\n\n2017-12-25\n".getBytes(StandardCharsets.UTF_8));
+        assertThat(BusinessCalendars.loadHolidays(path), is(Arrays.asList(LocalDate.of(2017, 8, 28), LocalDate.of(2017, 12, 25))));
+    }
+
+    @Test
+    public void expect_exception_when_holiday_file_has_invalid_date() throws IOException {
+        expectedEx.expect(IOException.class);
+        expectedEx.expectMessage("Invalid holiday on line 2");
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, "2017-08-28\n28/08/2017\n".getBytes(StandardCharsets.UTF_8));
+        BusinessCalendars.loadHolidays(path);
+    }
+}
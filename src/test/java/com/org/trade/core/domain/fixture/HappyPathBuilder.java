@@ -16,6 +16,11 @@ public class HappyPathBuilder {
 
     public static LocalDate AUGUST_FOURTEEN_2017 = LocalDate.of(2017, 8, 14);
 
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final String[] CURRENCIES = {"GBP", "USD", "SAR", "AED"};
+    private static final BigDecimal[] RATES = {new BigDecimal(".50"), new BigDecimal("1.2"), new BigDecimal("0.25")};
+    private static final int SETTLEMENT_DAYS = 30;
+
     public static Builder buildTradingInstruction() {
         return newBuilder().withEntityType(EntityType.OIL)
                 .withDirection(Direction.BUY)
@@ -34,6 +39,34 @@ public class HappyPathBuilder {
         return tradingInstructions;
     }
 
+    /*
+     *  Scaled-up version of the happy path: the given number of instructions with alternating directions and
+     *  entity types, a mix of currencies and rates, and settlement dates spread over thirty days (weekends
+     *  included) starting on {@link #AUGUST_FOURTEEN_2017}. The output is deterministic for a given count.
+     */
+    public static List<TradingInstruction> buildTradingInstructions(final int count) {
+        ArrayList<TradingInstruction> tradingInstructions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tradingInstructions.add(buildTradingInstruction(i).build());
+        }
+        return tradingInstructions;
+    }
+
+    /*
+     *  Builder for the i-th instruction of {@link #buildTradingInstructions(int)}.
+     */
+    public static Builder buildTradingInstruction(final int i) {
+        return buildTradingInstruction()
+                .withDirection(i % 2 == 0 ? Direction.BUY : Direction.SELL)
+                .withEntityType(ENTITY_TYPES[(i / 2) % ENTITY_TYPES.length])
+                .withCurrency(CURRENCIES[(i / 7) % CURRENCIES.length])
+                .withAgreedFxRate(RATES[(i / 3) % RATES.length])
+                .withInstructionDate(AUGUST_FOURTEEN_2017)
+                .withSettlementDate(AUGUST_FOURTEEN_2017.plusDays((i / 5) % SETTLEMENT_DAYS))
+                .withNumberOfUnits(1 + i % 100)
+                .withPricePerUnit(BigDecimal.valueOf(4800 + i % 1300, 2));
+    }
+
     private static List<TradingInstruction> buildBuyTradingInstructions(Direction direction) {
         ArrayList<TradingInstruction> tradingInstructions = new ArrayList<>();
         Builder builder = buildTradingInstruction().withSettlementDate(AUGUST_FOURTEEN_2017);
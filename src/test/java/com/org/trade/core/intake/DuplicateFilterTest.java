@@ -0,0 +1,93 @@
+package com.org.trade.core.intake;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DuplicateFilterTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_resent_instructions_to_be_dropped() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(10_000);
+        DuplicateFilter duplicateFilter = DuplicateFilter.Builder.newBuilder().withCapacity(20_000).build();
+        List<TradingInstruction> accepted = new ArrayList<>();
+
+        tradingInstructions.forEach(duplicateFilter.filtering(accepted::add));
+        HappyPathBuilder.buildTradingInstructions(10_000).forEach(duplicateFilter.filtering(accepted::add));
+
+        assertThat(accepted, is(tradingInstructions));
+        assertThat(duplicateFilter.getDuplicateCount(), is(10_000L));
+    }
+
+    @Test
+    public void expect_instructions_to_be_forgotten_after_two_windows() {
+        MutableClock clock = new MutableClock();
+        DuplicateFilter duplicateFilter = DuplicateFilter.Builder.newBuilder().withWindow(Duration.ofMinutes(1)).withClock(clock).build();
+        TradingInstruction tradingInstruction = HappyPathBuilder.buildTradingInstruction().build();
+
+        assertThat(duplicateFilter.firstSeen(tradingInstruction), is(true));
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(duplicateFilter.firstSeen(tradingInstruction), is(false));
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(duplicateFilter.firstSeen(tradingInstruction), is(false));
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(duplicateFilter.firstSeen(tradingInstruction), is(true));
+    }
+
+    @Test
+    public void expect_memory_to_stay_bounded_by_capacity() {
+        DuplicateFilter duplicateFilter = DuplicateFilter.Builder.newBuilder().withCapacity(100).build();
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(1_000);
+        tradingInstructions.forEach(duplicateFilter::firstSeen);
+
+        assertThat(duplicateFilter.firstSeen(tradingInstructions.get(999)), is(false));
+        assertThat(duplicateFilter.firstSeen(tradingInstructions.get(0)), is(true));
+    }
+
+    @Test
+    public void expect_exception_when_window_is_zero() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Window should be greater than zero");
+        DuplicateFilter.Builder.newBuilder().withWindow(Duration.ZERO).build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2017-08-14T09:00:00Z");
+
+        private void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
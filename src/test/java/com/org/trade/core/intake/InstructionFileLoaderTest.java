@@ -0,0 +1,118 @@
+package com.org.trade.core.intake;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import com.org.trade.core.reporting.ColumnarInstructionStore;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InstructionFileLoaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_lines_to_be_loaded_as_trading_instructions() throws IOException {
+        Path path = write("OIL,BUY,.50,GBP,2017-08-14,2017-08-12,10,48\r\n",
+                "GOLD,SELL,1.2,AED,2017-08-14,2017-08-11,20,48.00");
+        List<TradingInstruction> tradingInstructions = new ArrayList<>();
+        LoadReport loadReport = InstructionFileLoader.Builder.newBuilder().build().load(path, tradingInstructions);
+
+        assertThat(loadReport.getAcceptedCount(), is(2L));
+        assertThat(loadReport.getRejectedCount(), is(0L));
+        assertThat(loadReport.getBytesRead(), is(Files.size(path)));
+        assertThat(tradingInstructions.get(0), is(HappyPathBuilder.buildTradingInstruction()
+                .withInstructionDate(HappyPathBuilder.AUGUST_FOURTEEN_2017)
+                .withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017.minusDays(2))
+                .build()));
+        assertThat(tradingInstructions.get(1).getSettlementDate(), is(HappyPathBuilder.AUGUST_FOURTEEN_2017.minusDays(1)));
+        assertThat(tradingInstructions.get(1).determineTradeAmount(), is(new BigDecimal("1152.000")));
+    }
+
+    @Test
+    public void expect_bad_lines_to_be_rejected_with_their_line_number() throws IOException {
+        Path path = write("entityType,direction,agreedFxRate,currency,instructionDate,settlementDate,numberOfUnits,pricePerUnit\n",
+                "OIL,BUY,.50,GBP,2017-08-14,2017-08-14,10,48\n",
+                "\n",
+                "SILVER,BUY,.50,GBP,2017-08-14,2017-08-14,10,48\n",
+                "OIL,BUY,.50,GBP,2017-02-30,2017-08-14,10,48\n",
+                "OIL,BUY,.50,GBP,2017-08-14,2017-08-14,0,48\n",
+                "OIL,BUY,abc,GBP,2017-08-14,2017-08-14,10,48\n",
+                "OIL,BUY,.50,GBP,2017-08-14\n",
+                "OIL,BUY,.50,GPB,2017-08-14,2017-08-14,10,48\n",
+                "OIL,SELL,.50,GBP,2017-08-14,2017-08-14,10,48\n");
+        List<TradingInstruction> tradingInstructions = new ArrayList<>();
+        LoadReport loadReport = InstructionFileLoader.Builder.newBuilder().withHeaderLine(true).build().load(path, tradingInstructions);
+
+        assertThat(tradingInstructions.size(), is(2));
+        assertThat(loadReport.getAcceptedCount(), is(2L));
+        assertThat(loadReport.getRejectedCount(), is(6L));
+        assertThat(loadReport.getRejects(), is(Arrays.asList(
+                new Reject(4, "Unknown entity type"),
+                new Reject(5, "Invalid instruction date"),
+                new Reject(6, "No of units should be greater than zero"),
+                new Reject(7, "Invalid agreed FX rate"),
+                new Reject(8, "Expected 8 fields but found 5"),
+                new Reject(9, "Invalid currency"))));
+    }
+
+    @Test
+    public void expect_lines_across_mapping_chunks_to_be_loaded_into_a_store() throws IOException {
+        List<TradingInstruction> expected = HappyPathBuilder.buildTradingInstructions(2_000);
+        StringBuilder content = new StringBuilder();
+        for (TradingInstruction tradingInstruction : expected) {
+            content.append(tradingInstruction.getEntityType()).append(';')
+                    .append(tradingInstruction.getDirection()).append(';')
+                    .append(tradingInstruction.getRate().toPlainString()).append(';')
+                    .append(tradingInstruction.getCurrency()).append(';')
+                    .append(tradingInstruction.getInstructionDate()).append(';')
+                    .append(tradingInstruction.getSettlementDate()).append(';')
+                    .append(tradingInstruction.getNumberOfUnits()).append(';')
+                    .append(tradingInstruction.getPricePerUnit().toPlainString()).append('\n');
+        }
+        Path path = write(content.toString());
+        ColumnarInstructionStore.Builder storeBuilder = ColumnarInstructionStore.Builder.newBuilder();
+        LoadReport loadReport = InstructionFileLoader.Builder.newBuilder().withDelimiter(';').withChunkSize(4096).build()
+                .load(path, storeBuilder);
+
+        assertThat(loadReport.getAcceptedCount(), is((long) expected.size()));
+        ColumnarInstructionStore instructionStore = storeBuilder.build();
+        for (int row = 0; row < expected.size(); row++) {
+            assertThat(instructionStore.tradingInstruction(row), is(expected.get(row)));
+        }
+        assertThat(ReportGenerator.ofStore(instructionStore).calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(ReportGenerator.of(expected).calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_exception_when_a_line_is_longer_than_a_chunk() throws IOException {
+        expectedEx.expect(IOException.class);
+        expectedEx.expectMessage("Line 1 is longer than the mapping chunk of 8 bytes");
+        Path path = write("OIL,BUY,.50,GBP,2017-08-14,2017-08-14,10,48\n", "OIL,BUY,.50,GBP,2017-08-14,2017-08-14,10,48\n");
+        InstructionFileLoader.Builder.newBuilder().withChunkSize(8).build().load(path, new ArrayList<>());
+    }
+
+    private Path write(final String... lines) throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, String.join("", lines).getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+}
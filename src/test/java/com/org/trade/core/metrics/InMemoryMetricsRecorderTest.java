@@ -0,0 +1,115 @@
+package com.org.trade.core.metrics;
+
+import com.org.trade.core.domain.BatchBuildResult;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class InMemoryMetricsRecorderTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @After
+    public void disableMetrics() {
+        Metrics.disable();
+    }
+
+    @Test
+    public void expect_counters_and_histograms_in_snapshot() {
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        recorder.increment(Metric.INSTRUCTIONS_BUILT);
+        recorder.add(Metric.INSTRUCTIONS_BUILT, 4);
+        for (long value = 1; value <= 1000; value++) {
+            recorder.record(Metric.REPORT_TOTAL_NANOS, value);
+        }
+
+        MetricsSnapshot snapshot = recorder.snapshot();
+        assertThat(snapshot.counter(Metric.INSTRUCTIONS_BUILT), is(5L));
+        assertThat(snapshot.counter(Metric.INSTRUCTIONS_REJECTED), is(0L));
+        HistogramSnapshot histogram = snapshot.histogram(Metric.REPORT_TOTAL_NANOS);
+        assertThat(histogram.getCount(), is(1000L));
+        assertThat(histogram.getSum(), is(500_500L));
+        assertThat(histogram.getMax(), is(1000L));
+        assertThat(histogram.percentile(1), is(1000L));
+        assertTrue(Math.abs(histogram.percentile(0.5) - 500) <= 500 / 8);
+        assertTrue(Math.abs(histogram.percentile(0.99) - 990) <= 990 / 8);
+        assertThat(snapshot.histogram(Metric.REPORT_SORT_NANOS).percentile(0.99), is(0L));
+    }
+
+    @Test
+    public void expect_histogram_buckets_to_cover_their_values() {
+        for (long value : new long[]{0, 7, 8, 9, 15, 16, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(bucket < Histogram.BUCKETS);
+            assertTrue(Histogram.upperBound(bucket) >= value);
+            assertTrue(bucket == 0 || Histogram.upperBound(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    public void expect_exception_when_recording_a_counter() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Metric INSTRUCTIONS_BUILT is not a histogram");
+        new InMemoryMetricsRecorder().record(Metric.INSTRUCTIONS_BUILT, 1);
+    }
+
+    @Test
+    public void expect_builds_rejects_and_rolls_to_be_counted() {
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.install(recorder);
+
+        HappyPathBuilder.buildTradingInstruction().withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017).build();
+        HappyPathBuilder.buildTradingInstruction().withSettlementDate(LocalDate.of(2017, 8, 12)).build();
+        try {
+            HappyPathBuilder.buildTradingInstruction().withNumberOfUnits(0).build();
+        } catch (IllegalStateException expected) {
+            // counted as a reject
+        }
+        BatchBuildResult result = TradingInstruction.Builder.buildAll(Arrays.asList(
+                HappyPathBuilder.buildTradingInstruction().withEntityType(null)));
+
+        MetricsSnapshot snapshot = recorder.snapshot();
+        assertThat(result.getRejects().size(), is(1));
+        assertThat(snapshot.counter(Metric.INSTRUCTIONS_BUILT), is(2L));
+        assertThat(snapshot.counter(Metric.INSTRUCTIONS_REJECTED), is(2L));
+        assertThat(snapshot.counter(Metric.SETTLEMENT_DATES_ROLLED), is(1L));
+    }
+
+    @Test
+    public void expect_report_queries_to_record_latency_and_scan_size() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions();
+        InMemoryMetricsRecorder recorder = new InMemoryMetricsRecorder();
+        Metrics.install(recorder);
+
+        ReportGenerator reportGenerator = ReportGenerator.of(tradingInstructions);
+        reportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+        reportGenerator.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+        reportGenerator.topIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017, 2);
+
+        MetricsSnapshot snapshot = recorder.snapshot();
+        assertThat(snapshot.histogram(Metric.REPORT_TOTAL_NANOS).getCount(), is(1L));
+        assertThat(snapshot.histogram(Metric.REPORT_SORT_NANOS).getCount(), is(1L));
+        assertThat(snapshot.histogram(Metric.REPORT_RANK_NANOS).getCount(), is(1L));
+        assertThat(snapshot.histogram(Metric.REPORT_SCANNED_INSTRUCTIONS).getCount(), is(3L));
+        assertThat(snapshot.histogram(Metric.REPORT_SCANNED_INSTRUCTIONS).getMax(), is((long) tradingInstructions.size()));
+    }
+
+    @Test
+    public void expect_noop_recorder_by_default() {
+        assertThat(Metrics.recorder(), is(MetricsRecorder.NOOP));
+        assertThat(Metrics.recorder().isEnabled(), is(false));
+    }
+}
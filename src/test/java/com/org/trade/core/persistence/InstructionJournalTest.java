@@ -0,0 +1,188 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import com.org.trade.core.reporting.LiveReportGenerator;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InstructionJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_replay_to_return_appended_instructions_in_order() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(5_000);
+        Path directory = temporaryFolder.newFolder().toPath();
+
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            List<CompletableFuture<Void>> futures = tradingInstructions.stream().map(journal::append).collect(Collectors.toList());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+        }
+
+        List<TradingInstruction> replayed = new ArrayList<>();
+        assertThat(InstructionJournal.replay(directory, replayed::add), is(5_000L));
+        assertThat(replayed, is(tradingInstructions));
+    }
+
+    @Test
+    public void expect_journal_to_roll_segments_and_continue_after_reopen() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(100);
+        Path directory = temporaryFolder.newFolder().toPath();
+
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory)
+                .withSegmentSize(10 * InstructionJournal.FRAME_SIZE).open()) {
+            for (TradingInstruction tradingInstruction : tradingInstructions.subList(0, 50)) {
+                journal.appendAndSync(tradingInstruction);
+            }
+        }
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            for (TradingInstruction tradingInstruction : tradingInstructions.subList(50, 100)) {
+                journal.appendAndSync(tradingInstruction);
+            }
+        }
+
+        assertThat(segmentCount(directory), is(5L));
+        List<TradingInstruction> replayed = new ArrayList<>();
+        InstructionJournal.replay(directory, replayed::add);
+        assertThat(replayed, is(tradingInstructions));
+    }
+
+    @Test
+    public void expect_replay_to_stop_at_torn_tail_and_reopen_to_cut_it() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(10);
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            for (TradingInstruction tradingInstruction : tradingInstructions) {
+                journal.appendAndSync(tradingInstruction);
+            }
+        }
+        Path segment = directory.resolve(String.format("%020d%s", 1, InstructionJournal.SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        List<TradingInstruction> replayed = new ArrayList<>();
+        assertThat(InstructionJournal.replay(directory, replayed::add), is(9L));
+        assertThat(replayed, is(tradingInstructions.subList(0, 9)));
+
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            journal.appendAndSync(tradingInstructions.get(9));
+        }
+        replayed.clear();
+        assertThat(InstructionJournal.replay(directory, replayed::add), is(10L));
+        assertThat(replayed, is(tradingInstructions));
+    }
+
+    @Test
+    public void expect_reopening_without_appends_not_to_add_segments() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        for (int i = 0; i < 3; i++) {
+            InstructionJournal.Builder.newBuilder().withDirectory(directory).open().close();
+        }
+
+        assertThat(segmentCount(directory), is(1L));
+    }
+
+    @Test
+    public void expect_exception_when_segment_size_exceeds_int_offsets() throws IOException {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Segment size should be at most 2147483647 bytes");
+        InstructionJournal.Builder.newBuilder().withDirectory(temporaryFolder.newFolder().toPath()).withSegmentSize(1L << 31).open();
+    }
+
+    @Test
+    public void expect_replay_to_stop_at_corrupt_record() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            for (TradingInstruction tradingInstruction : HappyPathBuilder.buildTradingInstructions(10)) {
+                journal.appendAndSync(tradingInstruction);
+            }
+        }
+        Path segment = directory.resolve(String.format("%020d%s", 1, InstructionJournal.SEGMENT_SUFFIX));
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[3 * InstructionJournal.FRAME_SIZE + InstructionJournal.FRAME_HEADER_SIZE + 20] ^= 1;
+        Files.write(segment, bytes);
+
+        assertThat(InstructionJournal.replay(directory, tradingInstruction -> { }), is(3L));
+    }
+
+    @Test
+    public void expect_replay_to_feed_a_live_report_generator() throws IOException {
+        Path directory = temporaryFolder.newFolder().toPath();
+        try (InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).open()) {
+            for (TradingInstruction tradingInstruction : HappyPathBuilder.buildTradingInstructions()) {
+                journal.append(tradingInstruction);
+            }
+        }
+
+        LiveReportGenerator liveReportGenerator = LiveReportGenerator.create();
+        InstructionJournal.replay(directory, liveReportGenerator);
+        assertThat(liveReportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(ReportGenerator.of(HappyPathBuilder.buildTradingInstructions()).calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_every_append_racing_close_to_complete() throws Exception {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(2_000);
+        Path directory = temporaryFolder.newFolder().toPath();
+        InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(directory).withMaxBatchSize(16).open();
+        List<CompletableFuture<Void>> futures = new CopyOnWriteArrayList<>();
+        Thread appender = new Thread(() -> {
+            try {
+                for (TradingInstruction tradingInstruction : tradingInstructions) {
+                    futures.add(journal.append(tradingInstruction));
+                }
+            } catch (IllegalStateException closed) {
+                // appends after close are rejected up front
+            }
+        });
+        appender.start();
+        journal.close();
+        appender.join();
+
+        long durable = 0;
+        for (CompletableFuture<Void> future : futures) {
+            assertThat(future.isDone(), is(true));
+            durable += future.isCompletedExceptionally() ? 0 : 1;
+        }
+        assertThat(InstructionJournal.replay(directory, tradingInstruction -> { }), is(durable));
+    }
+
+    @Test
+    public void expect_exception_when_appending_to_closed_journal() throws IOException {
+        expectedEx.expect(IllegalStateException.class);
+        expectedEx.expectMessage("Journal is closed");
+        InstructionJournal journal = InstructionJournal.Builder.newBuilder().withDirectory(temporaryFolder.newFolder().toPath()).open();
+        journal.close();
+        journal.append(HappyPathBuilder.buildTradingInstruction().build());
+    }
+
+    private static long segmentCount(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
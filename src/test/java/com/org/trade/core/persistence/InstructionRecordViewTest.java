@@ -0,0 +1,72 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import com.org.trade.core.reporting.ColumnarInstructionStore;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class InstructionRecordViewTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_view_to_read_the_encoded_fields() {
+        TradingInstruction tradingInstruction = HappyPathBuilder.buildTradingInstruction().build();
+        ByteBuffer buffer = ByteBuffer.allocate(8 + InstructionRecordCodec.RECORD_SIZE);
+        buffer.position(8);
+        InstructionRecordCodec.encode(tradingInstruction, buffer);
+
+        InstructionRecordView view = new InstructionRecordView().wrap(buffer, 8);
+        assertThat(view.getEntityType(), is(tradingInstruction.getEntityType()));
+        assertThat(view.getDirection(), is(tradingInstruction.getDirection()));
+        assertThat(view.getCurrency(), sameInstance(tradingInstruction.getCurrency()));
+        assertThat(view.getRate(), is(tradingInstruction.getRate()));
+        assertThat(view.getPricePerUnit(), is(tradingInstruction.getPricePerUnit()));
+        assertThat(view.getSettlementDate(), is(tradingInstruction.getSettlementDate()));
+        assertThat(view.getInstructionEpochDay(), is(tradingInstruction.getInstructionEpochDay()));
+        assertThat(view.getNumberOfUnits(), is(tradingInstruction.getNumberOfUnits()));
+        assertThat(view.determineTradeAmount(), is(tradingInstruction.determineTradeAmount()));
+        assertThat(view.toTradingInstruction(), is(tradingInstruction));
+    }
+
+    @Test
+    public void expect_columnar_store_fed_with_views_to_give_same_reports() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(5_000);
+        Path path = temporaryFolder.newFile().toPath();
+        InstructionSnapshot.write(tradingInstructions, path);
+
+        ColumnarInstructionStore.Builder builder = ColumnarInstructionStore.Builder.newBuilder();
+        InstructionSnapshot.open(path).forEachView(builder);
+        ReportGenerator fromViews = ReportGenerator.ofStore(builder.build());
+        ReportGenerator fromList = ReportGenerator.of(tradingInstructions);
+
+        assertThat(fromViews.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(fromList.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+        assertThat(fromViews.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(fromList.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_exception_when_record_does_not_fit_the_buffer() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Record at offset 10 does not fit the buffer");
+        new InstructionRecordView().wrap(ByteBuffer.allocate(InstructionRecordCodec.RECORD_SIZE), 10);
+    }
+}
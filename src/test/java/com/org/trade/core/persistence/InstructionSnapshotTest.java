@@ -0,0 +1,105 @@
+package com.org.trade.core.persistence;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.Weekend;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import com.org.trade.core.reporting.ReportGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InstructionSnapshotTest {
+
+    private static final TradeCurrency EURO = Currencies.register("EURO", Weekend.SAT_SUN, 2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_snapshot_to_reload_the_same_instructions() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(10_000);
+        Path path = temporaryFolder.newFile().toPath();
+
+        assertThat(InstructionSnapshot.write(tradingInstructions, path), is(10_000L));
+        assertThat(Files.size(path), is((long) InstructionSnapshot.HEADER_SIZE + 10_000L * InstructionRecordCodec.RECORD_SIZE));
+
+        InstructionSnapshot snapshot = InstructionSnapshot.open(path);
+        assertThat(snapshot.size(), is(10_000));
+        assertThat(snapshot.loadAll(), is(tradingInstructions));
+        assertThat(snapshot.asList(), is(tradingInstructions));
+        assertThat(snapshot.get(1234), is(tradingInstructions.get(1234)));
+    }
+
+    @Test
+    public void expect_snapshot_written_from_reportGenerator_to_give_same_reports() throws IOException {
+        Path path = temporaryFolder.newFile().toPath();
+        InstructionSnapshot.write(ReportGenerator.indexedOf(HappyPathBuilder.buildTradingInstructions()), path);
+
+        ReportGenerator reportGenerator = ReportGenerator.of(InstructionSnapshot.open(path).asList());
+        assertThat(reportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(reportGenerator.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(ReportGenerator.of(HappyPathBuilder.buildTradingInstructions()).sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_exception_when_file_is_not_a_snapshot() throws IOException {
+        expectedEx.expect(IOException.class);
+        expectedEx.expectMessage("bad magic number");
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, new byte[64]);
+        InstructionSnapshot.open(path);
+    }
+
+    @Test
+    public void expect_exception_when_snapshot_is_truncated() throws IOException {
+        expectedEx.expect(IOException.class);
+        expectedEx.expectMessage("is truncated");
+        Path path = temporaryFolder.newFile().toPath();
+        InstructionSnapshot.write(HappyPathBuilder.buildTradingInstructions(), path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        InstructionSnapshot.open(path);
+    }
+
+    @Test
+    public void expect_failed_write_to_keep_the_previous_snapshot() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(100);
+        Path path = temporaryFolder.newFolder().toPath().resolve("book.snapshot");
+        InstructionSnapshot.write(tradingInstructions, path);
+
+        try {
+            InstructionSnapshot.write(Arrays.asList(tradingInstructions.get(0), HappyPathBuilder.buildTradingInstruction().withTradeCurrency(EURO).build()), path);
+            throw new AssertionError("Writing an instruction that does not fit the record should fail");
+        } catch (IllegalArgumentException expected) {
+            assertThat(InstructionSnapshot.open(path).loadAll(), is(tradingInstructions));
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                assertThat(files.count(), is(1L));
+            }
+        }
+    }
+
+    @Test
+    public void expect_exception_when_instruction_doesnot_fit_the_record() throws IOException {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Currency EURO does not fit the instruction record");
+        InstructionSnapshot.write(Arrays.asList(HappyPathBuilder.buildTradingInstruction().withTradeCurrency(EURO).build()),
+                temporaryFolder.newFile().toPath());
+    }
+}
@@ -0,0 +1,203 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AsyncReportServiceTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_async_reports_to_match_reportGenerator() {
+        ReportGenerator reportGenerator = ReportGenerator.of(HappyPathBuilder.buildTradingInstructions());
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder().withReportGenerator(reportGenerator).build()) {
+            assertThat(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(), is(new BigDecimal("1306.00")));
+            assertThat(service.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(),
+                    is(reportGenerator.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+            assertThat(service.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(),
+                    is(reportGenerator.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+            assertThat(service.generateDailySettlementReport(HappyPathBuilder.AUGUST_FOURTEEN_2017).join().getOutgoingTradings(),
+                    is(reportGenerator.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+        }
+    }
+
+    @Test
+    public void expect_identical_inflight_queries_to_share_one_computation() {
+        BlockingList tradingInstructions = new BlockingList(HappyPathBuilder.buildTradingInstructions());
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder()
+                .withReportGenerator(ReportGenerator.of(tradingInstructions))
+                .withThreads(2)
+                .withCacheTtl(Duration.ZERO)
+                .build()) {
+            List<CompletableFuture<BigDecimal>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017));
+            }
+            tradingInstructions.release.countDown();
+            for (CompletableFuture<BigDecimal> future : futures) {
+                assertThat(future.join(), is(new BigDecimal("1306.00")));
+            }
+            assertThat(tradingInstructions.scans.get(), is(1));
+
+            service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join();
+            assertThat(tradingInstructions.scans.get(), is(2));
+        }
+    }
+
+    @Test
+    public void expect_completed_results_to_be_reused_until_generator_is_replaced() {
+        BlockingList tradingInstructions = new BlockingList(HappyPathBuilder.buildTradingInstructions());
+        tradingInstructions.release.countDown();
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder()
+                .withReportGenerator(ReportGenerator.of(tradingInstructions))
+                .withCacheTtl(Duration.ofHours(1))
+                .build()) {
+            service.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017).join();
+            service.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017).join();
+            assertThat(tradingInstructions.scans.get(), is(1));
+
+            service.replaceReportGenerator(ReportGenerator.of(tradingInstructions));
+            service.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017).join();
+            assertThat(tradingInstructions.scans.get(), is(2));
+        }
+    }
+
+    @Test
+    public void expect_queries_beyond_queue_capacity_to_be_rejected() {
+        BlockingList tradingInstructions = new BlockingList(HappyPathBuilder.buildTradingInstructions());
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder()
+                .withReportGenerator(ReportGenerator.of(tradingInstructions))
+                .withThreads(1)
+                .withQueueCapacity(1)
+                .build()) {
+            CompletableFuture<BigDecimal> running = service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+            CompletableFuture<BigDecimal> queued = service.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+            CompletableFuture<BigDecimal> rejected = service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(1));
+            tradingInstructions.release.countDown();
+
+            assertThat(running.join(), is(new BigDecimal("1306.00")));
+            queued.join();
+            try {
+                rejected.join();
+            } catch (CompletionException e) {
+                assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+                return;
+            }
+            throw new AssertionError("Query beyond the queue capacity should have been rejected");
+        }
+    }
+
+    @Test
+    public void expect_results_not_to_be_reused_once_the_instruction_set_changes() {
+        List<TradingInstruction> tradingInstructions = new ArrayList<>(HappyPathBuilder.buildTradingInstructions());
+        AtomicLong version = new AtomicLong();
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder()
+                .withReportGenerator(ReportGenerator.of(tradingInstructions))
+                .withCacheTtl(Duration.ofHours(1))
+                .withVersion(version::get)
+                .build()) {
+            assertThat(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(), is(new BigDecimal("1306.00")));
+
+            tradingInstructions.addAll(HappyPathBuilder.buildTradingInstructions());
+            version.incrementAndGet();
+            assertThat(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(), is(new BigDecimal("2612.00")));
+
+            tradingInstructions.addAll(HappyPathBuilder.buildTradingInstructions());
+            service.invalidate();
+            assertThat(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(), is(new BigDecimal("3918.00")));
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void expect_error_in_a_computation_to_fail_its_future_and_not_be_shared() {
+        BlockingList tradingInstructions = new BlockingList(HappyPathBuilder.buildTradingInstructions());
+        tradingInstructions.release.countDown();
+        tradingInstructions.error = new StackOverflowError();
+        try (AsyncReportService service = AsyncReportService.Builder.newBuilder()
+                .withReportGenerator(ReportGenerator.of(tradingInstructions))
+                .withThreads(1)
+                .build()) {
+            try {
+                service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join();
+                throw new AssertionError("Query failing with an error should complete exceptionally");
+            } catch (CompletionException e) {
+                assertThat(e.getCause(), instanceOf(StackOverflowError.class));
+            }
+            assertThat(service.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017).join(), is(new BigDecimal("1306.00")));
+        }
+    }
+
+    @Test
+    public void expect_exception_when_reportGenerator_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Report generator should not be null");
+        AsyncReportService.Builder.newBuilder().build();
+    }
+
+    /*
+     *  Counts the scans of the scanning aggregator and holds them until released. A set error is thrown by the next
+     *  scan only.
+     */
+    /*
+     *  Holds every scan on reading the first instruction until released, whichever way the list is traversed.
+     */
+    private static final class BlockingList extends AbstractList<TradingInstruction> implements RandomAccess {
+
+        private final List<TradingInstruction> tradingInstructions;
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger scans = new AtomicInteger();
+        private volatile Error error;
+
+        private BlockingList(final List<TradingInstruction> tradingInstructions) {
+            this.tradingInstructions = new ArrayList<>(tradingInstructions);
+        }
+
+        @Override
+        public TradingInstruction get(final int index) {
+            if (index == 0) {
+                awaitScan();
+            }
+            return tradingInstructions.get(index);
+        }
+
+        @Override
+        public int size() {
+            return tradingInstructions.size();
+        }
+
+        private void awaitScan() {
+            scans.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Error pending = error;
+            if (pending != null) {
+                error = null;
+                throw pending;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ColumnarInstructionStoreTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(5_000);
+
+    private static final ColumnarInstructionStore INSTRUCTION_STORE = ColumnarInstructionStore.of(TRADING_INSTRUCTIONS);
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_store_doesnot_build_when_instructions_are_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Trading instruction list should not be null");
+        ColumnarInstructionStore.of(null);
+    }
+
+    @Test
+    public void expect_store_doesnot_build_when_price_doesnot_fit_a_long() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Price per unit");
+        ColumnarInstructionStore.of(Arrays.asList(HappyPathBuilder.buildTradingInstruction()
+                .withPricePerUnit(new BigDecimal("123456789012345678901234567890")).build()));
+    }
+
+    @Test
+    public void expect_store_rebuilds_the_original_instructions() {
+        assertThat(INSTRUCTION_STORE.size(), is(TRADING_INSTRUCTIONS.size()));
+        for (int row = 0; row < TRADING_INSTRUCTIONS.size(); row++) {
+            assertThat(INSTRUCTION_STORE.tradingInstruction(row), is(TRADING_INSTRUCTIONS.get(row)));
+        }
+    }
+
+    @Test
+    public void expect_store_calculates_happy_path_totals() {
+        ReportGenerator reportGenerator = ReportGenerator.ofStore(ColumnarInstructionStore.of(HappyPathBuilder.buildTradingInstructions()));
+        assertThat(reportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(reportGenerator.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(reportGenerator.calculateTotalOfOutgoingTransactions(LocalDate.of(2017, 8, 13)), is(BigDecimal.ZERO));
+        List<EntityType> expectedOrder = Arrays.asList(EntityType.OIL, EntityType.CURRENCY, EntityType.GOLD);
+        List<TradingInstruction> sorted = reportGenerator.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+        for (int i = 0; i < 3; i++) {
+            assertThat(sorted.get(i).getEntityType(), is(expectedOrder.get(i)));
+        }
+    }
+
+    @Test
+    public void expect_store_totals_and_order_match_scanning_reportGenerator() {
+        ReportGenerator scanning = ReportGenerator.of(TRADING_INSTRUCTIONS);
+        for (int day = 0; day < 31; day++) {
+            LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(day);
+            for (Direction direction : Direction.values()) {
+                assertThat(INSTRUCTION_STORE.total(settledDate, direction), is(direction == Direction.SELL
+                        ? scanning.calculateTotalOfIncomingTransactions(settledDate)
+                        : scanning.calculateTotalOfOutgoingTransactions(settledDate)));
+            }
+            assertThat(INSTRUCTION_STORE.sort(settledDate, Direction.SELL), is(scanning.sortIncomingTradingByAmount(settledDate)));
+        }
+    }
+
+    @Test
+    public void expect_store_falls_back_to_bigDecimal_when_amounts_overflow() {
+        TradingInstruction large = HappyPathBuilder.buildTradingInstruction()
+                .withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017)
+                .withPricePerUnit(new BigDecimal("9000000000000000.000"))
+                .withNumberOfUnits(1_000)
+                .build();
+        List<TradingInstruction> tradingInstructions = Arrays.asList(large, large, HappyPathBuilder.buildTradingInstruction()
+                .withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017).build());
+        assertThat(ColumnarInstructionStore.of(tradingInstructions).total(HappyPathBuilder.AUGUST_FOURTEEN_2017, Direction.BUY),
+                is(ReportGenerator.of(tradingInstructions).calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_store_totals_per_currency_to_add_up_to_the_total() {
+        LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(3);
+        BigDecimal total = BigDecimal.ZERO;
+        for (String code : Arrays.asList("GBP", "USD", "SAR", "AED")) {
+            total = total.add(INSTRUCTION_STORE.total(settledDate, Direction.BUY, Currencies.of(code)));
+        }
+        assertThat(total.compareTo(INSTRUCTION_STORE.total(settledDate, Direction.BUY)), is(0));
+        assertThat(INSTRUCTION_STORE.total(settledDate, Direction.BUY, Currencies.JPY), is(BigDecimal.ZERO));
+    }
+}
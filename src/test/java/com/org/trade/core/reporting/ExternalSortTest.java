@@ -0,0 +1,112 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkState;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ExternalSortTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(20_000);
+    private static final LocalDate SETTLED_DATE = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_spilled_stream_to_match_the_sorted_transactions() throws IOException {
+        Path tempDirectory = temporaryFolder.newFolder().toPath();
+        ExternalSort externalSort = ExternalSort.Builder.newBuilder().withTempDirectory(tempDirectory).withRunSize(37).build();
+        ReportGenerator reportGenerator = ReportGenerator.of(TRADING_INSTRUCTIONS);
+
+        try (Stream<TradingInstruction> incoming = reportGenerator.streamIncomingTradingByAmount(SETTLED_DATE, externalSort)) {
+            assertThat(incoming.collect(Collectors.toList()), is(reportGenerator.sortIncomingTradingByAmount(SETTLED_DATE)));
+        }
+        try (Stream<TradingInstruction> outgoing = ReportGenerator.indexedOf(TRADING_INSTRUCTIONS).streamOutgoingTradingByAmount(SETTLED_DATE, externalSort)) {
+            assertThat(outgoing.collect(Collectors.toList()), is(reportGenerator.sortOutgoingTradingByAmount(SETTLED_DATE)));
+        }
+        assertThat(fileCount(tempDirectory), is(0L));
+    }
+
+    @Test
+    public void expect_in_memory_stream_when_matches_fit_one_run() throws IOException {
+        Path tempDirectory = temporaryFolder.newFolder().toPath();
+        ExternalSort externalSort = ExternalSort.Builder.newBuilder().withTempDirectory(tempDirectory).build();
+        ReportGenerator reportGenerator = ReportGenerator.of(TRADING_INSTRUCTIONS);
+
+        Iterator<TradingInstruction> incoming = reportGenerator.streamIncomingTradingByAmount(SETTLED_DATE, externalSort).iterator();
+        assertThat(fileCount(tempDirectory), is(0L));
+        assertThat(incoming.next(), is(reportGenerator.sortIncomingTradingByAmount(SETTLED_DATE).get(0)));
+    }
+
+    @Test
+    public void expect_run_files_to_be_deleted_when_stream_is_closed_early() throws IOException {
+        Path tempDirectory = temporaryFolder.newFolder().toPath();
+        ExternalSort externalSort = ExternalSort.Builder.newBuilder().withTempDirectory(tempDirectory).withRunSize(50).build();
+
+        try (Stream<TradingInstruction> incoming = ReportGenerator.of(TRADING_INSTRUCTIONS).streamIncomingTradingByAmount(SETTLED_DATE, externalSort)) {
+            assertThat(incoming.limit(3).count(), is(3L));
+            assertThat(fileCount(tempDirectory) > 1, is(true));
+        }
+        assertThat(fileCount(tempDirectory), is(0L));
+    }
+
+    @Test
+    public void expect_run_files_to_be_deleted_when_the_scan_fails() throws IOException {
+        Path tempDirectory = temporaryFolder.newFolder().toPath();
+        ExternalSort externalSort = ExternalSort.Builder.newBuilder().withTempDirectory(tempDirectory).withRunSize(50).build();
+        List<TradingInstruction> failing = new AbstractList<TradingInstruction>() {
+            @Override
+            public TradingInstruction get(final int index) {
+                checkState(index < TRADING_INSTRUCTIONS.size() / 2, "Scan failed");
+                return TRADING_INSTRUCTIONS.get(index);
+            }
+
+            @Override
+            public int size() {
+                return TRADING_INSTRUCTIONS.size();
+            }
+        };
+
+        try {
+            ReportGenerator.of(failing).streamIncomingTradingByAmount(SETTLED_DATE, externalSort);
+            fail("Expected the scan to fail");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("Scan failed"));
+        }
+        assertThat(fileCount(tempDirectory), is(0L));
+    }
+
+    @Test
+    public void expect_exception_when_run_size_is_not_positive() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Run size should be greater than zero");
+        ExternalSort.Builder.newBuilder().withRunSize(0).build();
+    }
+
+    private static long fileCount(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.TradeCurrency;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FxRevaluationTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(10_000);
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_revalued_totals_to_match_rebuilt_instructions() {
+        Map<TradeCurrency, BigDecimal> rates = new HashMap<>();
+        rates.put(Currencies.GBP, new BigDecimal("1.2875"));
+        rates.put(Currencies.SAR, new BigDecimal("0.2666"));
+
+        RevaluedTotals revaluedTotals = FxRevaluation.of(TRADING_INSTRUCTIONS).revalue(rates);
+
+        ReportGenerator rebuilt = ReportGenerator.of(revalue(TRADING_INSTRUCTIONS, rates));
+        assertThat(revaluedTotals.getSettlementDates(), is(TRADING_INSTRUCTIONS.stream()
+                .map(TradingInstruction::getSettlementDate)
+                .collect(Collectors.toSet())));
+        for (LocalDate settledDate : revaluedTotals.getSettlementDates()) {
+            assertThat(revaluedTotals.totalOfIncomingTransactions(settledDate), is(rebuilt.calculateTotalOfIncomingTransactions(settledDate)));
+            assertThat(revaluedTotals.totalOfOutgoingTransactions(settledDate), is(rebuilt.calculateTotalOfOutgoingTransactions(settledDate)));
+        }
+    }
+
+    @Test
+    public void expect_empty_scenario_to_give_the_agreed_totals() {
+        ReportGenerator reportGenerator = ReportGenerator.indexedOf(HappyPathBuilder.buildTradingInstructions());
+
+        RevaluedTotals revaluedTotals = FxRevaluation.of(reportGenerator).revalue(Collections.<TradeCurrency, BigDecimal>emptyMap());
+
+        assertThat(revaluedTotals.totalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(revaluedTotals.total(HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(1), Direction.BUY), is(BigDecimal.ZERO));
+    }
+
+    @Test
+    public void expect_scenarios_to_be_revalued_in_order() {
+        FxRevaluation fxRevaluation = FxRevaluation.of(TRADING_INSTRUCTIONS);
+        List<Map<TradeCurrency, BigDecimal>> scenarios = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            scenarios.add(Collections.singletonMap(Currencies.AED, BigDecimal.valueOf(i, 2)));
+        }
+
+        List<RevaluedTotals> revaluedTotals = fxRevaluation.revalueAll(scenarios);
+
+        assertThat((long) fxRevaluation.getGroupCount(), is(TRADING_INSTRUCTIONS.stream()
+                .map(tradingInstruction -> Arrays.asList(tradingInstruction.getSettlementDate(), tradingInstruction.getDirection(),
+                        tradingInstruction.getCurrency()))
+                .distinct()
+                .count()));
+        assertThat(revaluedTotals.size(), is(scenarios.size()));
+        LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(3);
+        for (int i = 0; i < scenarios.size(); i++) {
+            assertThat(revaluedTotals.get(i).totalOfOutgoingTransactions(settledDate),
+                    is(fxRevaluation.revalue(scenarios.get(i)).totalOfOutgoingTransactions(settledDate)));
+        }
+    }
+
+    @Test
+    public void expect_exception_when_rate_is_not_positive() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Rate for GBP should be greater than zero");
+        FxRevaluation.of(TRADING_INSTRUCTIONS).revalue(Collections.singletonMap(Currencies.GBP, BigDecimal.ZERO));
+    }
+
+    private static List<TradingInstruction> revalue(final List<TradingInstruction> tradingInstructions,
+                                                    final Map<TradeCurrency, BigDecimal> rates) {
+        TradingInstruction[] revalued = new TradingInstruction[tradingInstructions.size()];
+        for (int i = 0; i < revalued.length; i++) {
+            TradingInstruction tradingInstruction = tradingInstructions.get(i);
+            BigDecimal rate = rates.getOrDefault(tradingInstruction.getCurrency(), tradingInstruction.getRate());
+            revalued[i] = TradingInstruction.restore(tradingInstruction.getEntityType(), tradingInstruction.getDirection(), rate,
+                    tradingInstruction.getCurrency(), tradingInstruction.getInstructionDate(), tradingInstruction.getSettlementDate(),
+                    tradingInstruction.getNumberOfUnits(), tradingInstruction.getPricePerUnit());
+        }
+        return Arrays.asList(revalued);
+    }
+}
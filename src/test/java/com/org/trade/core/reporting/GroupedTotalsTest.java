@@ -0,0 +1,101 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class GroupedTotalsTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(20_000);
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_group_totals_to_match_grouping_streams_for_every_generator() {
+        LocalDate from = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(2);
+        LocalDate to = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(9);
+        GroupByQuery query = GroupByQuery.Builder.newBuilder()
+                .withDimensions(GroupingDimension.ENTITY_TYPE, GroupingDimension.CURRENCY, GroupingDimension.SETTLEMENT_DATE)
+                .withDirection(Direction.SELL)
+                .withSettlementDates(from, to)
+                .build();
+        Map<List<Object>, BigDecimal> expected = TRADING_INSTRUCTIONS.stream()
+                .filter(tradingInstruction -> tradingInstruction.getDirection() == Direction.SELL)
+                .filter(tradingInstruction -> !tradingInstruction.getSettlementDate().isBefore(from)
+                        && !tradingInstruction.getSettlementDate().isAfter(to))
+                .collect(Collectors.groupingBy(tradingInstruction -> Arrays.<Object>asList(tradingInstruction.getEntityType(),
+                        tradingInstruction.getCurrency(), tradingInstruction.getSettlementDate()),
+                        Collectors.reducing(BigDecimal.ZERO, TradingInstruction::determineTradeAmount, BigDecimal::add)));
+
+        for (ReportGenerator reportGenerator : Arrays.asList(ReportGenerator.of(TRADING_INSTRUCTIONS),
+                ReportGenerator.indexedOf(TRADING_INSTRUCTIONS),
+                ReportGenerator.parallelOf(TRADING_INSTRUCTIONS, ForkJoinPool.commonPool(), 256),
+                ReportGenerator.ofStore(ColumnarInstructionStore.of(TRADING_INSTRUCTIONS)))) {
+            GroupedTotals groupedTotals = reportGenerator.groupTotals(query);
+            List<GroupTotal> groups = groupedTotals.getGroups();
+            assertThat(groups.size(), is(expected.size()));
+            for (GroupTotal group : groups) {
+                assertThat(group.getDirection(), is((Direction) null));
+                assertThat(group.getTotal().compareTo(expected.get(Arrays.<Object>asList(group.getEntityType(),
+                        group.getCurrency(), group.getSettlementDate()))), is(0));
+                assertThat(groupedTotals.total(null, group.getEntityType(), group.getCurrency(), group.getSettlementDate()),
+                        is(group.getTotal()));
+            }
+        }
+    }
+
+    @Test
+    public void expect_direction_and_date_groups_to_match_report_totals() {
+        LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(4);
+        GroupedTotals groupedTotals = ReportGenerator.of(TRADING_INSTRUCTIONS).groupTotals(GroupByQuery.Builder.newBuilder()
+                .withDimensions(GroupingDimension.DIRECTION)
+                .withSettlementDate(settledDate)
+                .build());
+        ReportGenerator reportGenerator = ReportGenerator.of(TRADING_INSTRUCTIONS);
+
+        assertThat(groupedTotals.total(Direction.SELL, null, null, null), is(reportGenerator.calculateTotalOfIncomingTransactions(settledDate)));
+        assertThat(groupedTotals.total(Direction.BUY, null, null, null), is(reportGenerator.calculateTotalOfOutgoingTransactions(settledDate)));
+        assertThat(groupedTotals.count(Direction.BUY, null, null, null), is(reportGenerator.sortOutgoingTradingByAmount(settledDate).size()));
+    }
+
+    @Test
+    public void expect_zero_for_empty_group() {
+        GroupedTotals groupedTotals = ReportGenerator.of(HappyPathBuilder.buildTradingInstructions()).groupTotals(
+                GroupByQuery.Builder.newBuilder().withDimensions(GroupingDimension.ENTITY_TYPE, GroupingDimension.CURRENCY).build());
+        assertThat(groupedTotals.total(null, EntityType.OIL, Currencies.JPY, null), is(BigDecimal.ZERO));
+        assertThat(groupedTotals.count(null, EntityType.OIL, Currencies.JPY, null), is(0));
+    }
+
+    @Test
+    public void expect_exception_when_grouping_by_date_without_range() {
+        expectedEx.expect(IllegalStateException.class);
+        expectedEx.expectMessage("Settlement date range should be set to group by settlement date");
+        GroupByQuery.Builder.newBuilder().withDimensions(GroupingDimension.SETTLEMENT_DATE).build();
+    }
+
+    @Test
+    public void expect_exception_when_asking_total_for_ungrouped_dimension() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("DIRECTION should be null as the query does not group by it");
+        ReportGenerator.of(HappyPathBuilder.buildTradingInstructions())
+                .groupTotals(GroupByQuery.Builder.newBuilder().withDimensions(GroupingDimension.ENTITY_TYPE).build())
+                .total(Direction.BUY, EntityType.GOLD, null, null);
+    }
+}
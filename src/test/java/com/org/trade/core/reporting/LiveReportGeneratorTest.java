@@ -0,0 +1,94 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LiveReportGeneratorTest {
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_exception_when_appended_instruction_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Trading instruction should not be null");
+        LiveReportGenerator.create().append(null);
+    }
+
+    @Test
+    public void expect_live_reports_to_match_reportGenerator_for_happy_path() {
+        LiveReportGenerator liveReportGenerator = LiveReportGenerator.create();
+        HappyPathBuilder.buildTradingInstructions().forEach(liveReportGenerator);
+        ReportGenerator reportGenerator = ReportGenerator.of(HappyPathBuilder.buildTradingInstructions());
+
+        assertThat(liveReportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(liveReportGenerator.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(liveReportGenerator.calculateTotalOfOutgoingTransactions(LocalDate.of(2017, 8, 13)), is(BigDecimal.ZERO));
+        assertThat(liveReportGenerator.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(reportGenerator.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+        assertThat(liveReportGenerator.sortOutgoingTradingByAmount(LocalDate.of(2017, 8, 13)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void expect_evicted_settlement_dates_to_be_dropped() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(2_000);
+        LiveReportGenerator liveReportGenerator = LiveReportGenerator.create();
+        tradingInstructions.forEach(liveReportGenerator);
+        LocalDate keptDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(2);
+
+        liveReportGenerator.evictSettledBefore(HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(1));
+
+        assertThat(liveReportGenerator.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(BigDecimal.ZERO));
+        assertThat(liveReportGenerator.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017).isEmpty(), is(true));
+        ReportGenerator reportGenerator = ReportGenerator.of(tradingInstructions);
+        assertThat(reportGenerator.sortIncomingTradingByAmount(keptDate).isEmpty(), is(false));
+        assertThat(liveReportGenerator.calculateTotalOfIncomingTransactions(keptDate), is(reportGenerator.calculateTotalOfIncomingTransactions(keptDate)));
+        assertThat(liveReportGenerator.sortIncomingTradingByAmount(keptDate), is(reportGenerator.sortIncomingTradingByAmount(keptDate)));
+    }
+
+    @Test
+    public void expect_concurrent_appends_to_give_same_totals_as_reportGenerator() throws Exception {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(40_000);
+        LiveReportGenerator liveReportGenerator = LiveReportGenerator.create();
+        int producers = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int producer = 0; producer < producers; producer++) {
+                List<TradingInstruction> slice = tradingInstructions.subList(producer * 5_000, (producer + 1) * 5_000);
+                futures.add(executorService.submit(() -> slice.forEach(liveReportGenerator::append)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        ReportGenerator reportGenerator = ReportGenerator.of(tradingInstructions);
+        for (int day = 0; day < 30; day++) {
+            LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(day);
+            assertThat(liveReportGenerator.calculateTotalOfIncomingTransactions(settledDate),
+                    is(reportGenerator.calculateTotalOfIncomingTransactions(settledDate)));
+            assertThat(liveReportGenerator.calculateTotalOfOutgoingTransactions(settledDate),
+                    is(reportGenerator.calculateTotalOfOutgoingTransactions(settledDate)));
+            assertThat(new HashSet<>(liveReportGenerator.sortOutgoingTradingByAmount(settledDate)),
+                    is(new HashSet<>(reportGenerator.sortOutgoingTradingByAmount(settledDate))));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Currencies;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.Weekend;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReportExporterTest {
+
+    private static final LocalDate SETTLED_DATE = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_csv_rows_to_match_the_tradings() throws IOException {
+        TradingInstruction tradingInstruction = HappyPathBuilder.buildTradingInstruction()
+                .withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017)
+                .build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = ReportExporter.Builder.newBuilder().build()
+                .exportTradings(Arrays.asList(tradingInstruction), Channels.newChannel(output));
+
+        assertThat(count, is(1L));
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8),
+                is("direction,entityType,currency,instructionDate,settlementDate,numberOfUnits,pricePerUnit,agreedFxRate,tradeAmount\n"
+                        + csv(tradingInstruction) + "\n"));
+    }
+
+    @Test
+    public void expect_json_lines_to_match_the_tradings() throws IOException {
+        TradingInstruction tradingInstruction = HappyPathBuilder.buildTradingInstruction()
+                .withSettlementDate(HappyPathBuilder.AUGUST_FOURTEEN_2017)
+                .withTradeCurrency(Currencies.register("A\"B", Weekend.SAT_SUN, 2))
+                .build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ReportExporter.Builder.newBuilder().withFormat(ExportFormat.JSON_LINES).build()
+                .exportTradings(Arrays.asList(tradingInstruction), Channels.newChannel(output));
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8),
+                is("{\"direction\":\"" + tradingInstruction.getDirection() + "\",\"entityType\":\"" + tradingInstruction.getEntityType()
+                        + "\",\"currency\":\"A\\\"B\",\"instructionDate\":\"" + tradingInstruction.getInstructionDate()
+                        + "\",\"settlementDate\":\"2017-08-14\",\"numberOfUnits\":" + tradingInstruction.getNumberOfUnits()
+                        + ",\"pricePerUnit\":" + tradingInstruction.getPricePerUnit().toPlainString()
+                        + ",\"agreedFxRate\":" + tradingInstruction.getRate().toPlainString()
+                        + ",\"tradeAmount\":" + tradingInstruction.determineTradeAmount().toPlainString() + "}\n"));
+    }
+
+    @Test
+    public void expect_amounts_to_be_written_like_toPlainString() throws IOException {
+        List<TradingInstruction> tradingInstructions = Arrays.asList(
+                HappyPathBuilder.buildTradingInstruction().withPricePerUnit(new BigDecimal("0.0005")).withAgreedFxRate(new BigDecimal("0.01")).build(),
+                HappyPathBuilder.buildTradingInstruction().withPricePerUnit(new BigDecimal("1E+3")).build(),
+                HappyPathBuilder.buildTradingInstruction().withPricePerUnit(BigDecimal.valueOf(Long.MAX_VALUE, 2)).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ReportExporter.Builder.newBuilder().withBufferSize(7).build().exportTradings(tradingInstructions, Channels.newChannel(output));
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < tradingInstructions.size(); i++) {
+            assertThat(lines[i + 1], is(csv(tradingInstructions.get(i))));
+        }
+    }
+
+    @Test
+    public void expect_gzipped_file_to_hold_the_streamed_ranking() throws IOException {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(5_000);
+        ReportGenerator reportGenerator = ReportGenerator.of(tradingInstructions);
+        ExternalSort externalSort = ExternalSort.Builder.newBuilder().withTempDirectory(temporaryFolder.newFolder().toPath()).withRunSize(100).build();
+        ReportExporter reportExporter = ReportExporter.Builder.newBuilder().withGzip(true).build();
+        Path path = temporaryFolder.newFile().toPath();
+
+        long count;
+        try (Stream<TradingInstruction> incoming = reportGenerator.streamIncomingTradingByAmount(SETTLED_DATE, externalSort)) {
+            count = reportExporter.exportTradings(incoming, path);
+        }
+
+        List<TradingInstruction> sorted = reportGenerator.sortIncomingTradingByAmount(SETTLED_DATE);
+        assertThat(count, is((long) sorted.size()));
+        String[] lines = gunzip(Files.readAllBytes(path)).split("\n");
+        assertThat(lines.length, is(sorted.size() + 1));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(lines[i + 1], is(csv(sorted.get(i))));
+        }
+    }
+
+    @Test
+    public void expect_totals_to_match_the_daily_report() throws IOException {
+        DailySettlementReport dailySettlementReport = ReportGenerator.of(HappyPathBuilder.buildTradingInstructions())
+                .generateDailySettlementReport(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ReportExporter.Builder.newBuilder().withFormat(ExportFormat.JSON_LINES).build()
+                .exportTotals(dailySettlementReport, Channels.newChannel(output));
+
+        assertThat(new String(output.toByteArray(), StandardCharsets.UTF_8),
+                is("{\"settlementDate\":\"2017-08-14\",\"incomingTotal\":1306.00,\"outgoingTotal\":"
+                        + dailySettlementReport.getOutgoingTotal().toPlainString() + ",\"netPosition\":"
+                        + dailySettlementReport.getNetPosition().toPlainString() + "}\n"));
+    }
+
+    @Test
+    public void expect_exception_when_buffer_size_is_not_positive() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Buffer size should be greater than zero");
+        ReportExporter.Builder.newBuilder().withBufferSize(0).build();
+    }
+
+    private static String csv(final TradingInstruction tradingInstruction) {
+        return tradingInstruction.getDirection() + "," + tradingInstruction.getEntityType() + "," + tradingInstruction.getCurrency().getCode()
+                + "," + tradingInstruction.getInstructionDate() + "," + tradingInstruction.getSettlementDate()
+                + "," + tradingInstruction.getNumberOfUnits() + "," + tradingInstruction.getPricePerUnit().toPlainString()
+                + "," + tradingInstruction.getRate().toPlainString() + "," + tradingInstruction.determineTradeAmount().toPlainString();
+    }
+
+    private static String gunzip(final byte[] bytes) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] chunk = new byte[8192];
+            for (int read = input.read(chunk); read >= 0; read = input.read(chunk)) {
+                output.write(chunk, 0, read);
+            }
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -11,7 +11,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -20,6 +22,8 @@ public class ReportGeneratorTest {
 
     private static final ReportGenerator REPORT_GENERATOR = ReportGenerator.of(HappyPathBuilder.buildTradingInstructions());
 
+    private static final ReportGenerator INDEXED_REPORT_GENERATOR = ReportGenerator.indexedOf(HappyPathBuilder.buildTradingInstructions());
+
     @Rule
     public ExpectedException expectedEx = ExpectedException.none();
 
@@ -84,4 +88,127 @@ public class ReportGeneratorTest {
         }
     }
 
+    @Test
+    public void expect_indexed_reportGenerator_doesnot_build_when_instructions_are_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Trading instruction list should not be null");
+        ReportGenerator.indexedOf(null);
+    }
+
+    @Test
+    public void expect_indexed_reportGenerator_calculate_same_totals_as_scanning_reportGenerator() {
+        assertThat(INDEXED_REPORT_GENERATOR.calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        assertThat(INDEXED_REPORT_GENERATOR.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(new BigDecimal("1306.00")));
+        LocalDate today = LocalDate.now();
+        assertThat(INDEXED_REPORT_GENERATOR.calculateTotalOfIncomingTransactions(today), is(REPORT_GENERATOR.calculateTotalOfIncomingTransactions(today)));
+        assertThat(INDEXED_REPORT_GENERATOR.calculateTotalOfOutgoingTransactions(today), is(REPORT_GENERATOR.calculateTotalOfOutgoingTransactions(today)));
+    }
+
+    @Test
+    public void expect_zero_total_from_indexed_reportGenerator_when_settled_date_doesnot_match_input_date() {
+        assertThat(INDEXED_REPORT_GENERATOR.calculateTotalOfIncomingTransactions(LocalDate.of(2017, 8, 13)), is(BigDecimal.ZERO));
+        assertThat(ReportGenerator.indexedOf(new ArrayList<>()).calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017), is(BigDecimal.ZERO));
+        assertThat(INDEXED_REPORT_GENERATOR.sortIncomingTradingByAmount(LocalDate.of(2017, 8, 13)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void expect_indexed_reportGenerator_sort_in_same_order_as_scanning_reportGenerator() {
+        assertThat(INDEXED_REPORT_GENERATOR.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(REPORT_GENERATOR.sortIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+        assertThat(INDEXED_REPORT_GENERATOR.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(REPORT_GENERATOR.sortOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017)));
+    }
+
+    @Test
+    public void expect_top_and_bottom_transactions_to_match_the_sorted_transactions() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(20_000);
+        List<ReportGenerator> reportGenerators = Arrays.asList(ReportGenerator.of(tradingInstructions),
+                ReportGenerator.indexedOf(tradingInstructions),
+                ReportGenerator.parallelOf(tradingInstructions, ForkJoinPool.commonPool(), 256),
+                ReportGenerator.ofStore(ColumnarInstructionStore.of(tradingInstructions)));
+        LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(1);
+        List<TradingInstruction> sortedIncoming = ReportGenerator.of(tradingInstructions).sortIncomingTradingByAmount(settledDate);
+        List<TradingInstruction> sortedOutgoing = ReportGenerator.of(tradingInstructions).sortOutgoingTradingByAmount(settledDate);
+        List<TradingInstruction> reversedOutgoing = new ArrayList<>(sortedOutgoing);
+        Collections.reverse(reversedOutgoing);
+        for (ReportGenerator reportGenerator : reportGenerators) {
+            assertThat(reportGenerator.bottomIncomingTradingByAmount(settledDate, 25), is(sortedIncoming.subList(0, 25)));
+            assertThat(reportGenerator.topOutgoingTradingByAmount(settledDate, 25), is(reversedOutgoing.subList(0, 25)));
+            assertThat(reportGenerator.pageIncomingTradingByAmount(settledDate, 40, 30), is(sortedIncoming.subList(40, 70)));
+            assertThat(reportGenerator.pageOutgoingTradingByAmount(settledDate, sortedOutgoing.size() - 5, 30),
+                    is(sortedOutgoing.subList(sortedOutgoing.size() - 5, sortedOutgoing.size())));
+            assertThat(reportGenerator.topIncomingTradingByAmount(settledDate, 0).isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void expect_top_transactions_to_be_in_descending_order_of_amount() {
+        List<TradingInstruction> topIncoming = REPORT_GENERATOR.topIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017, 2);
+        assertThat(topIncoming.size(), is(2));
+        assertThat(topIncoming.get(0).getEntityType(), is(EntityType.GOLD));
+        assertThat(topIncoming.get(1).getEntityType(), is(EntityType.CURRENCY));
+        assertThat(REPORT_GENERATOR.bottomOutgoingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017, 10).size(), is(3));
+    }
+
+    @Test
+    public void expect_exception_when_page_offset_is_negative() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Offset should not be negative");
+        REPORT_GENERATOR.pageIncomingTradingByAmount(HappyPathBuilder.AUGUST_FOURTEEN_2017, -1, 10);
+    }
+
+    @Test
+    public void expect_parallel_reportGenerator_to_match_sequential_reportGenerator() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(20_000);
+        ReportGenerator sequential = ReportGenerator.of(tradingInstructions);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ReportGenerator parallel = ReportGenerator.parallelOf(tradingInstructions, pool, 100);
+            for (int day = 0; day < 31; day++) {
+                LocalDate settledDate = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(day);
+                assertThat(parallel.calculateTotalOfIncomingTransactions(settledDate), is(sequential.calculateTotalOfIncomingTransactions(settledDate)));
+                assertThat(parallel.calculateTotalOfOutgoingTransactions(settledDate), is(sequential.calculateTotalOfOutgoingTransactions(settledDate)));
+                assertThat(parallel.sortIncomingTradingByAmount(settledDate), is(sequential.sortIncomingTradingByAmount(settledDate)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(ReportGenerator.parallelOf(HappyPathBuilder.buildTradingInstructions()).calculateTotalOfIncomingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017),
+                is(new BigDecimal("1306.00")));
+    }
+
+    @Test
+    public void expect_exception_when_parallel_threshold_is_not_positive() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Parallel threshold should be greater than zero");
+        ReportGenerator.parallelOf(new ArrayList<>(), ForkJoinPool.commonPool(), 0);
+    }
+
+    @Test
+    public void expect_daily_settlement_report_to_match_the_separate_reports() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(20_000);
+        List<ReportGenerator> reportGenerators = Arrays.asList(ReportGenerator.of(tradingInstructions),
+                ReportGenerator.indexedOf(tradingInstructions),
+                ReportGenerator.parallelOf(tradingInstructions, ForkJoinPool.commonPool(), 256),
+                ReportGenerator.ofStore(ColumnarInstructionStore.of(tradingInstructions)));
+        ReportGenerator sequential = ReportGenerator.of(tradingInstructions);
+        for (LocalDate settledDate : Arrays.asList(HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(3), LocalDate.of(2000, 1, 3))) {
+            for (ReportGenerator reportGenerator : reportGenerators) {
+                DailySettlementReport dailySettlementReport = reportGenerator.generateDailySettlementReport(settledDate);
+                assertThat(dailySettlementReport.getSettlementDate(), is(settledDate));
+                assertThat(dailySettlementReport.getIncomingTotal(), is(sequential.calculateTotalOfIncomingTransactions(settledDate)));
+                assertThat(dailySettlementReport.getOutgoingTotal(), is(sequential.calculateTotalOfOutgoingTransactions(settledDate)));
+                assertThat(dailySettlementReport.getIncomingTradings(), is(sequential.sortIncomingTradingByAmount(settledDate)));
+                assertThat(dailySettlementReport.getOutgoingTradings(), is(sequential.sortOutgoingTradingByAmount(settledDate)));
+            }
+        }
+    }
+
+    @Test
+    public void expect_daily_settlement_report_net_position() {
+        DailySettlementReport dailySettlementReport = REPORT_GENERATOR.generateDailySettlementReport(HappyPathBuilder.AUGUST_FOURTEEN_2017);
+        assertThat(dailySettlementReport.getIncomingTotal(), is(new BigDecimal("1306.00")));
+        assertThat(dailySettlementReport.getNetPosition(),
+                is(new BigDecimal("1306.00").subtract(REPORT_GENERATOR.calculateTotalOfOutgoingTransactions(HappyPathBuilder.AUGUST_FOURTEEN_2017))));
+    }
 }
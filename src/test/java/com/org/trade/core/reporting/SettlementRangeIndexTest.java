@@ -0,0 +1,126 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SettlementRangeIndexTest {
+
+    private static final LocalDate FIRST_DAY = HappyPathBuilder.AUGUST_FOURTEEN_2017;
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_exception_when_range_is_reversed() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("To date should not be before from date");
+        SettlementRangeIndex.create().calculateTotalOfIncomingTransactions(FIRST_DAY, FIRST_DAY.minusDays(1));
+    }
+
+    @Test
+    public void expect_zero_when_nothing_settles_in_range() {
+        SettlementRangeIndex settlementRangeIndex = SettlementRangeIndex.of(HappyPathBuilder.buildTradingInstructions());
+        assertThat(SettlementRangeIndex.create().calculateTotalOfOutgoingTransactions(FIRST_DAY, FIRST_DAY), is(BigDecimal.ZERO));
+        assertThat(settlementRangeIndex.calculateTotalOfOutgoingTransactions(FIRST_DAY.minusYears(2), FIRST_DAY.minusYears(1)), is(BigDecimal.ZERO));
+        assertThat(settlementRangeIndex.calculateCumulativeTotal(FIRST_DAY.minusYears(1), Direction.BUY), is(BigDecimal.ZERO));
+        assertThat(settlementRangeIndex.calculateTotalOfIncomingTransactions(FIRST_DAY, FIRST_DAY), is(new BigDecimal("1306.00")));
+    }
+
+    @Test
+    public void expect_range_totals_to_match_daily_totals_of_reportGenerator() {
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(10_000);
+        SettlementRangeIndex settlementRangeIndex = SettlementRangeIndex.of(tradingInstructions);
+        ReportGenerator reportGenerator = ReportGenerator.indexedOf(tradingInstructions);
+        for (int from = -2; from < 32; from += 3) {
+            for (int to = from; to < 34; to += 5) {
+                BigDecimal incoming = null;
+                BigDecimal outgoing = null;
+                for (int day = from; day <= to; day++) {
+                    LocalDate settledDate = FIRST_DAY.plusDays(day);
+                    incoming = add(incoming, tradingInstructions, settledDate, Direction.SELL, null);
+                    outgoing = add(outgoing, tradingInstructions, settledDate, Direction.BUY, null);
+                }
+                assertThat(settlementRangeIndex.calculateTotalOfIncomingTransactions(FIRST_DAY.plusDays(from), FIRST_DAY.plusDays(to)),
+                        is(incoming == null ? BigDecimal.ZERO : incoming));
+                assertThat(settlementRangeIndex.calculateTotalOfOutgoingTransactions(FIRST_DAY.plusDays(from), FIRST_DAY.plusDays(to)),
+                        is(outgoing == null ? BigDecimal.ZERO : outgoing));
+            }
+        }
+        assertThat(settlementRangeIndex.calculateTotalOfIncomingTransactions(FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(3)),
+                is(reportGenerator.calculateTotalOfIncomingTransactions(FIRST_DAY.plusDays(3))));
+    }
+
+    @Test
+    public void expect_entity_type_totals_and_growth_in_both_directions() {
+        SettlementRangeIndex settlementRangeIndex = SettlementRangeIndex.create();
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(2_000);
+        tradingInstructions.forEach(settlementRangeIndex);
+        TradingInstruction early = HappyPathBuilder.buildTradingInstruction().withSettlementDate(FIRST_DAY.minusYears(1)).build();
+        TradingInstruction late = HappyPathBuilder.buildTradingInstruction().withSettlementDate(FIRST_DAY.plusYears(1)).build();
+        settlementRangeIndex.append(early);
+        settlementRangeIndex.append(late);
+        tradingInstructions.add(early);
+        tradingInstructions.add(late);
+
+        LocalDate from = FIRST_DAY.minusYears(2);
+        LocalDate to = FIRST_DAY.plusYears(2);
+        for (EntityType entityType : EntityType.values()) {
+            BigDecimal expected = null;
+            for (LocalDate day = early.getSettlementDate(); !day.isAfter(late.getSettlementDate()); day = day.plusDays(1)) {
+                expected = add(expected, tradingInstructions, day, Direction.BUY, entityType);
+            }
+            assertThat(settlementRangeIndex.calculateTotal(from, to, Direction.BUY, entityType), is(expected));
+        }
+        assertThat(settlementRangeIndex.calculateCumulativeTotal(FIRST_DAY.minusDays(1), Direction.BUY), is(early.determineTradeAmount()));
+        assertThat(settlementRangeIndex.calculateTotal(FIRST_DAY.plusMonths(6), to, Direction.BUY), is(late.determineTradeAmount()));
+    }
+
+    @Test
+    public void expect_outlying_settlement_dates_to_be_kept_apart_and_included_in_totals() {
+        SettlementRangeIndex settlementRangeIndex = SettlementRangeIndex.Builder.newBuilder().withMaxDays(1_000).build();
+        List<TradingInstruction> tradingInstructions = HappyPathBuilder.buildTradingInstructions(2_000);
+        tradingInstructions.forEach(settlementRangeIndex);
+        TradingInstruction sentinel = HappyPathBuilder.buildTradingInstruction().withSettlementDate(LocalDate.of(9999, 12, 31)).build();
+        TradingInstruction early = HappyPathBuilder.buildTradingInstruction().withSettlementDate(LocalDate.of(1970, 1, 2)).build();
+        settlementRangeIndex.append(sentinel);
+        settlementRangeIndex.append(early);
+
+        BigDecimal window = settlementRangeIndex.calculateTotal(FIRST_DAY.minusYears(1), FIRST_DAY.plusYears(1), Direction.BUY);
+        assertThat(settlementRangeIndex.calculateTotal(LocalDate.MIN, LocalDate.MAX, Direction.BUY),
+                is(window.add(sentinel.determineTradeAmount()).add(early.determineTradeAmount())));
+        assertThat(settlementRangeIndex.calculateTotal(sentinel.getSettlementDate(), sentinel.getSettlementDate(), Direction.BUY, sentinel.getEntityType()),
+                is(sentinel.determineTradeAmount()));
+        assertThat(settlementRangeIndex.calculateCumulativeTotal(FIRST_DAY.minusYears(1), Direction.BUY), is(early.determineTradeAmount()));
+    }
+
+    @Test
+    public void expect_exception_when_maxDays_is_out_of_range() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Maximum number of days should be between 1 and 536870912");
+        SettlementRangeIndex.Builder.newBuilder().withMaxDays(1 << 30).build();
+    }
+
+    private static BigDecimal add(final BigDecimal total, final List<TradingInstruction> tradingInstructions, final LocalDate settledDate,
+                                  final Direction direction, final EntityType entityType) {
+        BigDecimal sum = total;
+        for (TradingInstruction tradingInstruction : tradingInstructions) {
+            if (tradingInstruction.getDirection() == direction && tradingInstruction.getSettlementDate().isEqual(settledDate)
+                    && (entityType == null || tradingInstruction.getEntityType() == entityType)) {
+                sum = sum == null ? tradingInstruction.determineTradeAmount() : sum.add(tradingInstruction.determineTradeAmount());
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,132 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.Direction;
+import com.org.trade.core.domain.EntityType;
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TradeAmountDistributionTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(50_000);
+    private static final double[] FRACTIONS = {0, 0.01, 0.25, 0.5, 0.95, 0.99, 1};
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_quantiles_within_relative_accuracy_of_the_sorted_amounts() {
+        TradeAmountDistribution distribution = TradeAmountDistribution.Builder.newBuilder().withRelativeAccuracy(0.02).build();
+        ReportGenerator reportGenerator = ReportGenerator.of(TRADING_INSTRUCTIONS);
+        reportGenerator.forEachTradingInstruction(distribution);
+
+        for (LocalDate settledDate : distribution.getSettlementDates()) {
+            for (EntityType entityType : EntityType.values()) {
+                List<TradingInstruction> sorted = reportGenerator.sortOutgoingTradingByAmount(settledDate).stream()
+                        .filter(tradingInstruction -> tradingInstruction.getEntityType() == entityType)
+                        .collect(Collectors.toList());
+                QuantileSketch sketch = distribution.sketch(settledDate, Direction.BUY, entityType);
+                assertThat(sketch.getCount(), is((long) sorted.size()));
+                for (double fraction : FRACTIONS) {
+                    assertWithin(0.02, sketch.quantile(fraction), exactQuantile(sorted, fraction));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void expect_merged_partitions_to_equal_one_distribution() {
+        TradeAmountDistribution whole = TradeAmountDistribution.Builder.newBuilder().build();
+        TradeAmountDistribution first = TradeAmountDistribution.Builder.newBuilder().build();
+        TradeAmountDistribution second = TradeAmountDistribution.Builder.newBuilder().build();
+        TRADING_INSTRUCTIONS.forEach(whole);
+        TRADING_INSTRUCTIONS.subList(0, 20_000).forEach(first);
+        TRADING_INSTRUCTIONS.subList(20_000, TRADING_INSTRUCTIONS.size()).forEach(second);
+
+        first.merge(second);
+
+        assertThat(first.getSettlementDates(), is(whole.getSettlementDates()));
+        for (LocalDate settledDate : whole.getSettlementDates()) {
+            QuantileSketch merged = first.sketch(settledDate, Direction.SELL);
+            QuantileSketch expected = whole.sketch(settledDate, Direction.SELL);
+            assertThat(merged.getCount(), is(expected.getCount()));
+            for (double fraction : FRACTIONS) {
+                assertThat(merged.quantile(fraction), is(expected.quantile(fraction)));
+            }
+        }
+    }
+
+    @Test
+    public void expect_merged_groups_to_keep_their_own_maxBins() {
+        TradeAmountDistribution narrow = TradeAmountDistribution.Builder.newBuilder().withMaxBins(4).build();
+        TradeAmountDistribution wide = TradeAmountDistribution.Builder.newBuilder().build();
+        TRADING_INSTRUCTIONS.forEach(wide);
+
+        narrow.merge(wide);
+
+        for (LocalDate settledDate : narrow.getSettlementDates()) {
+            for (EntityType entityType : EntityType.values()) {
+                assertThat(narrow.sketch(settledDate, Direction.BUY, entityType).getBinCount() <= 4, is(true));
+            }
+        }
+    }
+
+    @Test
+    public void expect_sketch_to_stay_within_maxBins_and_keep_the_upper_quantiles() {
+        QuantileSketch sketch = QuantileSketch.of(0.01, 128);
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.pow(10, random.nextDouble() * 12);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(sketch.getBinCount() <= 128, is(true));
+        assertWithin(0.01, sketch.quantile(0.99), values[(int) Math.ceil(0.99 * values.length) - 1]);
+        assertThat(sketch.quantile(1), is(values[values.length - 1]));
+        assertThat(sketch.quantile(0), is(values[0]));
+    }
+
+    @Test
+    public void expect_empty_group_to_give_zero() {
+        TradeAmountDistribution distribution = TradeAmountDistribution.Builder.newBuilder().build();
+
+        assertThat(distribution.quantile(HappyPathBuilder.AUGUST_FOURTEEN_2017, Direction.BUY, EntityType.GOLD, 0.5), is(0.0));
+        assertThat(distribution.sketch(HappyPathBuilder.AUGUST_FOURTEEN_2017, Direction.BUY).getCount(), is(0L));
+    }
+
+    @Test
+    public void expect_exception_when_merging_different_accuracies() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Distributions with a different relative accuracy cannot be merged");
+        TradeAmountDistribution.Builder.newBuilder().build()
+                .merge(TradeAmountDistribution.Builder.newBuilder().withRelativeAccuracy(0.05).build());
+    }
+
+    private static double exactQuantile(final List<TradingInstruction> sorted, final double fraction) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.max(1, Math.ceil(fraction * sorted.size()));
+        BigDecimal amount = sorted.get(rank - 1).determineTradeAmount();
+        return amount.doubleValue();
+    }
+
+    private static void assertWithin(final double relativeAccuracy, final double actual, final double expected) {
+        assertThat(actual + " within " + relativeAccuracy + " of " + expected,
+                Math.abs(actual - expected) <= relativeAccuracy * expected * (1 + 1e-9), is(true));
+    }
+}
@@ -0,0 +1,96 @@
+package com.org.trade.core.reporting;
+
+import com.org.trade.core.domain.TradingInstruction;
+import com.org.trade.core.domain.fixture.HappyPathBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VersionedInstructionSetTest {
+
+    private static final List<TradingInstruction> TRADING_INSTRUCTIONS = HappyPathBuilder.buildTradingInstructions(20_000);
+    private static final LocalDate SETTLED_DATE = HappyPathBuilder.AUGUST_FOURTEEN_2017.plusDays(2);
+
+    @Rule
+    public ExpectedException expectedEx = ExpectedException.none();
+
+    @Test
+    public void expect_snapshot_to_keep_its_version_while_appending() {
+        VersionedInstructionSet instructionSet = VersionedInstructionSet.Builder.newBuilder().withChunkSize(4).build();
+        instructionSet.appendAll(TRADING_INSTRUCTIONS.subList(0, 10));
+
+        VersionedInstructionSet.Snapshot snapshot = instructionSet.snapshot();
+        instructionSet.appendAll(TRADING_INSTRUCTIONS.subList(10, 100));
+        instructionSet.append(TRADING_INSTRUCTIONS.get(100));
+
+        assertThat(snapshot.getVersion(), is(10L));
+        assertThat(snapshot, is(TRADING_INSTRUCTIONS.subList(0, 10)));
+        assertThat(instructionSet.getVersion(), is(101L));
+        assertThat(instructionSet.snapshot(), is(TRADING_INSTRUCTIONS.subList(0, 101)));
+        List<TradingInstruction> visited = new ArrayList<>();
+        instructionSet.snapshot().forEach(visited::add);
+        assertThat(visited, is(TRADING_INSTRUCTIONS.subList(0, 101)));
+    }
+
+    @Test
+    public void expect_snapshot_reports_to_match_a_list_report() {
+        VersionedInstructionSet instructionSet = VersionedInstructionSet.Builder.newBuilder().build();
+        TRADING_INSTRUCTIONS.forEach(instructionSet);
+
+        ReportGenerator reportGenerator = ReportGenerator.of(instructionSet.snapshot());
+        ReportGenerator expected = ReportGenerator.of(TRADING_INSTRUCTIONS);
+        assertThat(reportGenerator.calculateTotalOfIncomingTransactions(SETTLED_DATE), is(expected.calculateTotalOfIncomingTransactions(SETTLED_DATE)));
+        assertThat(reportGenerator.sortOutgoingTradingByAmount(SETTLED_DATE), is(expected.sortOutgoingTradingByAmount(SETTLED_DATE)));
+        assertThat(ReportGenerator.parallelOf(instructionSet.snapshot()).sortIncomingTradingByAmount(SETTLED_DATE),
+                is(expected.sortIncomingTradingByAmount(SETTLED_DATE)));
+    }
+
+    @Test
+    public void expect_reports_over_snapshots_to_be_consistent_while_a_writer_appends() throws InterruptedException {
+        VersionedInstructionSet instructionSet = VersionedInstructionSet.Builder.newBuilder().withChunkSize(64).build();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                TRADING_INSTRUCTIONS.forEach(instructionSet);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+
+        long version = 0;
+        while (version < TRADING_INSTRUCTIONS.size()) {
+            VersionedInstructionSet.Snapshot snapshot = instructionSet.snapshot();
+            assertThat(snapshot.getVersion() >= version, is(true));
+            version = snapshot.getVersion();
+            BigDecimal total = ReportGenerator.of(snapshot).calculateTotalOfIncomingTransactions(SETTLED_DATE);
+            assertThat(total, is(ReportGenerator.of(TRADING_INSTRUCTIONS.subList(0, snapshot.size()))
+                    .calculateTotalOfIncomingTransactions(SETTLED_DATE)));
+        }
+        writer.join();
+        assertThat(failure.get() == null, is(true));
+    }
+
+    @Test
+    public void expect_exception_when_chunk_size_is_not_a_power_of_two() {
+        expectedEx.expect(IllegalArgumentException.class);
+        expectedEx.expectMessage("Chunk size should be a power of two");
+        VersionedInstructionSet.Builder.newBuilder().withChunkSize(1000).build();
+    }
+
+    @Test
+    public void expect_exception_when_instruction_is_null() {
+        expectedEx.expect(NullPointerException.class);
+        expectedEx.expectMessage("Trading instruction should not be null");
+        VersionedInstructionSet.Builder.newBuilder().build().append(null);
+    }
+}